@@ -0,0 +1,103 @@
+package uk.gov.companieshouse.acsp.manage.users.interceptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import reactor.core.publisher.Mono;
+import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContext;
+import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextData.RequestContextDataBuilder;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2, time = 5 )
+@Measurement( iterations = 3, time = 5 )
+@Fork( value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short" )
+public class RequestThreadingBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int CONCURRENT_REQUESTS = 2_000;
+
+    @Param( { "platform", "virtual" } )
+    private String threads;
+
+    @Param( { "20" } )
+    private long downstreamLatencyMillis;
+
+    private ExecutorService executorService;
+
+    @Setup( Level.Trial )
+    public void setup(){
+        executorService = "virtual".equals( threads ) ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool( TOMCAT_MAX_THREADS );
+    }
+
+    @TearDown( Level.Trial )
+    public void teardown(){
+        executorService.shutdownNow();
+    }
+
+    private User downstreamCall( final String userId ){
+        return Mono.delay( Duration.ofMillis( downstreamLatencyMillis ) )
+                .map( tick -> {
+                    final var user = new User();
+                    user.setUserId( userId );
+                    return user;
+                } )
+                .block( Duration.ofSeconds( 20L ) );
+    }
+
+    private String handleRequest( final int requestNumber ){
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "X-Request-Id", String.valueOf( requestNumber ) );
+        request.addHeader( "Eric-Identity", "COMU002" );
+        request.addHeader( "Eric-Identity-Type", "oauth2" );
+
+        RequestContext.setRequestContext( new RequestContextDataBuilder()
+                .setXRequestId( request )
+                .setEricIdentity( request )
+                .setEricIdentityType( request )
+                .setUserSupplier( () -> downstreamCall( "COMU002" ) )
+                .build() );
+        try {
+            final var requestingUser = RequestContext.getRequestContext().getUser();
+            downstreamCall( requestingUser.getUserId() );
+            return RequestContext.getRequestContext().getXRequestId();
+        } finally {
+            RequestContext.clear();
+        }
+    }
+
+    @Benchmark
+    public int concurrentBlockingRequests() throws Exception {
+        final var responses = new ArrayList<Future<String>>( CONCURRENT_REQUESTS );
+        for ( var requestNumber = 0; requestNumber < CONCURRENT_REQUESTS; requestNumber++ ){
+            final var currentRequestNumber = requestNumber;
+            responses.add( executorService.submit( () -> handleRequest( currentRequestNumber ) ) );
+        }
+        var completed = 0;
+        for ( final var response: responses ){
+            response.get();
+            completed++;
+        }
+        return completed;
+    }
+
+}
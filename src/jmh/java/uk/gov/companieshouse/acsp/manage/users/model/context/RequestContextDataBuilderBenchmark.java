@@ -0,0 +1,82 @@
+package uk.gov.companieshouse.acsp.manage.users.model.context;
+
+import static uk.gov.companieshouse.acsp.manage.users.model.Constants.UNKNOWN;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
+
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-XX:+UseParallelGC" )
+public class RequestContextDataBuilderBenchmark {
+
+    private static final String TOKEN_PERMISSIONS = "acsp_number=COMA001 acsp_members=read acsp_members_owners=create,update,delete acsp_members_admins=create,update,delete acsp_members_standard=create,update,delete";
+    private static final String ROLES = "/admin/acsp/search /admin/user/search";
+
+    private static final Pattern ACSP_NUMBER_PATTERN = Pattern.compile( "(?<=^|\\s)acsp_number=([0-9A-Za-z-_]{0,32})(?=\\s|$)" );
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup(){
+        request = new MockHttpServletRequest();
+        request.addHeader( "Eric-Authorised-Token-Permissions", TOKEN_PERMISSIONS );
+        request.addHeader( "Eric-Authorised-Roles", ROLES );
+    }
+
+    @Benchmark
+    public void regexAndStreamParsing( final Blackhole blackhole ){
+        final var permissions = request.getHeader( "Eric-Authorised-Token-Permissions" );
+
+        blackhole.consume( Optional.ofNullable( permissions )
+                .map( ACSP_NUMBER_PATTERN::matcher )
+                .map( matcher -> matcher.find() ? matcher.group( 1 ) : null )
+                .orElse( UNKNOWN ) );
+
+        final var roleMap = new LinkedHashMap<String, UserRoleEnum>();
+        roleMap.put( "acsp_members_owners=create,update,delete", UserRoleEnum.OWNER );
+        roleMap.put( "acsp_members_admins=create,update,delete", UserRoleEnum.ADMIN );
+        roleMap.put( "acsp_members=read", UserRoleEnum.STANDARD );
+        blackhole.consume( roleMap.entrySet().stream()
+                .filter( entry -> permissions.contains( entry.getKey() ) )
+                .map( Map.Entry::getValue )
+                .findFirst()
+                .orElse( null ) );
+
+        blackhole.consume( Optional.ofNullable( request.getHeader( "Eric-Authorised-Roles" ) )
+                .map( roles -> roles.split(" ") )
+                .map( roles -> Arrays.stream( roles ).collect( Collectors.toCollection( HashSet::new ) ) )
+                .orElse( new HashSet<>() ) );
+    }
+
+    @Benchmark
+    public RequestContextData singlePassParsing(){
+        return new RequestContextData.RequestContextDataBuilder()
+                .setTokenPermissions( request )
+                .setAdminPrivileges( request )
+                .build();
+    }
+
+}
@@ -0,0 +1,39 @@
+package uk.gov.companieshouse.acsp.manage.users.utils;
+
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.debugContext;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-DLOGLEVEL=info" )
+public class LoggingUtilBenchmark {
+
+    private final String xRequestId = "theId123";
+    private final String membershipId = "TS001";
+    private final String acspNumber = "TSA001";
+
+    @Benchmark
+    public void eagerlyFormattedDebugLog(){
+        LOGGER.debugContext( xRequestId, String.format( "Attempting to fetch active membership for user %s and Acsp %s", membershipId, acspNumber ), null );
+    }
+
+    @Benchmark
+    public void lazilyFormattedDebugLog(){
+        debugContext( xRequestId, "Attempting to fetch active membership for user %s and Acsp %s", membershipId, acspNumber );
+    }
+
+}
@@ -0,0 +1,32 @@
+package uk.gov.companieshouse.acsp.manage.users.actuator;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.acsp.manage.users.model.MigrationProgressDao;
+import uk.gov.companieshouse.acsp.manage.users.repositories.MigrationProgressRepository;
+
+@Component
+@Endpoint( id = "migrations" )
+public class MigrationProgressEndpoint {
+
+    private final MigrationProgressRepository migrationProgressRepository;
+
+    public MigrationProgressEndpoint( final MigrationProgressRepository migrationProgressRepository ) {
+        this.migrationProgressRepository = migrationProgressRepository;
+    }
+
+    @ReadOperation
+    public List<MigrationProgressDao> fetchMigrationProgress(){
+        return migrationProgressRepository.findAll( Sort.by( "version" ) );
+    }
+
+    @ReadOperation
+    public MigrationProgressDao fetchMigrationProgress( @Selector final Integer version ){
+        return migrationProgressRepository.findById( version ).orElse( null );
+    }
+
+}
@@ -0,0 +1,14 @@
+package uk.gov.companieshouse.acsp.manage.users.configuration;
+
+import io.micrometer.context.ContextRegistry;
+import org.springframework.context.annotation.Configuration;
+import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextAccessor;
+
+@Configuration
+public class ContextPropagationConfig {
+
+    public ContextPropagationConfig(){
+        ContextRegistry.getInstance().registerThreadLocalAccessor( new RequestContextAccessor() );
+    }
+
+}
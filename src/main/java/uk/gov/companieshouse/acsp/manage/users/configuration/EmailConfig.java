@@ -1,8 +1,51 @@
 package uk.gov.companieshouse.acsp.manage.users.configuration;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @Configuration
 @ComponentScan( basePackages = "uk.gov.companieshouse.email_producer" )
-public class EmailConfig {}
+public class EmailConfig {
+
+    private static final String EMAIL_EXECUTOR_NAME = "acsp.members.email.executor";
+
+    private static RejectedExecutionHandler toOverflowPolicy( final String overflowPolicy ){
+        return switch ( overflowPolicy ) {
+            case "caller-runs" -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case "abort" -> new ThreadPoolExecutor.AbortPolicy();
+            case "discard-oldest" -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            default -> throw new IllegalArgumentException( String.format( "Unsupported email executor overflow policy: %s", overflowPolicy ) );
+        };
+    }
+
+    @Bean( destroyMethod = "dispose" )
+    public Scheduler emailScheduler( @Value( "${acsp.members.email.executor.threads:4}" ) final int threads, @Value( "${acsp.members.email.executor.queue-capacity:500}" ) final int queueCapacity, @Value( "${acsp.members.email.executor.overflow-policy:caller-runs}" ) final String overflowPolicy, final MeterRegistry meterRegistry ) {
+        final var overflowHandler = toOverflowPolicy( overflowPolicy );
+        final var rejectedTasks = Counter.builder( EMAIL_EXECUTOR_NAME + ".overflow" ).tag( "policy", overflowPolicy ).register( meterRegistry );
+        final var threadNumber = new AtomicInteger();
+        final var executor = new ThreadPoolExecutor( threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>( queueCapacity ), runnable -> {
+            final var thread = new Thread( runnable, "email-sender-" + threadNumber.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        }, ( runnable, threadPoolExecutor ) -> {
+            rejectedTasks.increment();
+            overflowHandler.rejectedExecution( runnable, threadPoolExecutor );
+        } );
+        final var monitoredExecutor = ExecutorServiceMetrics.monitor( meterRegistry, executor, EMAIL_EXECUTOR_NAME, List.of() );
+        return Schedulers.fromExecutorService( monitoredExecutor, EMAIL_EXECUTOR_NAME );
+    }
+
+}
@@ -1,11 +1,20 @@
 package uk.gov.companieshouse.acsp.manage.users.configuration;
 
+import com.mongodb.ReadPreference;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
 import org.springframework.data.mongodb.core.mapping.event.ValidatingMongoEventListener;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import java.time.LocalDateTime;
@@ -13,6 +22,7 @@ import java.util.Optional;
 
 @Configuration
 @EnableMongoRepositories( "uk.gov.companieshouse.acsp.manage.users.repositories" )
+@EnableReactiveMongoRepositories( "uk.gov.companieshouse.acsp.manage.users.repositories" )
 @EnableMongoAuditing( dateTimeProviderRef = "mongodbDatetimeProvider" )
 public class MongoConfig {
 
@@ -26,4 +36,15 @@ public class MongoConfig {
         return () -> Optional.of( LocalDateTime.now() );
     }
 
+    @Bean
+    public MongoTransactionManager transactionManager( final MongoDatabaseFactory mongoDatabaseFactory ) {
+        return new MongoTransactionManager( mongoDatabaseFactory );
+    }
+
+    @Bean
+    @ConditionalOnProperty( name = "acsp.members.reads.secondary.enabled", havingValue = "true" )
+    public MongoTemplate mongoTemplate( final MongoDatabaseFactory mongoDatabaseFactory, final MongoConverter mongoConverter, @Value( "${acsp.members.reads.secondary.max-staleness-seconds:90}" ) final long maxStalenessSeconds ) {
+        return new ReadPreferenceRoutingMongoTemplate( mongoDatabaseFactory, mongoConverter, ReadPreference.secondaryPreferred( maxStalenessSeconds, TimeUnit.SECONDS ) );
+    }
+
 }
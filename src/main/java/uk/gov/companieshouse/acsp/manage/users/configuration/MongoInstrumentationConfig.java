@@ -0,0 +1,34 @@
+package uk.gov.companieshouse.acsp.manage.users.configuration;
+
+import static uk.gov.companieshouse.acsp.manage.users.utils.RepositoryMethodUtil.repositoryMethodTracker;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import uk.gov.companieshouse.acsp.manage.users.interceptor.MongoCommandInstrumentation;
+import uk.gov.companieshouse.acsp.manage.users.interceptor.MongoRequestContextProvider;
+
+@Configuration
+public class MongoInstrumentationConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandInstrumentationCustomizer( final MongoCommandInstrumentation mongoCommandInstrumentation ) {
+        return builder -> builder.addCommandListener( mongoCommandInstrumentation ).contextProvider( new MongoRequestContextProvider() );
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMethodTrackingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization( final Object bean, final String beanName ) {
+                if ( bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean ){
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer( repositoryFactory -> repositoryFactory.addRepositoryProxyPostProcessor( ( proxyFactory, repositoryInformation ) -> proxyFactory.addAdvice( repositoryMethodTracker( repositoryInformation.getRepositoryInterface() ) ) ) );
+                }
+                return bean;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,30 @@
+package uk.gov.companieshouse.acsp.manage.users.configuration;
+
+import java.lang.reflect.Method;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import uk.gov.companieshouse.acsp.manage.users.controller.AcspMembershipsController;
+
+@Configuration
+@ConditionalOnProperty( name = "acsp.members.controllers.reactive.enabled", havingValue = "true" )
+public class ReactiveControllersConfig implements WebMvcRegistrations {
+
+    private static final String REACTIVE_METHOD = "getMembersForAcsp";
+
+    @Override
+    public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+        return new RequestMappingHandlerMapping() {
+            @Override
+            protected RequestMappingInfo getMappingForMethod( final Method method, final Class<?> handlerType ) {
+                if ( AcspMembershipsController.class.isAssignableFrom( handlerType ) && REACTIVE_METHOD.equals( method.getName() ) ){
+                    return null;
+                }
+                return super.getMappingForMethod( method, handlerType );
+            }
+        };
+    }
+
+}
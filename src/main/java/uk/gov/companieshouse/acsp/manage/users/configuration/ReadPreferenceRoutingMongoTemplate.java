@@ -0,0 +1,28 @@
+package uk.gov.companieshouse.acsp.manage.users.configuration;
+
+import static uk.gov.companieshouse.acsp.manage.users.utils.SecondaryReadsUtil.isSecondaryReadPermitted;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReadPreferenceRoutingMongoTemplate extends MongoTemplate {
+
+    private final ReadPreference secondaryReadPreference;
+
+    public ReadPreferenceRoutingMongoTemplate( final MongoDatabaseFactory mongoDatabaseFactory, final MongoConverter mongoConverter, final ReadPreference secondaryReadPreference ){
+        super( mongoDatabaseFactory, mongoConverter );
+        this.secondaryReadPreference = secondaryReadPreference;
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection( final MongoCollection<Document> collection ){
+        final var preparedCollection = super.prepareCollection( collection );
+        return isSecondaryReadPermitted() && !TransactionSynchronizationManager.isActualTransactionActive() ? preparedCollection.withReadPreference( secondaryReadPreference ) : preparedCollection;
+    }
+
+}
@@ -0,0 +1,8 @@
+package uk.gov.companieshouse.acsp.manage.users.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -20,6 +20,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
 import org.springframework.security.web.csrf.CsrfFilter;
 import uk.gov.companieshouse.acsp.manage.users.filter.UserAuthenticationFilter;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspMembersService;
@@ -33,13 +34,16 @@ public class WebSecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain( final HttpSecurity http, final AcspMembersService acspMembersService ) throws Exception {
+        final var securityContextRepository = new RequestAttributeSecurityContextRepository();
         http.cors( AbstractHttpConfigurer::disable )
                 .sessionManagement( s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS ) )
                 .csrf( AbstractHttpConfigurer::disable )
+                .securityContext( context -> context.securityContextRepository( securityContextRepository ) )
                 .addFilterBefore( new CustomCorsFilter( externalMethods.get() ), CsrfFilter.class )
-                .addFilterAfter( new UserAuthenticationFilter( acspMembersService ), CsrfFilter.class )
+                .addFilterAfter( new UserAuthenticationFilter( acspMembersService, securityContextRepository ), CsrfFilter.class )
                 .authorizeHttpRequests( request -> request
                         .requestMatchers( GET, "/acsp-manage-users-api/healthcheck" ).permitAll()
+                        .requestMatchers( GET, "/acsp-manage-users-api/migrations", "/acsp-manage-users-api/migrations/*" ).hasAnyRole( getValues( KEY_ROLE ) )
                         .requestMatchers( GET, "/user/acsps/memberships" ).hasAnyRole( getValues( BASIC_OAUTH_ROLE, ACSP_OWNER_ROLE, ACSP_ADMIN_ROLE, ACSP_STANDARD_ROLE ) )
                         .requestMatchers( POST, "/acsps/*/memberships" ).hasAnyRole( getValues( ACSP_OWNER_ROLE, ACSP_ADMIN_ROLE, KEY_ROLE ) )
                         .requestMatchers( PATCH, "/acsps/memberships/*" ).hasAnyRole( getValues( ACSP_OWNER_ROLE, ACSP_ADMIN_ROLE, KEY_ROLE ) )
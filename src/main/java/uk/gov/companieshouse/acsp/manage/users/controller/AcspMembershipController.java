@@ -2,10 +2,11 @@ package uk.gov.companieshouse.acsp.manage.users.controller;
 
 import static org.springframework.http.HttpStatus.OK;
 import static uk.gov.companieshouse.acsp.manage.users.model.Constants.PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN;
-import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.infoContext;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.canChangeRole;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.canRemoveMembership;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getEricIdentity;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getIfMatch;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getUser;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.isActiveMemberOfAcsp;
@@ -15,13 +16,17 @@ import static uk.gov.companieshouse.api.acspprofile.Status.CEASED;
 
 import java.util.Objects;
 import java.util.Optional;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.BadRequestRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.ForbiddenRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.PreconditionFailedRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspMembersService;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspProfileService;
+import uk.gov.companieshouse.acsp.manage.users.service.EmailOutboxService;
 import uk.gov.companieshouse.acsp.manage.users.service.EmailService;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
 import uk.gov.companieshouse.api.acsp_manage_users.api.AcspMembershipInterface;
@@ -36,27 +41,35 @@ public class AcspMembershipController implements AcspMembershipInterface {
     private final EmailService emailService;
     private final UsersService usersService;
     private final AcspProfileService acspProfileService;
+    private final EmailOutboxService emailOutboxService;
 
-    public AcspMembershipController( final AcspMembersService acspMembersService, final EmailService emailService, final UsersService usersService, final AcspProfileService acspProfileService ) {
+    public AcspMembershipController( final AcspMembersService acspMembersService, final EmailService emailService, final UsersService usersService, final AcspProfileService acspProfileService, final EmailOutboxService emailOutboxService ) {
         this.acspMembersService = acspMembersService;
         this.emailService = emailService;
         this.usersService = usersService;
         this.acspProfileService = acspProfileService;
+        this.emailOutboxService = emailOutboxService;
+    }
+
+    private static <T> ResponseEntity<T> withEtag( final T body, final String etag ){
+        final var headers = new HttpHeaders();
+        Optional.ofNullable( etag ).ifPresent( tag -> headers.setETag( String.format( "\"%s\"", tag ) ) );
+        return new ResponseEntity<>( body, headers, OK );
     }
 
     @Override
     public ResponseEntity<AcspMembership> getAcspMembershipForAcspAndId( final String xRequestId, final String membershipId ) {
-        LOGGER.infoContext( getXRequestId(), String.format( "Received request with membership_id=%s", membershipId ), null );
+        infoContext( getXRequestId(), "Received request with membership_id=%s", membershipId );
 
         final var membership = acspMembersService
                 .fetchMembership( membershipId )
-                .orElseThrow( () -> new NotFoundRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( String.format( "Could not find membership with id: %s", membershipId ) ) ) );
+                .orElseThrow( () -> new NotFoundRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "Could not find membership with id: %s", membershipId ) ) );
 
         if ( isOAuth2Request() && !isActiveMemberOfAcsp( membership.getAcspNumber() ) ){
-            throw new ForbiddenRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( String.format( "Requesting user is not an active member of Acsp %s", membership.getAcspNumber() ) ) );
+            throw new ForbiddenRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "Requesting user is not an active member of Acsp %s", membership.getAcspNumber() ) );
         }
 
-        return new ResponseEntity<>( membership, OK );
+        return withEtag( membership, membership.getEtag() );
     }
 
     @Override
@@ -73,35 +86,44 @@ public class AcspMembershipController implements AcspMembershipInterface {
                 .map( UserRoleEnum::fromValue )
                 .orElse( null );
 
-        LOGGER.infoContext( getXRequestId(), String.format( "Received request with membership_id=%s, user_status=%s, user_role=%s ", targetMembershipId, proposedUserStatus, proposedUserRole ), null );
+        infoContext( getXRequestId(), "Received request with membership_id=%s, user_status=%s, user_role=%s ", targetMembershipId, proposedUserStatus, proposedUserRole );
 
         if ( Objects.isNull( proposedUserStatus ) && Objects.isNull( proposedUserRole ) ){
-            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( "Request body is empty" ) );
+            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, "Request body is empty" );
         }
 
-        final var targetMembership = acspMembersService
-                .fetchMembershipDao( targetMembershipId )
-                .orElseThrow( () -> new NotFoundRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( String.format( "Could not find Acsp Membership with id: %s", targetMembershipId ) ) ) );
+        final var authorisationData = acspMembersService
+                .fetchMembershipAuthorisationData( targetMembershipId )
+                .orElseThrow( () -> new NotFoundRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "Could not find Acsp Membership with id: %s", targetMembershipId ) ) );
+        final var targetMembership = authorisationData.getTargetMembership();
 
         final var targetAcsp = acspProfileService.fetchAcspProfile( targetMembership.getAcspNumber() );
 
-        final var targetUserIsLastOwner = !targetAcsp.getStatus().equals( CEASED ) && OWNER.equals( targetMembership.getUserRole() ) && acspMembersService.fetchNumberOfActiveOwners( targetMembership.getAcspNumber() ) <= 1;
+        final var targetUserIsLastOwner = !targetAcsp.getStatus().equals( CEASED ) && OWNER.equals( targetMembership.getUserRole() ) && authorisationData.getNumberOfActiveOwners() <= 1;
         final var requestingUserIsNotActiveMemberOfTargetAcsp = !isActiveMemberOfAcsp( targetMembership.getAcspNumber() );
         final var requestingUserAttemptingToRemoveWithoutAuthority = Objects.nonNull( proposedUserStatus ) && !canRemoveMembership( targetMembership.getUserRole() );
         final var requestingUserAttemptingToChangeRoleWithoutAuthority = Objects.nonNull( proposedUserRole ) && !canChangeRole( targetMembership.getUserRole(), proposedUserRole );
         if ( targetUserIsLastOwner || ( isOAuth2Request() && ( requestingUserIsNotActiveMemberOfTargetAcsp || requestingUserAttemptingToRemoveWithoutAuthority || requestingUserAttemptingToChangeRoleWithoutAuthority ) ) ){
-            throw new ForbiddenRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( "User is not permitted to carry out action" ) );
+            throw new ForbiddenRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, "User is not permitted to carry out action" );
         }
 
-        acspMembersService.updateMembership( targetMembershipId, proposedUserStatus, proposedUserRole, isOAuth2Request() ? getEricIdentity() : null );
-
-        if ( isOAuth2Request() && Objects.nonNull( proposedUserRole ) ){
-            final var requestingUserDisplayName = Optional.ofNullable( getUser().getDisplayName() ).orElse( getUser().getEmail() );
-            final var targetUser = usersService.fetchUserDetails( targetMembership.getUserId() );
-            emailService.sendYourRoleAtAcspHasChangedEmail( targetUser.getEmail(), requestingUserDisplayName, targetAcsp.getName(), proposedUserRole ).subscribe();
+        if ( Objects.nonNull( getIfMatch() ) && !getIfMatch().equals( targetMembership.getEtag() ) ){
+            throw new PreconditionFailedRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "Acsp Membership %s does not match etag %s", targetMembershipId, getIfMatch() ) );
         }
 
-        return new ResponseEntity<>( OK );
+        final var sendRoleChangedEmail = isOAuth2Request() && Objects.nonNull( proposedUserRole );
+        final var requestingUserDisplayName = sendRoleChangedEmail ? Optional.ofNullable( getUser().getDisplayName() ).orElse( getUser().getEmail() ) : null;
+        final var targetUserEmail = sendRoleChangedEmail ? usersService.fetchUserDetails( targetMembership.getUserId() ).getEmail() : null;
+
+        final var updatedMembership = emailOutboxService.withinTransaction( () -> {
+            final var changedMembership = acspMembersService.updateMembership( targetMembership, proposedUserStatus, proposedUserRole, isOAuth2Request() ? getEricIdentity() : null, !targetAcsp.getStatus().equals( CEASED ) );
+            if ( sendRoleChangedEmail ){
+                emailService.sendYourRoleAtAcspHasChangedEmail( targetMembershipId, targetUserEmail, requestingUserDisplayName, targetAcsp.getName(), proposedUserRole ).subscribe();
+            }
+            return changedMembership;
+        } );
+
+        return withEtag( null, Optional.ofNullable( updatedMembership ).map( AcspMembersDao::getEtag ).orElse( null ) );
     }
 
 }
@@ -9,6 +9,7 @@ import uk.gov.companieshouse.acsp.manage.users.exceptions.ForbiddenRuntimeExcept
 import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspMembersService;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspProfileService;
+import uk.gov.companieshouse.acsp.manage.users.service.EmailOutboxService;
 import uk.gov.companieshouse.acsp.manage.users.service.EmailService;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
 import uk.gov.companieshouse.api.accounts.user.model.User;
@@ -26,7 +27,7 @@ import java.util.Optional;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
 import static uk.gov.companieshouse.acsp.manage.users.utils.ExceptionUtil.invokeAndMapException;
-import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.infoContext;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.canCreateMembership;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getEricIdentity;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getUser;
@@ -35,7 +36,6 @@ import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.i
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.isOAuth2Request;
 import static uk.gov.companieshouse.acsp.manage.users.model.Constants.PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN;
 import static uk.gov.companieshouse.acsp.manage.users.model.enums.ErrorCode.ERROR_CODE_1001;
-import static uk.gov.companieshouse.acsp.manage.users.model.enums.ErrorCode.ERROR_CODE_1002;
 import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.ADMIN;
 import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.OWNER;
 import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.STANDARD;
@@ -47,12 +47,14 @@ public class AcspMembershipsController implements AcspMembershipsInterface {
     private final AcspProfileService acspProfileService;
     private final AcspMembersService acspMembersService;
     private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
 
-    public AcspMembershipsController( final UsersService usersService, final AcspProfileService acspProfileService, final AcspMembersService acspMembersService, final EmailService emailService ) {
+    public AcspMembershipsController( final UsersService usersService, final AcspProfileService acspProfileService, final AcspMembersService acspMembersService, final EmailService emailService, final EmailOutboxService emailOutboxService ) {
         this.usersService = usersService;
         this.acspProfileService = acspProfileService;
         this.acspMembersService = acspMembersService;
         this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
     }
 
     @Override
@@ -60,26 +62,23 @@ public class AcspMembershipsController implements AcspMembershipsInterface {
         final var targetUserId = requestBody.getUserId();
         final var targetUserRole = UserRoleEnum.fromValue( requestBody.getUserRole().getValue() );
 
-        LOGGER.infoContext( getXRequestId(), String.format( "Received request with acsp_number=%s, user_id=%s, user_role=%s ", targetAcspNumber, targetUserId, targetUserRole.getValue() ), null );
+        infoContext( getXRequestId(), "Received request with acsp_number=%s, user_id=%s, user_role=%s ", targetAcspNumber, targetUserId, targetUserRole.getValue() );
 
-        final var targetUser = invokeAndMapException( (Function<String, User>) usersService::fetchUserDetails, NotFoundRuntimeException.class, () -> new BadRequestRuntimeException( ERROR_CODE_1001.getCode(), new Exception( "Cannot find user" ) ) ).apply( targetUserId );
-        final var targetAcspProfile = invokeAndMapException( acspProfileService::fetchAcspProfile, NotFoundRuntimeException.class, () -> new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( "Cannot find Acsp" ) ) ).apply( targetAcspNumber );
-
-        final var memberships = acspMembersService.fetchMembershipDaos( targetUserId, false );
-        if ( !memberships.isEmpty() ) {
-            throw new BadRequestRuntimeException( ERROR_CODE_1002.getCode(), new Exception( String.format( "%s user already has an active Acsp membership", targetUserId ) ) );
-        }
+        final var targetUser = invokeAndMapException( (Function<String, User>) usersService::fetchUserDetails, NotFoundRuntimeException.class, () -> new BadRequestRuntimeException( ERROR_CODE_1001.getCode(), "Cannot find user" ) ).apply( targetUserId );
+        final var targetAcspProfile = invokeAndMapException( acspProfileService::fetchAcspProfile, NotFoundRuntimeException.class, () -> new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, "Cannot find Acsp" ) ).apply( targetAcspNumber );
 
         if ( isOAuth2Request() && ( !isActiveMemberOfAcsp( targetAcspNumber ) || !canCreateMembership( targetUserRole ) ) ){
-            throw new ForbiddenRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( String.format( "User %s is not permitted to create %s membership", getEricIdentity(), targetUserRole.getValue() ) ) );
+            throw new ForbiddenRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "User %s is not permitted to create %s membership", getEricIdentity(), targetUserRole.getValue() ) );
         }
 
-        final var membership = acspMembersService.createMembership( targetUser, targetAcspProfile, targetUserRole, isOAuth2Request() ? getEricIdentity() : null );
-
-        if ( isOAuth2Request() ){
-            final var requestingUserDisplayName = Optional.ofNullable( getUser().getDisplayName() ).orElse( getUser().getEmail() );
-            emailService.sendConfirmYouAreAMemberEmail( targetUser.getEmail(), requestingUserDisplayName, targetAcspProfile.getName(), targetUserRole ).subscribe();
-        }
+        final var requestingUserDisplayName = isOAuth2Request() ? Optional.ofNullable( getUser().getDisplayName() ).orElse( getUser().getEmail() ) : null;
+        final var membership = emailOutboxService.withinTransaction( () -> {
+            final var createdMembership = acspMembersService.createMembership( targetUser, targetAcspProfile, targetUserRole, isOAuth2Request() ? getEricIdentity() : null );
+            if ( isOAuth2Request() ){
+                emailService.sendConfirmYouAreAMemberEmail( targetUser.getEmail(), requestingUserDisplayName, targetAcspProfile.getName(), targetUserRole ).subscribe();
+            }
+            return createdMembership;
+        } );
 
         return new ResponseEntity<>( membership, CREATED );
     }
@@ -89,15 +88,15 @@ public class AcspMembershipsController implements AcspMembershipsInterface {
         final var userEmail = Optional
                 .ofNullable( requestBody )
                 .map( RequestBodyLookup::getUserEmail )
-                .orElseThrow( () -> new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( "User email was not provided." ) ) );
+                .orElseThrow( () -> new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, "User email was not provided." ) );
 
-        LOGGER.infoContext( getXRequestId(), String.format( "Received request with acsp_number=%s, include_removed=%s, user_email=%s", acspNumber, includeRemoved, userEmail ), null );
+        infoContext( getXRequestId(), "Received request with acsp_number=%s, include_removed=%s, user_email=%s", acspNumber, includeRemoved, userEmail );
 
         final var user = Optional
                 .ofNullable( usersService.searchUserDetails( List.of( userEmail ) ) )
                 .filter( users -> !users.isEmpty() )
                 .map( UsersList::getFirst )
-                .orElseThrow( () -> new NotFoundRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( String.format( "User %s was not found", userEmail ) ) ) );
+                .orElseThrow( () -> new NotFoundRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "User %s was not found", userEmail ) ) );
 
         acspProfileService.fetchAcspProfile( acspNumber );
 
@@ -108,14 +107,14 @@ public class AcspMembershipsController implements AcspMembershipsInterface {
 
     @Override
     public ResponseEntity<AcspMembershipsList> getMembersForAcsp( final String acspNumber, final String xRequestId, final Boolean includeRemoved, final Integer pageIndex, final Integer itemsPerPage, final String role ) {
-        LOGGER.infoContext( getXRequestId(), String.format( "Received request with acsp_number=%s, include_removed=%b, page_index=%d, items_per_page=%d, role=%s", acspNumber, includeRemoved, pageIndex, itemsPerPage, role ), null );
+        infoContext( getXRequestId(), "Received request with acsp_number=%s, include_removed=%b, page_index=%d, items_per_page=%d, role=%s", acspNumber, includeRemoved, pageIndex, itemsPerPage, role );
 
         if ( Objects.nonNull( role ) && !Set.of( OWNER.getValue(), ADMIN.getValue(), STANDARD.getValue() ).contains( role ) ){
-            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( String.format( "Role was invalid: %s", role ) ) );
+            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "Role was invalid: %s", role ) );
         }
 
         if ( pageIndex < 0 || itemsPerPage <= 0 ) {
-            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, new Exception( "pageIndex was less than 0 or itemsPerPage was less than or equal to 0" ) );
+            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, "pageIndex was less than 0 or itemsPerPage was less than or equal to 0" );
         }
 
         final var acspProfile = acspProfileService.fetchAcspProfile( acspNumber );
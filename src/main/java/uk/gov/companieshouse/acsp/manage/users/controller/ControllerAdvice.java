@@ -1,6 +1,7 @@
 package uk.gov.companieshouse.acsp.manage.users.controller;
 
 import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.isClientErrorLogPermitted;
 import static uk.gov.companieshouse.acsp.manage.users.utils.ParsingUtil.parseJsonFrom;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
 import static uk.gov.companieshouse.acsp.manage.users.utils.StaticPropertyUtil.APPLICATION_NAMESPACE;
@@ -16,9 +17,11 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.BadRequestRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.ConflictRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.ForbiddenRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.InternalServerErrorRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.PreconditionFailedRuntimeException;
 import uk.gov.companieshouse.service.rest.err.Errors;
 
 import java.util.HashMap;
@@ -28,13 +31,21 @@ import java.util.Optional;
 @org.springframework.web.bind.annotation.ControllerAdvice
 public class ControllerAdvice extends ResponseEntityExceptionHandler {
 
-    private <T extends Exception> Errors mapThrownExceptionsToErrors( final T exception, final HttpServletRequest request ){
+    private Map<String, Object> buildContextMap( final HttpServletRequest request ){
         final var url = request.getRequestURL().toString();
         final var queryParams = Objects.nonNull( request.getQueryString() ) ? "?" + request.getQueryString() : "";
-        final var contextMap = new HashMap<String, Object>( Map.of( "url", url, "query-parameters", queryParams ) );
+        return new HashMap<>( Map.of( "url", url, "query-parameters", queryParams ) );
+    }
 
-        LOGGER.errorContext( getXRequestId(), exception.getMessage(), exception, contextMap );
+    private <T extends Exception> Errors mapThrownExceptionsToErrors( final T exception, final HttpServletRequest request ){
+        LOGGER.errorContext( getXRequestId(), exception.getMessage(), exception, buildContextMap( request ) );
+        return new Errors( serviceErrBuilder().withError( exception.getMessage() ).build() );
+    }
 
+    private <T extends Exception> Errors mapClientErrorsToErrors( final T exception, final HttpServletRequest request ){
+        if ( isClientErrorLogPermitted() ){
+            LOGGER.errorContext( getXRequestId(), exception.getMessage(), null, buildContextMap( request ) );
+        }
         return new Errors( serviceErrBuilder().withError( exception.getMessage() ).build() );
     }
 
@@ -42,14 +53,14 @@ public class ControllerAdvice extends ResponseEntityExceptionHandler {
     @ResponseStatus( HttpStatus.NOT_FOUND )
     @ResponseBody
     public Errors onNotFoundRuntimeException( final NotFoundRuntimeException exception, final HttpServletRequest request ) {
-        return mapThrownExceptionsToErrors( exception, request );
+        return mapClientErrorsToErrors( exception, request );
     }
 
     @ExceptionHandler( BadRequestRuntimeException.class )
     @ResponseStatus( HttpStatus.BAD_REQUEST )
     @ResponseBody
     public Errors onBadRequestRuntimeException( final BadRequestRuntimeException exception, final HttpServletRequest request ) {
-        return mapThrownExceptionsToErrors( exception, request );
+        return mapClientErrorsToErrors( exception, request );
     }
 
     @ExceptionHandler( InternalServerErrorRuntimeException.class )
@@ -63,7 +74,21 @@ public class ControllerAdvice extends ResponseEntityExceptionHandler {
     @ResponseStatus( HttpStatus.FORBIDDEN )
     @ResponseBody
     public Errors onForbiddenRuntimeException( final ForbiddenRuntimeException exception, final HttpServletRequest request ) {
-        return mapThrownExceptionsToErrors( exception, request );
+        return mapClientErrorsToErrors( exception, request );
+    }
+
+    @ExceptionHandler( ConflictRuntimeException.class )
+    @ResponseStatus( HttpStatus.CONFLICT )
+    @ResponseBody
+    public Errors onConflictRuntimeException( final ConflictRuntimeException exception, final HttpServletRequest request ) {
+        return mapClientErrorsToErrors( exception, request );
+    }
+
+    @ExceptionHandler( PreconditionFailedRuntimeException.class )
+    @ResponseStatus( HttpStatus.PRECONDITION_FAILED )
+    @ResponseBody
+    public Errors onPreconditionFailedRuntimeException( final PreconditionFailedRuntimeException exception, final HttpServletRequest request ) {
+        return mapClientErrorsToErrors( exception, request );
     }
 
     @ExceptionHandler( Exception.class )
@@ -0,0 +1,62 @@
+package uk.gov.companieshouse.acsp.manage.users.controller;
+
+import static org.springframework.http.HttpStatus.OK;
+import static uk.gov.companieshouse.acsp.manage.users.model.Constants.PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.infoContext;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.ADMIN;
+import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.OWNER;
+import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.STANDARD;
+
+import jakarta.validation.constraints.Pattern;
+import java.util.Objects;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.BadRequestRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.service.AcspMembersService;
+import uk.gov.companieshouse.acsp.manage.users.service.AcspProfileService;
+import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembershipsList;
+
+@Controller
+@Validated
+@ConditionalOnProperty( name = "acsp.members.controllers.reactive.enabled", havingValue = "true" )
+public class ReactiveAcspMembershipsController {
+
+    private static final String ACSP_NUMBER_PATTERN = "^[0-9A-Za-z-_]{0,32}$";
+    private static final String MEMBERSHIPS_ENDPOINT = "/acsps/{acsp_number}/memberships";
+
+    private final AcspProfileService acspProfileService;
+    private final AcspMembersService acspMembersService;
+
+    public ReactiveAcspMembershipsController( final AcspProfileService acspProfileService, final AcspMembersService acspMembersService ) {
+        this.acspProfileService = acspProfileService;
+        this.acspMembersService = acspMembersService;
+    }
+
+    @GetMapping( value = MEMBERSHIPS_ENDPOINT, produces = "application/json" )
+    public Mono<ResponseEntity<AcspMembershipsList>> getMembersForAcsp( @PathVariable( "acsp_number" ) @Pattern( regexp = ACSP_NUMBER_PATTERN ) final String acspNumber, @RequestHeader( "X-Request-Id" ) final String xRequestId, @RequestParam( value = "include_removed", required = false, defaultValue = "false" ) final Boolean includeRemoved, @RequestParam( value = "page_index", required = false, defaultValue = "0" ) final Integer pageIndex, @RequestParam( value = "items_per_page", required = false, defaultValue = "15" ) final Integer itemsPerPage, @RequestParam( value = "role", required = false ) final String role ) {
+        infoContext( getXRequestId(), "Received reactive request with acsp_number=%s, include_removed=%b, page_index=%d, items_per_page=%d, role=%s", acspNumber, includeRemoved, pageIndex, itemsPerPage, role );
+
+        if ( Objects.nonNull( role ) && !Set.of( OWNER.getValue(), ADMIN.getValue(), STANDARD.getValue() ).contains( role ) ){
+            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "Role was invalid: %s", role ) );
+        }
+
+        if ( pageIndex < 0 || itemsPerPage <= 0 ) {
+            throw new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, "pageIndex was less than 0 or itemsPerPage was less than or equal to 0" );
+        }
+
+        return acspProfileService.fetchAcspProfileReactively( acspNumber )
+                .flatMap( acspProfile -> acspMembersService.fetchMembershipsForAcspNumberAndRoleReactively( acspProfile, role, includeRemoved, pageIndex, itemsPerPage ) )
+                .map( acspMembershipsList -> new ResponseEntity<>( acspMembershipsList, OK ) )
+                .contextCapture();
+    }
+
+}
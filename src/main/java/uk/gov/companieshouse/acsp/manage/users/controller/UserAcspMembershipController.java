@@ -1,7 +1,7 @@
 package uk.gov.companieshouse.acsp.manage.users.controller;
 
 import static org.springframework.http.HttpStatus.OK;
-import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.infoContext;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getEricIdentity;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getUser;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
@@ -23,7 +23,7 @@ public class UserAcspMembershipController implements UserAcspMembershipInterface
 
     @Override
     public ResponseEntity<AcspMembershipsList> getAcspMembershipsForUserId( final String xRequestId, final String ericIdentity, final Boolean includeRemoved ) {
-        LOGGER.infoContext( getXRequestId(), String.format( "Received request with user_id=%s, include_removed=%b", getEricIdentity(), includeRemoved ), null );
+        infoContext( getXRequestId(), "Received request with user_id=%s, include_removed=%b", getEricIdentity(), includeRemoved );
         final var acspMemberships = acspMembersService.fetchMemberships( getUser(), includeRemoved, null );
         return new ResponseEntity<>( acspMemberships, OK );
     }
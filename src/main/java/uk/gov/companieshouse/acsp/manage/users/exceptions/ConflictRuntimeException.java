@@ -0,0 +1,25 @@
+package uk.gov.companieshouse.acsp.manage.users.exceptions;
+
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.isClientErrorLogPermitted;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+import static uk.gov.companieshouse.acsp.manage.users.utils.StaticPropertyUtil.APPLICATION_NAMESPACE;
+
+import uk.gov.companieshouse.logging.Logger;
+import uk.gov.companieshouse.logging.LoggerFactory;
+
+public class ConflictRuntimeException extends RuntimeException {
+
+    private static final Logger LOG = LoggerFactory.getLogger( APPLICATION_NAMESPACE );
+
+    public ConflictRuntimeException( final String exceptionMessage, final String loggingMessage ) {
+        super( exceptionMessage, null, false, false );
+        if ( isClientErrorLogPermitted() ){
+            LOG.errorContext( getXRequestId(), loggingMessage, null, null );
+        }
+    }
+
+    public ConflictRuntimeException( final String exceptionMessage, final Exception loggingMessage ) {
+        this( exceptionMessage, loggingMessage.getMessage() );
+    }
+
+}
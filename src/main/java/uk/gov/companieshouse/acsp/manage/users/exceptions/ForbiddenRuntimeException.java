@@ -1,5 +1,6 @@
 package uk.gov.companieshouse.acsp.manage.users.exceptions;
 
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.isClientErrorLogPermitted;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
 import static uk.gov.companieshouse.acsp.manage.users.utils.StaticPropertyUtil.APPLICATION_NAMESPACE;
 
@@ -10,9 +11,15 @@ public class ForbiddenRuntimeException extends RuntimeException {
 
     private static final Logger LOG = LoggerFactory.getLogger( APPLICATION_NAMESPACE );
 
+    public ForbiddenRuntimeException( final String exceptionMessage, final String loggingMessage ) {
+        super( exceptionMessage, null, false, false );
+        if ( isClientErrorLogPermitted() ){
+            LOG.errorContext( getXRequestId(), loggingMessage, null, null );
+        }
+    }
+
     public ForbiddenRuntimeException( final String exceptionMessage, final Exception loggingMessage ) {
-        super( exceptionMessage );
-        LOG.errorContext( getXRequestId(), loggingMessage, null );
+        this( exceptionMessage, loggingMessage.getMessage() );
     }
 
 }
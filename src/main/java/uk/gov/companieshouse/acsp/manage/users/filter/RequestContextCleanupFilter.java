@@ -0,0 +1,27 @@
+package uk.gov.companieshouse.acsp.manage.users.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContext;
+
+@Component
+@Order( Ordered.HIGHEST_PRECEDENCE )
+public class RequestContextCleanupFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal( final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain ) throws ServletException, IOException {
+        try {
+            filterChain.doFilter( request, response );
+        } finally {
+            RequestContext.clear();
+        }
+    }
+
+}
@@ -1,11 +1,14 @@
 package uk.gov.companieshouse.acsp.manage.users.filter;
 
+import static uk.gov.companieshouse.acsp.manage.users.model.Constants.REQUEST_CONTEXT_DATA;
 import static uk.gov.companieshouse.acsp.manage.users.model.Constants.X_REQUEST_ID;
 import static uk.gov.companieshouse.acsp.manage.users.model.enums.SpringRole.ADMIN_WITH_ACSP_SEARCH_PRIVILEGE_ROLE;
 import static uk.gov.companieshouse.acsp.manage.users.model.enums.SpringRole.BASIC_OAUTH_ROLE;
 import static uk.gov.companieshouse.acsp.manage.users.model.enums.SpringRole.KEY_ROLE;
 import static uk.gov.companieshouse.acsp.manage.users.model.enums.SpringRole.UNKNOWN_ROLE;
 import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.debugContext;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.sampledInfoContext;
 import static uk.gov.companieshouse.acsp.manage.users.model.Constants.OAUTH2;
 import static uk.gov.companieshouse.acsp.manage.users.model.Constants.UNKNOWN;
 import static uk.gov.companieshouse.api.util.security.RequestUtils.getRequestHeader;
@@ -16,6 +19,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.util.Collections;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.web.filter.OncePerRequestFilter;
 import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextData;
@@ -27,13 +32,21 @@ import uk.gov.companieshouse.acsp.manage.users.service.AcspMembersService;
 public class UserAuthenticationFilter extends OncePerRequestFilter {
 
     private final AcspMembersService acspMembersService;
+    private final SecurityContextRepository securityContextRepository;
 
     private static final String ACSP_SEARCH_ADMIN_SEARCH = "/admin/acsp/search";
     private static final String KEY = "key";
+    private static final String API_KEY_CHECK_LOG = "api-key-check";
+    private static final int API_KEY_CHECK_LOG_SAMPLE_RATE = 100;
 
 
-    public UserAuthenticationFilter( final AcspMembersService acspMembersService ){
+    public UserAuthenticationFilter( final AcspMembersService acspMembersService, final SecurityContextRepository securityContextRepository ){
         this.acspMembersService = acspMembersService;
+        this.securityContextRepository = securityContextRepository;
+    }
+
+    public UserAuthenticationFilter( final AcspMembersService acspMembersService ){
+        this( acspMembersService, new RequestAttributeSecurityContextRepository() );
     }
 
     private RequestContextData buildRequestContextData( final HttpServletRequest request ){
@@ -42,22 +55,21 @@ public class UserAuthenticationFilter extends OncePerRequestFilter {
                 .setEricIdentity( request )
                 .setEricIdentityType( request )
                 .setEricAuthorisedKeyRoles( request )
-                .setActiveAcspNumber( request )
-                .setActiveAcspRole( request )
+                .setTokenPermissions( request )
                 .setAdminPrivileges( request )
                 .build();
     }
 
     private SpringRole computeSpringRole( final RequestContextData requestContextData ){
-        LOGGER.infoContext( requestContextData.getXRequestId(), "Checking if this is a valid API Key Request...", null );
+        sampledInfoContext( API_KEY_CHECK_LOG, API_KEY_CHECK_LOG_SAMPLE_RATE, requestContextData.getXRequestId(), "Checking if this is a valid API Key Request..." );
         if ( isValidAPIKeyRequest( requestContextData ) ) {
             return KEY_ROLE;
         }
-        LOGGER.debugContext( requestContextData.getXRequestId(), "Confirmed this is not a valid API Key Request. Checking if this is a valid OAuth2 Request...", null );
+        debugContext( requestContextData.getXRequestId(), "Confirmed this is not a valid API Key Request. Checking if this is a valid OAuth2 Request..." );
         if ( !isValidOAuth2Request( requestContextData ) ) {
             return UNKNOWN_ROLE;
         }
-        LOGGER.debugContext( requestContextData.getXRequestId(), "Confirmed this is a valid OAuth2 Request.", null );
+        debugContext( requestContextData.getXRequestId(), "Confirmed this is a valid OAuth2 Request." );
         if ( !requestContextData.getActiveAcspNumber().equals( UNKNOWN ) ){
             return getAcspMemberRole( requestContextData );
         }
@@ -76,7 +88,7 @@ public class UserAuthenticationFilter extends OncePerRequestFilter {
     }
 
     private SpringRole getAcspMemberRole( final RequestContextData requestContextData ) {
-        LOGGER.debugContext( requestContextData.getXRequestId(), "Confirmed this request is from an Acsp Member. Checking session validity...", null );
+        debugContext( requestContextData.getXRequestId(), "Confirmed this request is from an Acsp Member. Checking session validity..." );
         return acspMembersService.fetchActiveAcspMembership( requestContextData.getEricIdentity(), requestContextData.getActiveAcspNumber() )
                 .map( AcspMembersDao::getUserRole )
                 .filter( databaseUserRole -> databaseUserRole.equals( requestContextData.getActiveAcspRole() ) )
@@ -85,7 +97,7 @@ public class UserAuthenticationFilter extends OncePerRequestFilter {
     }
 
     private void setSpringRole( final RequestContextData requestContextData, final String role ){
-        LOGGER.debugContext( requestContextData.getXRequestId(), String.format( "Adding Spring role: %s", role ), null );
+        debugContext( requestContextData.getXRequestId(), "Adding Spring role: %s", role );
         SecurityContextHolder.getContext().setAuthentication( new PreAuthenticatedAuthenticationToken( UNKNOWN, UNKNOWN, Collections.singleton( new SimpleGrantedAuthority( String.format( "ROLE_%s", role ) ) ) ) );
     }
 
@@ -93,7 +105,9 @@ public class UserAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal( final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain ) {
         try {
             final var requestContextData = buildRequestContextData( request );
+            request.setAttribute( REQUEST_CONTEXT_DATA, requestContextData );
             setSpringRole( requestContextData, computeSpringRole( requestContextData ).getValue() );
+            securityContextRepository.saveContext( SecurityContextHolder.getContext(), request, response );
             filterChain.doFilter( request, response );
         } catch ( Exception exception ) {
             LOGGER.errorContext( getRequestHeader( request, X_REQUEST_ID ), exception, null );
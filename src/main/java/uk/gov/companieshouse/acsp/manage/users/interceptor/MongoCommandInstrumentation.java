@@ -0,0 +1,203 @@
+package uk.gov.companieshouse.acsp.manage.users.interceptor;
+
+import static uk.gov.companieshouse.acsp.manage.users.interceptor.MongoRequestContextProvider.X_REQUEST_ID_KEY;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RepositoryMethodUtil.REPOSITORY_METHOD_KEY;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.acsp.manage.users.utils.RepositoryMethodUtil;
+import uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil;
+
+@Component
+public class MongoCommandInstrumentation implements CommandListener {
+
+    private static final String COMMANDS_TIMER = "acsp.members.mongo.commands";
+    private static final String DOCUMENTS_RETURNED = "acsp.members.mongo.documents.returned";
+    private static final String DOCUMENTS_EXAMINED = "acsp.members.mongo.documents.examined";
+    private static final String EXPLAIN = "explain";
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of( "find", "aggregate", "count", "distinct" );
+    private static final String NO_EXPLAIN = "none";
+    private static final Set<String> EXPLAIN_VERBOSITIES = Set.of( NO_EXPLAIN, "queryPlanner", "executionStats" );
+    private static final Set<String> UNEXPLAINABLE_FIELDS = Set.of( "lsid", "txnNumber", "startTransaction", "autocommit", "readConcern", "writeConcern", "recoveryToken", "apiVersion", "apiStrict", "apiDeprecationErrors", "$clusterTime", "$db", "$readPreference" );
+    private static final long MAX_STARTED_COMMANDS = 10_000L;
+    private static final Duration STARTED_COMMAND_TTL = Duration.ofMinutes( 5 );
+
+    private final long slowQueryThresholdMillis;
+    private final String explainVerbosity;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<MongoTemplate> mongoTemplateProvider;
+    private final Cache<Integer, StartedCommand> startedCommands = Caffeine.newBuilder().maximumSize( MAX_STARTED_COMMANDS ).expireAfterWrite( STARTED_COMMAND_TTL ).build();
+    private final Map<MeterKey, Timer> commandTimers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> documentSummaries = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor( 1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>( 100 ), new ThreadPoolExecutor.DiscardPolicy() );
+
+    public MongoCommandInstrumentation( @Value( "${acsp.members.mongo.slow-query-threshold-ms:200}" ) final long slowQueryThresholdMillis, @Value( "${acsp.members.mongo.slow-query-explain-verbosity:none}" ) final String explainVerbosity, final MeterRegistry meterRegistry, final ObjectProvider<MongoTemplate> mongoTemplateProvider ) {
+        if ( !EXPLAIN_VERBOSITIES.contains( explainVerbosity ) ){
+            throw new IllegalArgumentException( String.format( "%s is not a supported explain verbosity", explainVerbosity ) );
+        }
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+        this.explainVerbosity = explainVerbosity;
+        this.meterRegistry = meterRegistry;
+        this.mongoTemplateProvider = mongoTemplateProvider;
+    }
+
+    private record StartedCommand( String repositoryMethod, String collection, String xRequestId, BsonDocument command ) {}
+
+    private record MeterKey( String name, String command, String collection, String repositoryMethod, String outcome ) {}
+
+    private static String fromRequestContext( final CommandEvent event, final String key, final Supplier<String> fallback ){
+        return Optional.ofNullable( event.getRequestContext() )
+                .filter( requestContext -> requestContext.hasKey( key ) )
+                .map( requestContext -> requestContext.<String>get( key ) )
+                .orElseGet( fallback );
+    }
+
+    private static String collectionOf( final String commandName, final BsonDocument command ){
+        return Optional.ofNullable( command.get( commandName ) ).filter( BsonValue::isString ).map( value -> value.asString().getValue() ).orElse( "none" );
+    }
+
+    private static BsonDocument explainableCommand( final BsonDocument command ){
+        final var explainableCommand = new BsonDocument();
+        command.forEach( ( key, value ) -> {
+            if ( !key.startsWith( "$" ) && !UNEXPLAINABLE_FIELDS.contains( key ) ){
+                explainableCommand.append( key, value );
+            }
+        } );
+        return explainableCommand.clone();
+    }
+
+    private static long documentsReturned( final BsonDocument response ){
+        final var cursor = response.getDocument( "cursor", null );
+        if ( Objects.nonNull( cursor ) ){
+            final var batch = cursor.containsKey( "firstBatch" ) ? cursor.getArray( "firstBatch" ) : cursor.getArray( "nextBatch", null );
+            return Objects.isNull( batch ) ? 0L : batch.size();
+        }
+        return Optional.ofNullable( response.get( "n" ) ).filter( BsonValue::isNumber ).map( value -> value.asNumber().longValue() ).orElse( 0L );
+    }
+
+    @Override
+    public void commandStarted( final CommandStartedEvent event ){
+        final var commandName = event.getCommandName();
+        if ( EXPLAIN.equals( commandName ) ){
+            return;
+        }
+        final var command = event.getCommand();
+        final var explainableCommand = !NO_EXPLAIN.equals( explainVerbosity ) && EXPLAINABLE_COMMANDS.contains( commandName ) ? explainableCommand( command ) : null;
+        final var repositoryMethod = fromRequestContext( event, REPOSITORY_METHOD_KEY, RepositoryMethodUtil::getRepositoryMethod );
+        final var xRequestId = fromRequestContext( event, X_REQUEST_ID_KEY, RequestContextUtil::getXRequestId );
+        startedCommands.put( event.getRequestId(), new StartedCommand( repositoryMethod, collectionOf( commandName, command ), xRequestId, explainableCommand ) );
+    }
+
+    @Override
+    public void commandSucceeded( final CommandSucceededEvent event ){
+        final var startedCommand = startedCommands.asMap().remove( event.getRequestId() );
+        if ( Objects.isNull( startedCommand ) ){
+            return;
+        }
+
+        recordLatency( event.getCommandName(), startedCommand, "success", event.getElapsedTime( TimeUnit.NANOSECONDS ) );
+        final var documentsReturned = documentsReturned( event.getResponse() );
+        documentSummary( DOCUMENTS_RETURNED, event.getCommandName(), startedCommand ).record( documentsReturned );
+
+        final var elapsedMillis = event.getElapsedTime( TimeUnit.MILLISECONDS );
+        if ( elapsedMillis < slowQueryThresholdMillis ){
+            return;
+        }
+        if ( Objects.nonNull( startedCommand.command() ) ){
+            explainExecutor.execute( () -> explain( event.getCommandName(), startedCommand, elapsedMillis ) );
+        } else {
+            LOGGER.infoContext( startedCommand.xRequestId(), String.format( "Slow Mongo %s on %s from %s took %dms, returned: %d", event.getCommandName(), startedCommand.collection(), startedCommand.repositoryMethod(), elapsedMillis, documentsReturned ), null );
+        }
+    }
+
+    @Override
+    public void commandFailed( final CommandFailedEvent event ){
+        Optional.ofNullable( startedCommands.asMap().remove( event.getRequestId() ) )
+                .ifPresent( startedCommand -> recordLatency( event.getCommandName(), startedCommand, "failure", event.getElapsedTime( TimeUnit.NANOSECONDS ) ) );
+    }
+
+    private void recordLatency( final String commandName, final StartedCommand startedCommand, final String outcome, final long elapsedNanos ){
+        commandTimers.computeIfAbsent( new MeterKey( COMMANDS_TIMER, commandName, startedCommand.collection(), startedCommand.repositoryMethod(), outcome ), key -> Timer.builder( key.name() )
+                        .tags( "command", key.command(), "collection", key.collection(), "repository_method", key.repositoryMethod(), "outcome", key.outcome() )
+                        .publishPercentileHistogram()
+                        .register( meterRegistry ) )
+                .record( elapsedNanos, TimeUnit.NANOSECONDS );
+    }
+
+    private DistributionSummary documentSummary( final String name, final String commandName, final StartedCommand startedCommand ){
+        return documentSummaries.computeIfAbsent( new MeterKey( name, commandName, startedCommand.collection(), startedCommand.repositoryMethod(), null ), key -> DistributionSummary.builder( key.name() )
+                .tags( "command", key.command(), "collection", key.collection(), "repository_method", key.repositoryMethod() )
+                .publishPercentileHistogram()
+                .register( meterRegistry ) );
+    }
+
+    private static Document cursorExplain( final Document plan ){
+        return Optional.ofNullable( plan.getList( "stages", Document.class ) )
+                .filter( stages -> !stages.isEmpty() )
+                .map( stages -> stages.getFirst().get( "$cursor", Document.class ) )
+                .orElse( plan );
+    }
+
+    private static String planShape( final Document stage ){
+        if ( Objects.isNull( stage ) ){
+            return "none";
+        }
+        final var name = Optional.ofNullable( stage.getString( "indexName" ) ).map( indexName -> String.format( "%s(%s)", stage.getString( "stage" ), indexName ) ).orElse( stage.getString( "stage" ) );
+        final var inputStage = stage.get( "inputStage", Document.class );
+        if ( Objects.nonNull( inputStage ) ){
+            return String.format( "%s <- %s", name, planShape( inputStage ) );
+        }
+        final var inputStages = stage.getList( "inputStages", Document.class );
+        if ( Objects.nonNull( inputStages ) ){
+            return String.format( "%s <- [%s]", name, inputStages.stream().map( MongoCommandInstrumentation::planShape ).collect( Collectors.joining( ", " ) ) );
+        }
+        return name;
+    }
+
+    private void explain( final String commandName, final StartedCommand startedCommand, final long elapsedMillis ){
+        try {
+            final var explainCommand = new BsonDocument( EXPLAIN, startedCommand.command() ).append( "verbosity", new BsonString( explainVerbosity ) );
+            final var plan = cursorExplain( mongoTemplateProvider.getObject().execute( database -> database.runCommand( explainCommand ) ) );
+            final var executionStats = Optional.ofNullable( plan.get( "executionStats", Document.class ) ).orElseGet( Document::new );
+            final var winningPlan = Optional.ofNullable( plan.get( "queryPlanner", Document.class ) ).map( queryPlanner -> queryPlanner.get( "winningPlan", Document.class ) ).orElse( null );
+
+            Optional.ofNullable( executionStats.get( "totalDocsExamined" ) )
+                    .filter( Number.class::isInstance )
+                    .map( Number.class::cast )
+                    .ifPresent( docsExamined -> documentSummary( DOCUMENTS_EXAMINED, commandName, startedCommand ).record( docsExamined.doubleValue() ) );
+
+            LOGGER.infoContext( startedCommand.xRequestId(), String.format( "Slow Mongo %s on %s from %s took %dms. Plan: %s, returned: %s, keys examined: %s, documents examined: %s", commandName, startedCommand.collection(), startedCommand.repositoryMethod(), elapsedMillis, planShape( winningPlan ), executionStats.get( "nReturned" ), executionStats.get( "totalKeysExamined" ), executionStats.get( "totalDocsExamined" ) ), null );
+        } catch ( RuntimeException exception ){
+            LOGGER.errorContext( startedCommand.xRequestId(), new Exception( String.format( "Failed to explain slow Mongo %s from %s: %s", commandName, startedCommand.repositoryMethod(), exception.getMessage() ) ), null );
+        }
+    }
+
+}
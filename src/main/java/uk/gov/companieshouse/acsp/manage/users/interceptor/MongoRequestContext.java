@@ -0,0 +1,48 @@
+package uk.gov.companieshouse.acsp.manage.users.interceptor;
+
+import com.mongodb.RequestContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class MongoRequestContext implements RequestContext {
+
+    private final Map<Object, Object> values = new HashMap<>();
+
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public <T> T get( final Object key ){
+        return (T) values.get( key );
+    }
+
+    @Override
+    public boolean hasKey( final Object key ){
+        return values.containsKey( key );
+    }
+
+    @Override
+    public boolean isEmpty(){
+        return values.isEmpty();
+    }
+
+    @Override
+    public void put( final Object key, final Object value ){
+        values.put( key, value );
+    }
+
+    @Override
+    public void delete( final Object key ){
+        values.remove( key );
+    }
+
+    @Override
+    public int size(){
+        return values.size();
+    }
+
+    @Override
+    public Stream<Map.Entry<Object, Object>> stream(){
+        return values.entrySet().stream();
+    }
+
+}
@@ -0,0 +1,47 @@
+package uk.gov.companieshouse.acsp.manage.users.interceptor;
+
+import static uk.gov.companieshouse.acsp.manage.users.model.Constants.UNKNOWN;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RepositoryMethodUtil.REPOSITORY_METHOD_KEY;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RepositoryMethodUtil.getRepositoryMethod;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+
+import com.mongodb.RequestContext;
+import com.mongodb.client.SynchronousContextProvider;
+import com.mongodb.reactivestreams.client.ReactiveContextProvider;
+import org.reactivestreams.Subscriber;
+import reactor.core.CoreSubscriber;
+import reactor.util.context.ContextView;
+import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextAccessor;
+import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextData;
+
+public class MongoRequestContextProvider implements SynchronousContextProvider, ReactiveContextProvider {
+
+    public static final String X_REQUEST_ID_KEY = "acsp-manage-users-api.x-request-id";
+
+    private static RequestContext requestContext( final String repositoryMethod, final String xRequestId ){
+        final var requestContext = new MongoRequestContext();
+        requestContext.put( REPOSITORY_METHOD_KEY, repositoryMethod );
+        requestContext.put( X_REQUEST_ID_KEY, xRequestId );
+        return requestContext;
+    }
+
+    private static RequestContext requestContext( final ContextView contextView ){
+        final var xRequestId = contextView.getOrEmpty( RequestContextAccessor.KEY )
+                .filter( RequestContextData.class::isInstance )
+                .map( RequestContextData.class::cast )
+                .map( RequestContextData::getXRequestId )
+                .orElse( UNKNOWN );
+        return requestContext( contextView.getOrDefault( REPOSITORY_METHOD_KEY, UNKNOWN ), xRequestId );
+    }
+
+    @Override
+    public RequestContext getContext(){
+        return requestContext( getRepositoryMethod(), getXRequestId() );
+    }
+
+    @Override
+    public RequestContext getContext( final Subscriber<?> subscriber ){
+        return subscriber instanceof CoreSubscriber<?> coreSubscriber ? requestContext( coreSubscriber.currentContext() ) : getContext();
+    }
+
+}
@@ -1,27 +1,35 @@
 package uk.gov.companieshouse.acsp.manage.users.interceptor;
 
 import static uk.gov.companieshouse.acsp.manage.users.model.Constants.OAUTH2;
-import static uk.gov.companieshouse.acsp.manage.users.model.Constants.X_REQUEST_ID;
+import static uk.gov.companieshouse.acsp.manage.users.model.Constants.PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN;
+import static uk.gov.companieshouse.acsp.manage.users.model.Constants.REQUEST_CONTEXT_DATA;
 import static uk.gov.companieshouse.acsp.manage.users.model.context.RequestContext.setRequestContext;
 import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
-import static uk.gov.companieshouse.api.util.security.EricConstants.ERIC_IDENTITY;
-import static uk.gov.companieshouse.api.util.security.EricConstants.ERIC_IDENTITY_TYPE;
-import static uk.gov.companieshouse.api.util.security.RequestUtils.getRequestHeader;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.util.Optional;
+import java.util.Set;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.ForbiddenRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContext;
+import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextData;
 import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextData.RequestContextDataBuilder;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 import uk.gov.companieshouse.logging.util.RequestLogger;
 
 @Component
-public class RequestLifecycleInterceptor implements HandlerInterceptor, RequestLogger {
+public class RequestLifecycleInterceptor implements AsyncHandlerInterceptor, RequestLogger {
+
+    private static final String RESOLVED_REQUEST_CONTEXT_DATA = RequestLifecycleInterceptor.class.getName() + ".requestContextData";
+    private static final String LIST_MEMBERSHIPS_METHOD = "getMembersForAcsp";
+    private static final Set<String> WRITE_METHODS = Set.of( "addMemberForAcsp", "updateAcspMembershipForAcspAndId" );
 
     private final UsersService usersService;
 
@@ -29,35 +37,63 @@ public class RequestLifecycleInterceptor implements HandlerInterceptor, RequestL
         this.usersService = usersService;
     }
 
-    private void setupRequestContext( final HttpServletRequest request, final User user ){
-        final var requestContextData = new RequestContextDataBuilder()
-                .setXRequestId( request )
-                .setEricIdentity( request )
-                .setEricIdentityType( request )
-                .setEricAuthorisedKeyRoles( request )
-                .setActiveAcspNumber( request )
-                .setActiveAcspRole( request )
-                .setAdminPrivileges( request )
-                .setUser( user )
-                .build();
+    private RequestContextData parseRequestContextData( final HttpServletRequest request ){
+        return Optional.ofNullable( request.getAttribute( REQUEST_CONTEXT_DATA ) )
+                .filter( RequestContextData.class::isInstance )
+                .map( RequestContextData.class::cast )
+                .orElseGet( () -> new RequestContextDataBuilder()
+                        .setXRequestId( request )
+                        .setEricIdentity( request )
+                        .setEricIdentityType( request )
+                        .setEricAuthorisedKeyRoles( request )
+                        .setTokenPermissions( request )
+                        .setAdminPrivileges( request )
+                        .build() );
+    }
 
-        setRequestContext( requestContextData );
+    private User fetchRequestingUser( final RequestContextData requestContextData ){
+        try {
+            return usersService.fetchUserDetails( requestContextData.getEricIdentity() );
+        } catch ( NotFoundRuntimeException exception ) {
+            throw new ForbiddenRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "Unable to find user %s", requestContextData.getEricIdentity() ) );
+        }
+    }
+
+    private static boolean isListEndpoint( final Object handler ){
+        return handler instanceof HandlerMethod handlerMethod && LIST_MEMBERSHIPS_METHOD.equals( handlerMethod.getMethod().getName() );
+    }
+
+    private static boolean isWriteEndpoint( final Object handler ){
+        return handler instanceof HandlerMethod handlerMethod && WRITE_METHODS.contains( handlerMethod.getMethod().getName() );
     }
 
     @Override
     public boolean preHandle( final HttpServletRequest request, final HttpServletResponse response, final Object handler ) {
+        if ( DispatcherType.ASYNC.equals( request.getDispatcherType() ) ){
+            Optional.ofNullable( request.getAttribute( RESOLVED_REQUEST_CONTEXT_DATA ) )
+                    .map( RequestContextData.class::cast )
+                    .ifPresent( RequestContext::setRequestContext );
+            return true;
+        }
+
         logStartRequestProcessing( request, LOGGER );
-        User user = null;
-        if ( OAUTH2.equals( getRequestHeader( request, ERIC_IDENTITY_TYPE ) ) ){
-            try {
-                user = usersService.fetchUserDetails( getRequestHeader( request, ERIC_IDENTITY ) );
-            } catch ( NotFoundRuntimeException exception ) {
-                LOGGER.debugContext( getRequestHeader( request, X_REQUEST_ID ), String.format( "Unable to find user %s", getRequestHeader( request, ERIC_IDENTITY ) ), null );
-                response.setStatus( 403 );
-                return false;
-            }
+        final var parsedRequestContextData = parseRequestContextData( request );
+        final var requestContextDataBuilder = new RequestContextDataBuilder( parsedRequestContextData )
+                .setIfMatch( request );
+
+        if ( isListEndpoint( handler ) ){
+            requestContextDataBuilder.setSort( request );
+        }
+
+        if ( OAUTH2.equals( parsedRequestContextData.getEricIdentityType() ) && isWriteEndpoint( handler ) ){
+            requestContextDataBuilder.setUser( fetchRequestingUser( parsedRequestContextData ) );
+        } else if ( OAUTH2.equals( parsedRequestContextData.getEricIdentityType() ) ){
+            requestContextDataBuilder.setUserSupplier( () -> fetchRequestingUser( parsedRequestContextData ) );
         }
-        setupRequestContext( request, user );
+
+        final var requestContextData = requestContextDataBuilder.build();
+        request.setAttribute( RESOLVED_REQUEST_CONTEXT_DATA, requestContextData );
+        setRequestContext( requestContextData );
         return true;
     }
 
@@ -66,6 +102,11 @@ public class RequestLifecycleInterceptor implements HandlerInterceptor, RequestL
         logEndRequestProcessing( request, response, LOGGER );
     }
 
+    @Override
+    public void afterConcurrentHandlingStarted( final HttpServletRequest request, final HttpServletResponse response, final Object handler ) {
+        RequestContext.clear();
+    }
+
     @Override
     public void afterCompletion( final HttpServletRequest request, final HttpServletResponse response, final Object handler, final Exception exception ) {
         RequestContext.clear();
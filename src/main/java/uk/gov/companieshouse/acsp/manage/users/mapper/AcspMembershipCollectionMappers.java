@@ -3,8 +3,17 @@ package uk.gov.companieshouse.acsp.manage.users.mapper;
 import static uk.gov.companieshouse.acsp.manage.users.model.Constants.*;
 
 import org.mapstruct.Mapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.InternalServerErrorRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership;
@@ -12,9 +21,11 @@ import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembershipsList;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembershipsListLinks;
 import uk.gov.companieshouse.api.acspprofile.AcspProfile;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Component
@@ -24,38 +35,114 @@ public abstract class AcspMembershipCollectionMappers extends AcspMembershipMapp
     private static final String PAGINATION_URL_TEMPLATE =  "%s?page_index=%d&items_per_page=%d";
     private static final String END_POINT_URL_TEMPLATE = "/acsps/%s/memberships";
 
-    private AcspMembershipsList enrichWithMetadata( final Page<AcspMembership> page, final String endpointUrl ) {
-        final var pageIndex = page.getNumber();
-        final var itemsPerPage = page.getSize();
+    @Value( "${acsp.members.enrichment.timeout-ms:20000}" )
+    protected long enrichmentTimeoutMs = 20000L;
+
+    private AcspMembershipsList enrichWithMetadata( final Slice<AcspMembership> slice, final long totalResults, final String endpointUrl ) {
+        final var pageIndex = slice.getNumber();
+        final var itemsPerPage = slice.getSize();
         final var self = String.format( PAGINATION_URL_TEMPLATE, endpointUrl, pageIndex, itemsPerPage );
-        final var next = page.isLast() ? "" : String.format( PAGINATION_URL_TEMPLATE, endpointUrl, pageIndex + 1, itemsPerPage );
-        final var previous = page.isFirst() ? "" : String.format( PAGINATION_URL_TEMPLATE, endpointUrl, pageIndex - 1, itemsPerPage );
+        final var next = slice.hasNext() ? String.format( PAGINATION_URL_TEMPLATE, endpointUrl, pageIndex + 1, itemsPerPage ) : "";
+        final var previous = slice.hasPrevious() ? String.format( PAGINATION_URL_TEMPLATE, endpointUrl, pageIndex - 1, itemsPerPage ) : "";
         final var links = new AcspMembershipsListLinks().self( self ).next( next ).previous( previous );
+        final var totalPages = itemsPerPage == 0 ? 1 : (int) Math.ceil( (double) totalResults / (double) itemsPerPage );
 
         return new AcspMembershipsList()
-                .items( page.getContent() )
+                .items( slice.getContent() )
                 .pageNumber( pageIndex )
                 .itemsPerPage( itemsPerPage )
-                .totalResults( (int) page.getTotalElements() )
-                .totalPages( page.getTotalPages() )
+                .totalResults( (int) totalResults )
+                .totalPages( totalPages )
                 .links( links );
     }
 
+    private AcspMembershipsList enrichSliceWithMetadata( final Slice<AcspMembership> acspMemberships, final long totalResults, final AcspProfile acspProfile ) {
+        final var minimumTotalResults = acspMemberships.hasContent() ? (long) acspMemberships.getNumber() * acspMemberships.getSize() + acspMemberships.getNumberOfElements() + ( acspMemberships.hasNext() ? 1 : 0 ) : 0L;
+        return enrichWithMetadata( acspMemberships, Math.max( totalResults, minimumTotalResults ), String.format( END_POINT_URL_TEMPLATE, acspProfile.getNumber() ) );
+    }
+
+    private <T> T awaitEnrichment( final Mono<T> enrichment ){
+        return enrichment
+                .timeout( Duration.ofMillis( enrichmentTimeoutMs ) )
+                .onErrorMap( TimeoutException.class, exception -> new InternalServerErrorRuntimeException( "Failed to enrich memberships", exception ) )
+                .contextCapture()
+                .block();
+    }
+
+    private Mono<Map<String, User>> resolveUsers( final List<AcspMembersDao> acspMembers, final User userData ){
+        if ( Objects.nonNull( userData ) ){
+            return Mono.just( Map.of( userData.getUserId(), userData ) );
+        }
+        return Mono.fromCallable( () -> usersService.fetchUserDetails( acspMembers.stream().filter( dao -> !hasFreshSnapshot( dao ) ) ) )
+                .subscribeOn( Schedulers.boundedElastic() );
+    }
+
+    private Mono<Map<String, AcspProfile>> resolveAcspProfiles( final List<AcspMembersDao> acspMembers, final AcspProfile acspProfile ){
+        if ( Objects.nonNull( acspProfile ) ){
+            return Mono.just( Map.of( acspProfile.getNumber(), acspProfile ) );
+        }
+        return Mono.fromCallable( () -> acspProfileService.fetchAcspProfiles( acspMembers.stream().filter( dao -> !hasFreshSnapshot( dao ) ) ) )
+                .subscribeOn( Schedulers.boundedElastic() );
+    }
+
     public List<AcspMembership> daoToDto( final List<AcspMembersDao> acspMembers, final User userData, final AcspProfile acspProfile ){
-        final var users = Objects.isNull( userData ) ? usersService.fetchUserDetails( acspMembers.stream() ) : Map.of( userData.getUserId(), userData );
-        final var acsps = Objects.isNull( acspProfile ) ? acspProfileService.fetchAcspProfiles( acspMembers.stream() ) : Map.of( acspProfile.getNumber(), acspProfile );
-        return acspMembers.stream()
-                .map( dao -> daoToDto( dao, users.get( dao.getUserId() ), acsps.get( dao.getAcspNumber() ) ) )
-                .collect( Collectors.toList() );
+        Objects.requireNonNull( acspMembers );
+        return awaitEnrichment( Mono.zip( resolveUsers( acspMembers, userData ), resolveAcspProfiles( acspMembers, acspProfile ) )
+                .map( results -> acspMembers.stream()
+                        .map( dao -> daoToDto( dao, results.getT1().get( dao.getUserId() ), results.getT2().get( dao.getAcspNumber() ) ) )
+                        .collect( Collectors.toList() ) ) );
     }
 
     public AcspMembershipsList daoToDto( final Page<AcspMembersDao> acspMembers, final User userData, final AcspProfile acspProfile ){
         if ( Objects.isNull( acspProfile ) ){
             throw new IllegalArgumentException( "acspProfile cannot be null." );
         }
-        final var users = Objects.isNull( userData ) ? usersService.fetchUserDetails( acspMembers.stream() ) : Map.of( userData.getUserId(), userData );
+        final var users = Objects.isNull( userData ) ? usersService.fetchUserDetails( acspMembers.stream().filter( dao -> !hasFreshSnapshot( dao ) ) ) : Map.of( userData.getUserId(), userData );
         final var acspMemberships = acspMembers.map( dao -> daoToDto( dao, users.get( dao.getUserId() ), acspProfile ) );
-        return enrichWithMetadata( acspMemberships, String.format( END_POINT_URL_TEMPLATE, acspProfile.getNumber() ) );
+        return enrichWithMetadata( acspMemberships, acspMemberships.getTotalElements(), String.format( END_POINT_URL_TEMPLATE, acspProfile.getNumber() ) );
+    }
+
+    public AcspMembershipsList daoToDto( final Slice<AcspMembersDao> acspMembers, final long totalResults, final User userData, final AcspProfile acspProfile ){
+        if ( Objects.isNull( acspProfile ) ){
+            throw new IllegalArgumentException( "acspProfile cannot be null." );
+        }
+        final var users = Objects.isNull( userData ) ? usersService.fetchUserDetails( acspMembers.stream().filter( dao -> !hasFreshSnapshot( dao ) ) ) : Map.of( userData.getUserId(), userData );
+        return enrichSliceWithMetadata( acspMembers.map( dao -> daoToDto( dao, users.get( dao.getUserId() ), acspProfile ) ), totalResults, acspProfile );
+    }
+
+    public Mono<AcspMembershipsList> daoToDtoReactively( final Flux<AcspMembersDao> acspMembers, final Mono<Long> totalResults, final Pageable pageable, final AcspProfile acspProfile ){
+        if ( Objects.isNull( acspProfile ) ){
+            throw new IllegalArgumentException( "acspProfile cannot be null." );
+        }
+        final var sharedAcspMembers = acspMembers.cache();
+        final var users = usersService.fetchUserDetails( sharedAcspMembers.filter( dao -> !hasFreshSnapshot( dao ) ) ).collectMap( User::getUserId );
+        return Mono.zip( sharedAcspMembers.collectList(), users, totalResults )
+                .map( results -> {
+                    final var acspMemberships = new PageImpl<>( results.getT1(), pageable, results.getT3() ).map( dao -> daoToDto( dao, results.getT2().get( dao.getUserId() ), acspProfile ) );
+                    return enrichWithMetadata( acspMemberships, acspMemberships.getTotalElements(), String.format( END_POINT_URL_TEMPLATE, acspProfile.getNumber() ) );
+                } );
+    }
+
+    public AcspMembershipsList daoToDto( final Flux<AcspMembersDao> acspMembers, final Mono<Long> totalResults, final Pageable pageable, final AcspProfile acspProfile ){
+        return awaitEnrichment( daoToDtoReactively( acspMembers, totalResults, pageable, acspProfile ) );
+    }
+
+    public Mono<AcspMembershipsList> daoSliceToDtoReactively( final Flux<AcspMembersDao> acspMembers, final Mono<Long> totalResults, final Pageable pageable, final AcspProfile acspProfile ){
+        if ( Objects.isNull( acspProfile ) ){
+            throw new IllegalArgumentException( "acspProfile cannot be null." );
+        }
+        final var sharedAcspMembers = acspMembers.cache();
+        final var users = usersService.fetchUserDetails( sharedAcspMembers.take( pageable.getPageSize() ).filter( dao -> !hasFreshSnapshot( dao ) ) ).collectMap( User::getUserId );
+        return Mono.zip( sharedAcspMembers.collectList(), users, totalResults )
+                .map( results -> {
+                    final var hasNext = results.getT1().size() > pageable.getPageSize();
+                    final var acspMemberships = new SliceImpl<>( hasNext ? results.getT1().subList( 0, pageable.getPageSize() ) : results.getT1(), pageable, hasNext ).map( dao -> daoToDto( dao, results.getT2().get( dao.getUserId() ), acspProfile ) );
+                    return enrichSliceWithMetadata( acspMemberships, results.getT3(), acspProfile );
+                } );
+    }
+
+    public AcspMembershipsList daoSliceToDto( final Flux<AcspMembersDao> acspMembers, final Mono<Long> totalResults, final Pageable pageable, final AcspProfile acspProfile ){
+        return awaitEnrichment( daoSliceToDtoReactively( acspMembers, totalResults, pageable, acspProfile ) );
     }
 
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package uk.gov.companieshouse.acsp.manage.users.mapper;
 
 import org.mapstruct.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspProfileService;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
@@ -24,6 +25,9 @@ public abstract class AcspMembershipMapper {
     @Autowired
     protected AcspProfileService acspProfileService;
 
+    @Value( "${acsp.members.snapshot.staleness-seconds:3600}" )
+    protected long snapshotStalenessSeconds;
+
     private static final String DEFAULT_DISPLAY_NAME = "Not Provided";
 
 
@@ -31,8 +35,22 @@ public abstract class AcspMembershipMapper {
         return Objects.isNull( localDateTime ) ? null : OffsetDateTime.of( localDateTime, ZoneOffset.UTC );
     }
 
+    protected boolean hasFreshSnapshot( final AcspMembersDao acspMembersDao ){
+        return Objects.nonNull( acspMembersDao )
+                && Objects.nonNull( acspMembersDao.getUserEmail() )
+                && Objects.nonNull( acspMembersDao.getAcspName() )
+                && Objects.nonNull( acspMembersDao.getAcspStatus() )
+                && Objects.nonNull( acspMembersDao.getSnapshotRefreshedAt() )
+                && acspMembersDao.getSnapshotRefreshedAt().isAfter( LocalDateTime.now().minusSeconds( snapshotStalenessSeconds ) );
+    }
+
     @AfterMapping
-    protected void enrichWithUserDetails( @MappingTarget final AcspMembership acspMembership, @Context User userDetails ){
+    protected void enrichWithUserDetails( final AcspMembersDao acspMembersDao, @MappingTarget final AcspMembership acspMembership, @Context User userDetails ){
+        if ( Objects.isNull( userDetails ) && hasFreshSnapshot( acspMembersDao ) ){
+            acspMembership.setUserEmail( acspMembersDao.getUserEmail() );
+            acspMembership.setUserDisplayName( Objects.isNull( acspMembersDao.getUserDisplayName() ) ? DEFAULT_DISPLAY_NAME : acspMembersDao.getUserDisplayName() );
+            return;
+        }
         if ( Objects.isNull( userDetails ) ){
             userDetails = usersService.fetchUserDetails( acspMembership.getUserId() );
         }
@@ -41,7 +59,12 @@ public abstract class AcspMembershipMapper {
     }
 
     @AfterMapping
-    protected void enrichWithAcspProfile( @MappingTarget final AcspMembership acspMembership, @Context AcspProfile acspProfile ){
+    protected void enrichWithAcspProfile( final AcspMembersDao acspMembersDao, @MappingTarget final AcspMembership acspMembership, @Context AcspProfile acspProfile ){
+        if ( Objects.isNull( acspProfile ) && hasFreshSnapshot( acspMembersDao ) ){
+            acspMembership.setAcspName( acspMembersDao.getAcspName() );
+            acspMembership.setAcspStatus( AcspStatusEnum.fromValue( acspMembersDao.getAcspStatus() ) );
+            return;
+        }
         if ( Objects.isNull( acspProfile ) ){
             acspProfile = acspProfileService.fetchAcspProfile( acspMembership.getAcspNumber() );
         }
@@ -49,6 +72,7 @@ public abstract class AcspMembershipMapper {
         acspMembership.setAcspStatus( AcspStatusEnum.fromValue( acspProfile.getStatus().getValue() ) );
     }
 
+    @Mapping( target = "acspStatus", ignore = true )
     @Mapping( target = "membershipStatus", expression = "java(AcspMembership.MembershipStatusEnum.fromValue(acspMembersDao.getStatus()))" )
     public abstract AcspMembership daoToDto( final AcspMembersDao acspMembersDao, @Context final User user, @Context final AcspProfile acspProfile );
 
@@ -0,0 +1,19 @@
+package uk.gov.companieshouse.acsp.manage.users.migration;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Update;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+
+public interface AcspMembersMigration {
+
+    int getVersion();
+
+    String getDescription();
+
+    Document getFilter();
+
+    Update migrate( final AcspMembersDao membership );
+
+    default void onCompleted(){}
+
+}
@@ -0,0 +1,31 @@
+package uk.gov.companieshouse.acsp.manage.users.migration;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+
+@Component
+public class BackfillAddedAtMigration implements AcspMembersMigration {
+
+    @Override
+    public int getVersion(){
+        return 1;
+    }
+
+    @Override
+    public String getDescription(){
+        return "Backfill added_at from created_at so that member pages sort consistently";
+    }
+
+    @Override
+    public Document getFilter(){
+        return new Document( "added_at", new Document( "$exists", false ) );
+    }
+
+    @Override
+    public Update migrate( final AcspMembersDao membership ){
+        return new Update().set( "added_at", membership.getCreatedAt() );
+    }
+
+}
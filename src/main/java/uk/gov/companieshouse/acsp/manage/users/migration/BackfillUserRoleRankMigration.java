@@ -0,0 +1,40 @@
+package uk.gov.companieshouse.acsp.manage.users.migration;
+
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.model.enums.MembershipSort;
+
+@Component
+public class BackfillUserRoleRankMigration implements AcspMembersMigration {
+
+    @Override
+    public int getVersion(){
+        return 2;
+    }
+
+    @Override
+    public String getDescription(){
+        return "Backfill user_role_rank from user_role so that member pages sort owners, then admins, then standard members";
+    }
+
+    @Override
+    public Document getFilter(){
+        return new Document( "user_role_rank", new Document( "$exists", false ) );
+    }
+
+    @Override
+    public Update migrate( final AcspMembersDao membership ){
+        try {
+            return new Update().set( "user_role_rank", MembershipSort.roleRank( membership.getUserRole().getValue() ) );
+        } catch ( IllegalArgumentException exception ){
+            LOGGER.errorContext( getXRequestId(), new Exception( String.format( "Skipped membership %s in migration %d because its user_role is missing or unknown: %s", membership.getId(), getVersion(), exception.getMessage() ) ), null );
+            return null;
+        }
+    }
+
+}
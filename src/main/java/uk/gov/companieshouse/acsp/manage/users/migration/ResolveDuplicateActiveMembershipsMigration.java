@@ -0,0 +1,66 @@
+package uk.gov.companieshouse.acsp.manage.users.migration;
+
+import static uk.gov.companieshouse.GenerateEtagUtil.generateEtag;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.MembershipStatusEnum.ACTIVE;
+import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.MembershipStatusEnum.REMOVED;
+
+import java.time.LocalDateTime;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.repositories.AcspMembersRepository;
+
+@Component
+public class ResolveDuplicateActiveMembershipsMigration implements AcspMembersMigration {
+
+    private final AcspMembersRepository acspMembersRepository;
+
+    public ResolveDuplicateActiveMembershipsMigration( final AcspMembersRepository acspMembersRepository ) {
+        this.acspMembersRepository = acspMembersRepository;
+    }
+
+    @Override
+    public int getVersion(){
+        return 3;
+    }
+
+    @Override
+    public String getDescription(){
+        return "Remove all but the earliest active membership of each user so that the user_id_active_unique index can be created";
+    }
+
+    @Override
+    public Document getFilter(){
+        return new Document( "status", ACTIVE.getValue() );
+    }
+
+    @Override
+    public Update migrate( final AcspMembersDao membership ){
+        final var isDuplicate = acspMembersRepository
+                .fetchEarliestActiveMembershipForUserId( membership.getUserId() )
+                .filter( earliestMembership -> !earliestMembership.getId().equals( membership.getId() ) )
+                .isPresent();
+        return isDuplicate ? new Update().set( "status", REMOVED.getValue() ).set( "removed_at", LocalDateTime.now() ).set( "etag", generateEtag() ) : new Update();
+    }
+
+    @Override
+    public void onCompleted(){
+        ensureActiveMembershipUniqueIndex();
+    }
+
+    @EventListener( ApplicationReadyEvent.class )
+    public void ensureActiveMembershipUniqueIndex(){
+        try {
+            acspMembersRepository.ensureActiveMembershipUniqueIndex();
+        } catch ( DataAccessException exception ){
+            LOGGER.errorContext( getXRequestId(), new Exception( String.format( "Could not create user_id_active_unique index, run migration %d to resolve duplicate active memberships: %s", getVersion(), exception.getMessage() ) ), null );
+        }
+    }
+
+}
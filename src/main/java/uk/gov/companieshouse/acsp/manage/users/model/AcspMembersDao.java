@@ -4,14 +4,23 @@ import jakarta.validation.constraints.NotNull;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
+import uk.gov.companieshouse.acsp.manage.users.model.enums.MembershipSort;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
 
 @Document( "acsp_members" )
+@CompoundIndexes( {
+        @CompoundIndex( name = "acsp_number_role_sort", def = "{ 'acsp_number': 1, 'user_role': 1, 'added_at': 1, '_id': 1 }" ),
+        @CompoundIndex( name = "acsp_number_role_rank_sort", def = "{ 'acsp_number': 1, 'user_role_rank': 1, 'added_at': 1, '_id': 1 }" ),
+        @CompoundIndex( name = "acsp_number_added_at_sort", def = "{ 'acsp_number': 1, 'added_at': 1, '_id': 1 }" ),
+        @CompoundIndex( name = "status_removed_at_archive", def = "{ 'status': 1, 'removed_at': 1 }", partialFilter = "{ 'status': 'removed' }" )
+} )
 public class AcspMembersDao {
 
     @Id
@@ -31,6 +40,9 @@ public class AcspMembersDao {
     @Field( "user_role" )
     private String userRole;
 
+    @Field( "user_role_rank" )
+    private Integer userRoleRank;
+
     @CreatedDate
     @Field( "created_at" )
     private LocalDateTime createdAt;
@@ -55,6 +67,29 @@ public class AcspMembersDao {
     @Version
     private Integer version;
 
+    @Field( "user_email" )
+    private String userEmail;
+
+    @Field( "user_display_name" )
+    private String userDisplayName;
+
+    @Field( "acsp_name" )
+    private String acspName;
+
+    @Field( "acsp_status" )
+    private String acspStatus;
+
+    @Indexed
+    @Field( "snapshot_refreshed_at" )
+    private LocalDateTime snapshotRefreshedAt;
+
+    @Indexed
+    @Field( "snapshot_refresh_attempted_at" )
+    private LocalDateTime snapshotRefreshAttemptedAt;
+
+    @Field( "schema_version" )
+    private Integer schemaVersion;
+
     public AcspMembersDao(){}
 
     public void setId( final String id ){
@@ -98,6 +133,7 @@ public class AcspMembersDao {
 
     public void setUserRole( final String userRole ) {
         this.userRole = userRole;
+        this.userRoleRank = MembershipSort.roleRank( userRole );
     }
 
     public AcspMembersDao userRole( final String userRole ){
@@ -109,6 +145,10 @@ public class AcspMembersDao {
         return UserRoleEnum.fromValue( userRole );
     }
 
+    public Integer getUserRoleRank(){
+        return userRoleRank;
+    }
+
     public void setCreatedAt( final LocalDateTime createdAt ){
         this.createdAt = createdAt;
     }
@@ -213,6 +253,97 @@ public class AcspMembersDao {
         return status;
     }
 
+    public void setUserEmail( final String userEmail ){
+        this.userEmail = userEmail;
+    }
+
+    public AcspMembersDao userEmail( final String userEmail ){
+        setUserEmail( userEmail );
+        return this;
+    }
+
+    public String getUserEmail(){
+        return userEmail;
+    }
+
+    public void setUserDisplayName( final String userDisplayName ){
+        this.userDisplayName = userDisplayName;
+    }
+
+    public AcspMembersDao userDisplayName( final String userDisplayName ){
+        setUserDisplayName( userDisplayName );
+        return this;
+    }
+
+    public String getUserDisplayName(){
+        return userDisplayName;
+    }
+
+    public void setAcspName( final String acspName ){
+        this.acspName = acspName;
+    }
+
+    public AcspMembersDao acspName( final String acspName ){
+        setAcspName( acspName );
+        return this;
+    }
+
+    public String getAcspName(){
+        return acspName;
+    }
+
+    public void setAcspStatus( final String acspStatus ){
+        this.acspStatus = acspStatus;
+    }
+
+    public AcspMembersDao acspStatus( final String acspStatus ){
+        setAcspStatus( acspStatus );
+        return this;
+    }
+
+    public String getAcspStatus(){
+        return acspStatus;
+    }
+
+    public void setSnapshotRefreshedAt( final LocalDateTime snapshotRefreshedAt ){
+        this.snapshotRefreshedAt = snapshotRefreshedAt;
+    }
+
+    public AcspMembersDao snapshotRefreshedAt( final LocalDateTime snapshotRefreshedAt ){
+        setSnapshotRefreshedAt( snapshotRefreshedAt );
+        return this;
+    }
+
+    public LocalDateTime getSnapshotRefreshedAt(){
+        return snapshotRefreshedAt;
+    }
+
+    public void setSnapshotRefreshAttemptedAt( final LocalDateTime snapshotRefreshAttemptedAt ){
+        this.snapshotRefreshAttemptedAt = snapshotRefreshAttemptedAt;
+    }
+
+    public AcspMembersDao snapshotRefreshAttemptedAt( final LocalDateTime snapshotRefreshAttemptedAt ){
+        setSnapshotRefreshAttemptedAt( snapshotRefreshAttemptedAt );
+        return this;
+    }
+
+    public LocalDateTime getSnapshotRefreshAttemptedAt(){
+        return snapshotRefreshAttemptedAt;
+    }
+
+    public void setSchemaVersion( final Integer schemaVersion ){
+        this.schemaVersion = schemaVersion;
+    }
+
+    public AcspMembersDao schemaVersion( final Integer schemaVersion ){
+        setSchemaVersion( schemaVersion );
+        return this;
+    }
+
+    public Integer getSchemaVersion(){
+        return schemaVersion;
+    }
+
     @Override
     public String toString(){
         return "AcspMembersDao{" +
@@ -220,6 +351,7 @@ public class AcspMembersDao {
                 ", acspNumber='" + acspNumber + '\'' +
                 ", userId='" + userId + '\'' +
                 ", userRole=" + userRole +
+                ", userRoleRank=" + userRoleRank +
                 ", createdAt=" + createdAt +
                 ", addedAt=" + addedAt +
                 ", addedBy='" + addedBy + '\'' +
@@ -228,6 +360,13 @@ public class AcspMembersDao {
                 ", status=" + status +
                 ", etag='" + etag + '\'' +
                 ", version=" + version +
+                ", userEmail='" + userEmail + '\'' +
+                ", userDisplayName='" + userDisplayName + '\'' +
+                ", acspName='" + acspName + '\'' +
+                ", acspStatus=" + acspStatus +
+                ", snapshotRefreshedAt=" + snapshotRefreshedAt +
+                ", snapshotRefreshAttemptedAt=" + snapshotRefreshAttemptedAt +
+                ", schemaVersion=" + schemaVersion +
                 '}';
     }
 
@@ -0,0 +1,29 @@
+package uk.gov.companieshouse.acsp.manage.users.model;
+
+public class AcspMembershipAuthorisationData {
+
+    private final AcspMembersDao targetMembership;
+    private final int numberOfActiveOwners;
+
+    public AcspMembershipAuthorisationData( final AcspMembersDao targetMembership, final int numberOfActiveOwners ){
+        this.targetMembership = targetMembership;
+        this.numberOfActiveOwners = numberOfActiveOwners;
+    }
+
+    public AcspMembersDao getTargetMembership(){
+        return targetMembership;
+    }
+
+    public int getNumberOfActiveOwners(){
+        return numberOfActiveOwners;
+    }
+
+    @Override
+    public String toString(){
+        return "AcspMembershipAuthorisationData{" +
+                "targetMembership=" + targetMembership +
+                ", numberOfActiveOwners=" + numberOfActiveOwners +
+                '}';
+    }
+
+}
@@ -8,5 +8,6 @@ public final class Constants {
     public static final String UNKNOWN = "unknown";
     public static final String PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN = "Please check the request and try again";
     public static final String OAUTH2 = "oauth2";
+    public static final String REQUEST_CONTEXT_DATA = "acspManageUsersRequestContextData";
 
 }
@@ -0,0 +1,213 @@
+package uk.gov.companieshouse.acsp.manage.users.model;
+
+import java.time.LocalDateTime;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import uk.gov.companieshouse.acsp.manage.users.model.email.BaseEmailData;
+
+@Document( "email_outbox" )
+@CompoundIndexes( {
+        @CompoundIndex( name = "status_next_attempt_at", def = "{ 'status': 1, 'next_attempt_at': 1 }" ),
+        @CompoundIndex( name = "coalescing_key_pending_unique", def = "{ 'coalescing_key': 1 }", unique = true, partialFilter = "{ 'status': 'pending', 'coalescing_key': { '$exists': true } }" )
+} )
+public class EmailOutboxDao {
+
+    @Id
+    private String id;
+
+    @Field( "message_type" )
+    private String messageType;
+
+    @Field( "email_data" )
+    private BaseEmailData<?> emailData;
+
+    private String status;
+
+    private int attempts;
+
+    @Field( "next_attempt_at" )
+    private LocalDateTime nextAttemptAt;
+
+    @Field( "x_request_id" )
+    private String xRequestId;
+
+    @Field( "coalescing_key" )
+    private String coalescingKey;
+
+    @Field( "last_error" )
+    private String lastError;
+
+    @Field( "created_at" )
+    private LocalDateTime createdAt;
+
+    @Indexed( name = "sent_at_ttl", expireAfter = "7d" )
+    @Field( "sent_at" )
+    private LocalDateTime sentAt;
+
+    public EmailOutboxDao(){}
+
+    public void setId( final String id ){
+        this.id = id;
+    }
+
+    public EmailOutboxDao id( final String id ){
+        setId( id );
+        return this;
+    }
+
+    public String getId(){
+        return id;
+    }
+
+    public void setMessageType( final String messageType ){
+        this.messageType = messageType;
+    }
+
+    public EmailOutboxDao messageType( final String messageType ){
+        setMessageType( messageType );
+        return this;
+    }
+
+    public String getMessageType(){
+        return messageType;
+    }
+
+    public void setEmailData( final BaseEmailData<?> emailData ){
+        this.emailData = emailData;
+    }
+
+    public EmailOutboxDao emailData( final BaseEmailData<?> emailData ){
+        setEmailData( emailData );
+        return this;
+    }
+
+    public BaseEmailData<?> getEmailData(){
+        return emailData;
+    }
+
+    public void setStatus( final String status ){
+        this.status = status;
+    }
+
+    public EmailOutboxDao status( final String status ){
+        setStatus( status );
+        return this;
+    }
+
+    public String getStatus(){
+        return status;
+    }
+
+    public void setAttempts( final int attempts ){
+        this.attempts = attempts;
+    }
+
+    public EmailOutboxDao attempts( final int attempts ){
+        setAttempts( attempts );
+        return this;
+    }
+
+    public int getAttempts(){
+        return attempts;
+    }
+
+    public void setNextAttemptAt( final LocalDateTime nextAttemptAt ){
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public EmailOutboxDao nextAttemptAt( final LocalDateTime nextAttemptAt ){
+        setNextAttemptAt( nextAttemptAt );
+        return this;
+    }
+
+    public LocalDateTime getNextAttemptAt(){
+        return nextAttemptAt;
+    }
+
+    public void setXRequestId( final String xRequestId ){
+        this.xRequestId = xRequestId;
+    }
+
+    public EmailOutboxDao xRequestId( final String xRequestId ){
+        setXRequestId( xRequestId );
+        return this;
+    }
+
+    public String getXRequestId(){
+        return xRequestId;
+    }
+
+    public void setCoalescingKey( final String coalescingKey ){
+        this.coalescingKey = coalescingKey;
+    }
+
+    public EmailOutboxDao coalescingKey( final String coalescingKey ){
+        setCoalescingKey( coalescingKey );
+        return this;
+    }
+
+    public String getCoalescingKey(){
+        return coalescingKey;
+    }
+
+    public void setLastError( final String lastError ){
+        this.lastError = lastError;
+    }
+
+    public EmailOutboxDao lastError( final String lastError ){
+        setLastError( lastError );
+        return this;
+    }
+
+    public String getLastError(){
+        return lastError;
+    }
+
+    public void setCreatedAt( final LocalDateTime createdAt ){
+        this.createdAt = createdAt;
+    }
+
+    public EmailOutboxDao createdAt( final LocalDateTime createdAt ){
+        setCreatedAt( createdAt );
+        return this;
+    }
+
+    public LocalDateTime getCreatedAt(){
+        return createdAt;
+    }
+
+    public void setSentAt( final LocalDateTime sentAt ){
+        this.sentAt = sentAt;
+    }
+
+    public EmailOutboxDao sentAt( final LocalDateTime sentAt ){
+        setSentAt( sentAt );
+        return this;
+    }
+
+    public LocalDateTime getSentAt(){
+        return sentAt;
+    }
+
+    @Override
+    public String toString(){
+        return "EmailOutboxDao{" +
+                "id='" + id + '\'' +
+                ", messageType='" + messageType + '\'' +
+                ", emailData=" + emailData +
+                ", status='" + status + '\'' +
+                ", attempts=" + attempts +
+                ", nextAttemptAt=" + nextAttemptAt +
+                ", xRequestId='" + xRequestId + '\'' +
+                ", coalescingKey='" + coalescingKey + '\'' +
+                ", lastError='" + lastError + '\'' +
+                ", createdAt=" + createdAt +
+                ", sentAt=" + sentAt +
+                '}';
+    }
+
+}
@@ -0,0 +1,207 @@
+package uk.gov.companieshouse.acsp.manage.users.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import java.time.LocalDateTime;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+@Document( "acsp_members_migrations" )
+public class MigrationProgressDao {
+
+    @Id
+    private Integer version;
+
+    private String description;
+
+    private String status;
+
+    @Field( "last_processed_id" )
+    @JsonSerialize( using = ToStringSerializer.class )
+    private Object lastProcessedId;
+
+    @Field( "processed_count" )
+    private long processedCount;
+
+    @Field( "last_error" )
+    private String lastError;
+
+    @Field( "started_at" )
+    private LocalDateTime startedAt;
+
+    @Field( "updated_at" )
+    private LocalDateTime updatedAt;
+
+    @Field( "completed_at" )
+    private LocalDateTime completedAt;
+
+    @Field( "lease_owner" )
+    private String leaseOwner;
+
+    @Field( "lease_expires_at" )
+    private LocalDateTime leaseExpiresAt;
+
+    public MigrationProgressDao(){}
+
+    public void setVersion( final Integer version ){
+        this.version = version;
+    }
+
+    public MigrationProgressDao version( final Integer version ){
+        setVersion( version );
+        return this;
+    }
+
+    public Integer getVersion(){
+        return version;
+    }
+
+    public void setDescription( final String description ){
+        this.description = description;
+    }
+
+    public MigrationProgressDao description( final String description ){
+        setDescription( description );
+        return this;
+    }
+
+    public String getDescription(){
+        return description;
+    }
+
+    public void setStatus( final String status ){
+        this.status = status;
+    }
+
+    public MigrationProgressDao status( final String status ){
+        setStatus( status );
+        return this;
+    }
+
+    public String getStatus(){
+        return status;
+    }
+
+    public void setLastProcessedId( final Object lastProcessedId ){
+        this.lastProcessedId = lastProcessedId;
+    }
+
+    public MigrationProgressDao lastProcessedId( final Object lastProcessedId ){
+        setLastProcessedId( lastProcessedId );
+        return this;
+    }
+
+    public Object getLastProcessedId(){
+        return lastProcessedId;
+    }
+
+    public void setProcessedCount( final long processedCount ){
+        this.processedCount = processedCount;
+    }
+
+    public MigrationProgressDao processedCount( final long processedCount ){
+        setProcessedCount( processedCount );
+        return this;
+    }
+
+    public long getProcessedCount(){
+        return processedCount;
+    }
+
+    public void setLastError( final String lastError ){
+        this.lastError = lastError;
+    }
+
+    public MigrationProgressDao lastError( final String lastError ){
+        setLastError( lastError );
+        return this;
+    }
+
+    public String getLastError(){
+        return lastError;
+    }
+
+    public void setStartedAt( final LocalDateTime startedAt ){
+        this.startedAt = startedAt;
+    }
+
+    public MigrationProgressDao startedAt( final LocalDateTime startedAt ){
+        setStartedAt( startedAt );
+        return this;
+    }
+
+    public LocalDateTime getStartedAt(){
+        return startedAt;
+    }
+
+    public void setUpdatedAt( final LocalDateTime updatedAt ){
+        this.updatedAt = updatedAt;
+    }
+
+    public MigrationProgressDao updatedAt( final LocalDateTime updatedAt ){
+        setUpdatedAt( updatedAt );
+        return this;
+    }
+
+    public LocalDateTime getUpdatedAt(){
+        return updatedAt;
+    }
+
+    public void setCompletedAt( final LocalDateTime completedAt ){
+        this.completedAt = completedAt;
+    }
+
+    public MigrationProgressDao completedAt( final LocalDateTime completedAt ){
+        setCompletedAt( completedAt );
+        return this;
+    }
+
+    public LocalDateTime getCompletedAt(){
+        return completedAt;
+    }
+
+    public void setLeaseOwner( final String leaseOwner ){
+        this.leaseOwner = leaseOwner;
+    }
+
+    public MigrationProgressDao leaseOwner( final String leaseOwner ){
+        setLeaseOwner( leaseOwner );
+        return this;
+    }
+
+    public String getLeaseOwner(){
+        return leaseOwner;
+    }
+
+    public void setLeaseExpiresAt( final LocalDateTime leaseExpiresAt ){
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public MigrationProgressDao leaseExpiresAt( final LocalDateTime leaseExpiresAt ){
+        setLeaseExpiresAt( leaseExpiresAt );
+        return this;
+    }
+
+    public LocalDateTime getLeaseExpiresAt(){
+        return leaseExpiresAt;
+    }
+
+    @Override
+    public String toString(){
+        return "MigrationProgressDao{" +
+                "version=" + version +
+                ", description='" + description + '\'' +
+                ", status='" + status + '\'' +
+                ", lastProcessedId='" + lastProcessedId + '\'' +
+                ", processedCount=" + processedCount +
+                ", lastError='" + lastError + '\'' +
+                ", startedAt=" + startedAt +
+                ", updatedAt=" + updatedAt +
+                ", completedAt=" + completedAt +
+                ", leaseOwner='" + leaseOwner + '\'' +
+                ", leaseExpiresAt=" + leaseExpiresAt +
+                '}';
+    }
+
+}
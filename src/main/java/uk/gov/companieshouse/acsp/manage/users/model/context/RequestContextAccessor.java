@@ -0,0 +1,29 @@
+package uk.gov.companieshouse.acsp.manage.users.model.context;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+public class RequestContextAccessor implements ThreadLocalAccessor<RequestContextData> {
+
+    public static final String KEY = "acsp-manage-users-api.request-context";
+
+    @Override
+    public Object key(){
+        return KEY;
+    }
+
+    @Override
+    public RequestContextData getValue(){
+        return RequestContext.getRequestContext();
+    }
+
+    @Override
+    public void setValue( final RequestContextData requestContextData ){
+        RequestContext.setRequestContext( requestContextData );
+    }
+
+    @Override
+    public void setValue(){
+        RequestContext.clear();
+    }
+
+}
@@ -1,5 +1,6 @@
 package uk.gov.companieshouse.acsp.manage.users.model.context;
 
+import static org.springframework.http.HttpHeaders.IF_MATCH;
 import static uk.gov.companieshouse.acsp.manage.users.model.Constants.UNKNOWN;
 import static uk.gov.companieshouse.acsp.manage.users.model.Constants.X_REQUEST_ID;
 import static uk.gov.companieshouse.api.util.security.EricConstants.ERIC_AUTHORISED_KEY_ROLES;
@@ -10,13 +11,11 @@ import static uk.gov.companieshouse.api.util.security.EricConstants.ERIC_IDENTIT
 import static uk.gov.companieshouse.api.util.security.RequestUtils.getRequestHeader;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.Arrays;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
 
@@ -29,13 +28,15 @@ public class RequestContextData {
     private final String activeAcspNumber;
     private final UserRoleEnum activeAcspRole;
     private final HashSet<String> adminPrivileges;
-    private final User user;
+    private final Supplier<User> userSupplier;
+    private final String ifMatch;
+    private final String sort;
 
     private static final String ACSP_MEMBERS_OWNERS = "acsp_members_owners=create,update,delete";
     private static final String ACSP_MEMBERS_ADMINS = "acsp_members_admins=create,update,delete";
     private static final String ACSP_MEMBERS_READ_PERMISSION = "acsp_members=read";
 
-    protected RequestContextData( final String xRequestId, final String ericIdentity, final String ericIdentityType, final String ericAuthorisedKeyRoles, final String activeAcspNumber, final UserRoleEnum activeAcspRole, final HashSet<String> adminPrivileges, final User user ){
+    protected RequestContextData( final String xRequestId, final String ericIdentity, final String ericIdentityType, final String ericAuthorisedKeyRoles, final String activeAcspNumber, final UserRoleEnum activeAcspRole, final HashSet<String> adminPrivileges, final Supplier<User> userSupplier, final String ifMatch, final String sort ){
         this.xRequestId = xRequestId;
         this.ericIdentity = ericIdentity;
         this.ericIdentityType = ericIdentityType;
@@ -43,7 +44,9 @@ public class RequestContextData {
         this.activeAcspNumber = activeAcspNumber;
         this.activeAcspRole = activeAcspRole;
         this.adminPrivileges = adminPrivileges;
-        this.user = user;
+        this.userSupplier = userSupplier;
+        this.ifMatch = ifMatch;
+        this.sort = sort;
     }
 
     public String getXRequestId(){
@@ -75,7 +78,44 @@ public class RequestContextData {
     }
 
     public User getUser(){
-        return user;
+        return userSupplier.get();
+    }
+
+    public String getIfMatch(){
+        return ifMatch;
+    }
+
+    public String getSort(){
+        return sort;
+    }
+
+    private static final class MemoizedSupplier<T> implements Supplier<T> {
+
+        private final Supplier<T> delegate;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile boolean resolved;
+        private T value;
+
+        private MemoizedSupplier( final Supplier<T> delegate ){
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T get(){
+            if ( !resolved ){
+                lock.lock();
+                try {
+                    if ( !resolved ){
+                        value = delegate.get();
+                        resolved = true;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return value;
+        }
+
     }
 
     public static final class RequestContextDataBuilder {
@@ -86,9 +126,27 @@ public class RequestContextData {
         private HashSet<String> adminPrivileges = new HashSet<>();
         private String activeAcspNumber = UNKNOWN;
         private UserRoleEnum activeAcspRole;
-        private User user;
+        private Supplier<User> userSupplier = () -> null;
+        private String ifMatch;
+        private String sort;
+
+        private static final String ACSP_NUMBER_PREFIX = "acsp_number=";
+        private static final int MAX_ACSP_NUMBER_LENGTH = 32;
 
-        private static final Pattern ACSP_NUMBER_PATTERN = Pattern.compile( "(?<=^|\\s)acsp_number=([0-9A-Za-z-_]{0,32})(?=\\s|$)" );
+        public RequestContextDataBuilder(){}
+
+        public RequestContextDataBuilder( final RequestContextData requestContextData ){
+            xRequestId = requestContextData.getXRequestId();
+            ericIdentity = requestContextData.getEricIdentity();
+            ericIdentityType = requestContextData.getEricIdentityType();
+            ericAuthorisedKeyRoles = requestContextData.getEricAuthorisedKeyRoles();
+            adminPrivileges = requestContextData.getAdminPrivileges();
+            activeAcspNumber = requestContextData.getActiveAcspNumber();
+            activeAcspRole = requestContextData.getActiveAcspRole();
+            userSupplier = requestContextData.userSupplier;
+            ifMatch = requestContextData.getIfMatch();
+            sort = requestContextData.getSort();
+        }
 
         public RequestContextDataBuilder setXRequestId( final HttpServletRequest request ){
             xRequestId = Optional.ofNullable( getRequestHeader( request, X_REQUEST_ID ) ).orElse( UNKNOWN );
@@ -110,46 +168,127 @@ public class RequestContextData {
             return this;
         }
 
+        private static boolean isAcspNumberCharacter( final char character ){
+            return ( character >= '0' && character <= '9' ) || ( character >= 'A' && character <= 'Z' ) || ( character >= 'a' && character <= 'z' ) || character == '-' || character == '_';
+        }
+
+        private static boolean isAcspNumberToken( final String permissions, final int start, final int end ){
+            final var valueStart = start + ACSP_NUMBER_PREFIX.length();
+            if ( end - start < ACSP_NUMBER_PREFIX.length() || end - valueStart > MAX_ACSP_NUMBER_LENGTH || !permissions.startsWith( ACSP_NUMBER_PREFIX, start ) ){
+                return false;
+            }
+            for ( var index = valueStart; index < end; index++ ){
+                if ( !isAcspNumberCharacter( permissions.charAt( index ) ) ){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean tokenEquals( final String permissions, final int start, final int end, final String token ){
+            return end - start == token.length() && permissions.startsWith( token, start );
+        }
+
+        private void parseTokenPermissions( final String permissions, final boolean parseAcspNumber, final boolean parseAcspRole ){
+            var parsedAcspNumber = UNKNOWN;
+            UserRoleEnum parsedAcspRole = null;
+            if ( Objects.nonNull( permissions ) ){
+                final var length = permissions.length();
+                var acspNumberFound = false;
+                var start = 0;
+                while ( start < length ){
+                    while ( start < length && Character.isWhitespace( permissions.charAt( start ) ) ){
+                        start++;
+                    }
+                    var end = start;
+                    while ( end < length && !Character.isWhitespace( permissions.charAt( end ) ) ){
+                        end++;
+                    }
+                    if ( parseAcspNumber && !acspNumberFound && isAcspNumberToken( permissions, start, end ) ){
+                        parsedAcspNumber = permissions.substring( start + ACSP_NUMBER_PREFIX.length(), end );
+                        acspNumberFound = true;
+                    } else if ( parseAcspRole && tokenEquals( permissions, start, end, ACSP_MEMBERS_OWNERS ) ){
+                        parsedAcspRole = UserRoleEnum.OWNER;
+                    } else if ( parseAcspRole && tokenEquals( permissions, start, end, ACSP_MEMBERS_ADMINS ) ){
+                        parsedAcspRole = UserRoleEnum.OWNER.equals( parsedAcspRole ) ? parsedAcspRole : UserRoleEnum.ADMIN;
+                    } else if ( parseAcspRole && tokenEquals( permissions, start, end, ACSP_MEMBERS_READ_PERMISSION ) ){
+                        parsedAcspRole = Objects.isNull( parsedAcspRole ) ? UserRoleEnum.STANDARD : parsedAcspRole;
+                    }
+                    start = end;
+                }
+            }
+            if ( parseAcspNumber ){
+                activeAcspNumber = parsedAcspNumber;
+            }
+            if ( parseAcspRole ){
+                activeAcspRole = parsedAcspRole;
+            }
+        }
+
+        public RequestContextDataBuilder setTokenPermissions( final HttpServletRequest request ){
+            parseTokenPermissions( getRequestHeader( request, ERIC_AUTHORISED_TOKEN_PERMISSIONS ), true, true );
+            return this;
+        }
+
         public RequestContextDataBuilder setActiveAcspNumber( final HttpServletRequest request ){
-            activeAcspNumber = Optional.ofNullable( getRequestHeader( request, ERIC_AUTHORISED_TOKEN_PERMISSIONS ) )
-                    .map( ACSP_NUMBER_PATTERN::matcher )
-                    .map( matcher -> matcher.find() ? matcher.group( 1 ) : null )
-                    .orElse( UNKNOWN );
+            parseTokenPermissions( getRequestHeader( request, ERIC_AUTHORISED_TOKEN_PERMISSIONS ), true, false );
             return this;
         }
 
         public RequestContextDataBuilder setActiveAcspRole( final HttpServletRequest request ){
-            final var ericAuthorisedTokenPermissions = Optional.ofNullable( getRequestHeader( request, ERIC_AUTHORISED_TOKEN_PERMISSIONS ) ).orElse( UNKNOWN );
+            parseTokenPermissions( getRequestHeader( request, ERIC_AUTHORISED_TOKEN_PERMISSIONS ), false, true );
+            return this;
+        }
 
-            final var roleMap = new LinkedHashMap<String, UserRoleEnum>();
-            roleMap.put( ACSP_MEMBERS_OWNERS, UserRoleEnum.OWNER );
-            roleMap.put( ACSP_MEMBERS_ADMINS, UserRoleEnum.ADMIN );
-            roleMap.put( ACSP_MEMBERS_READ_PERMISSION, UserRoleEnum.STANDARD );
+        public RequestContextDataBuilder setAdminPrivileges( final HttpServletRequest request ){
+            adminPrivileges = new HashSet<>();
+            final var roles = getRequestHeader( request, ERIC_AUTHORISED_ROLES );
+            if ( Objects.isNull( roles ) ){
+                return this;
+            }
+            final var length = roles.length();
+            var start = 0;
+            while ( start < length ){
+                var end = roles.indexOf( ' ', start );
+                end = end < 0 ? length : end;
+                if ( end > start ){
+                    adminPrivileges.add( roles.substring( start, end ) );
+                }
+                start = end + 1;
+            }
+            return this;
+        }
 
-            activeAcspRole = roleMap.entrySet().stream()
-                    .filter( entry -> ericAuthorisedTokenPermissions.contains( entry.getKey() ) )
-                    .map( Map.Entry::getValue )
-                    .findFirst()
-                    .orElse( null );
+        public RequestContextDataBuilder setUser( final User user ){
+            this.userSupplier = () -> user;
+            return this;
+        }
 
+        public RequestContextDataBuilder setUserSupplier( final Supplier<User> userSupplier ){
+            this.userSupplier = new MemoizedSupplier<>( userSupplier );
             return this;
         }
 
-        public RequestContextDataBuilder setAdminPrivileges( final HttpServletRequest request ){
-            adminPrivileges = Optional.ofNullable( getRequestHeader( request, ERIC_AUTHORISED_ROLES ) )
-                    .map( roles -> roles.split(" ") )
-                    .map( roles -> Arrays.stream( roles ).collect( Collectors.toCollection( HashSet::new ) ) )
-                    .orElse( new HashSet<>() );
+        public RequestContextDataBuilder setIfMatch( final HttpServletRequest request ){
+            ifMatch = Optional.ofNullable( getRequestHeader( request, IF_MATCH ) )
+                    .map( String::trim )
+                    .map( etag -> etag.startsWith( "W/" ) ? etag.substring( 2 ) : etag )
+                    .map( etag -> etag.length() >= 2 && etag.startsWith( "\"" ) && etag.endsWith( "\"" ) ? etag.substring( 1, etag.length() - 1 ) : etag )
+                    .filter( etag -> !etag.isEmpty() && !etag.equals( "*" ) )
+                    .orElse( null );
             return this;
         }
 
-        public RequestContextDataBuilder setUser( final User user ){
-            this.user = user;
+        public RequestContextDataBuilder setSort( final HttpServletRequest request ){
+            sort = Optional.ofNullable( request.getParameter( "sort" ) )
+                    .map( String::trim )
+                    .filter( parameter -> !parameter.isEmpty() )
+                    .orElse( null );
             return this;
         }
 
         public RequestContextData build(){
-            return new RequestContextData( xRequestId, ericIdentity, ericIdentityType, ericAuthorisedKeyRoles, activeAcspNumber, activeAcspRole, adminPrivileges, user );
+            return new RequestContextData( xRequestId, ericIdentity, ericIdentityType, ericAuthorisedKeyRoles, activeAcspNumber, activeAcspRole, adminPrivileges, userSupplier, ifMatch, sort );
         }
 
     }
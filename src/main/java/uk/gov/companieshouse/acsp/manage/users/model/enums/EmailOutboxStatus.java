@@ -0,0 +1,20 @@
+package uk.gov.companieshouse.acsp.manage.users.model.enums;
+
+public enum EmailOutboxStatus {
+
+    PENDING( "pending" ),
+    SENDING( "sending" ),
+    SENT( "sent" ),
+    FAILED( "failed" );
+
+    private final String value;
+
+    EmailOutboxStatus( final String value ){
+        this.value = value;
+    }
+
+    public String getValue(){
+        return value;
+    }
+
+}
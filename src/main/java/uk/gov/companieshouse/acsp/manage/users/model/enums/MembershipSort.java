@@ -0,0 +1,59 @@
+package uk.gov.companieshouse.acsp.manage.users.model.enums;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.data.domain.Sort;
+import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
+
+public enum MembershipSort {
+
+    ROLE( "role", Sort.by( "user_role_rank", "added_at", "_id" ) ),
+    ADDED_AT( "added_at", Sort.by( "added_at", "_id" ) );
+
+    private static final String DESCENDING_PREFIX = "-";
+    private static final String USER_ROLE_RANK = "user_role_rank";
+    private static final List<UserRoleEnum> ROLES_BY_RANK = List.of( UserRoleEnum.OWNER, UserRoleEnum.ADMIN, UserRoleEnum.STANDARD );
+
+    private final String value;
+    private final Sort sort;
+
+    MembershipSort( final String value, final Sort sort ){
+        this.value = value;
+        this.sort = sort;
+    }
+
+    public String getValue(){
+        return value;
+    }
+
+    public Sort getSort(){
+        return sort;
+    }
+
+    public static Optional<Sort> fromParameter( final String parameter ){
+        if ( Objects.isNull( parameter ) ){
+            return Optional.of( ROLE.getSort() );
+        }
+        final var descending = parameter.startsWith( DESCENDING_PREFIX );
+        final var value = descending ? parameter.substring( DESCENDING_PREFIX.length() ) : parameter;
+        return Arrays.stream( values() )
+                .filter( membershipSort -> membershipSort.getValue().equals( value ) )
+                .findFirst()
+                .map( MembershipSort::getSort )
+                .map( sort -> descending ? sort.descending() : sort );
+    }
+
+    public static Integer roleRank( final String userRole ){
+        return Optional.ofNullable( userRole )
+                .map( UserRoleEnum::fromValue )
+                .map( ROLES_BY_RANK::indexOf )
+                .orElse( null );
+    }
+
+    public static Sort withinRole( final Sort sort ){
+        return Sort.by( sort.stream().filter( order -> !USER_ROLE_RANK.equals( order.getProperty() ) ).toList() );
+    }
+
+}
@@ -0,0 +1,18 @@
+package uk.gov.companieshouse.acsp.manage.users.model.enums;
+
+public enum MigrationStatus {
+
+    RUNNING( "running" ),
+    COMPLETED( "completed" );
+
+    private final String value;
+
+    MigrationStatus( final String value ){
+        this.value = value;
+    }
+
+    public String getValue(){
+        return value;
+    }
+
+}
@@ -2,6 +2,7 @@ package uk.gov.companieshouse.acsp.manage.users.repositories;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
@@ -12,7 +13,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AcspMembersRepository extends MongoRepository<AcspMembersDao, String> {
+public interface AcspMembersRepository extends MongoRepository<AcspMembersDao, String>, AcspMembersRepositoryCustom {
 
     @Query( "{ 'user_id': ?0 }" )
     List<AcspMembersDao> fetchActiveAndRemovedMembershipsForUserId( final String userId );
@@ -32,6 +33,30 @@ public interface AcspMembersRepository extends MongoRepository<AcspMembersDao, S
     @Query( "{ 'acsp_number': ?0, 'status': 'active', 'user_role': ?1 }" )
     Page<AcspMembersDao> fetchActiveMembershipsForAcspNumberAndUserRole( final String acspNumber, final String userRole, final Pageable pageable );
 
+    @Query( "{ 'acsp_number': ?0 }" )
+    Slice<AcspMembersDao> fetchActiveAndRemovedMembershipSliceForAcspNumber( final String acspNumber, final Pageable pageable );
+
+    @Query( "{ 'acsp_number': ?0, 'status': 'active' }" )
+    Slice<AcspMembersDao> fetchActiveMembershipSliceForAcspNumber( final String acspNumber, final Pageable pageable );
+
+    @Query( "{ 'acsp_number': ?0, 'user_role': ?1 }" )
+    Slice<AcspMembersDao> fetchActiveAndRemovedMembershipSliceForAcspNumberAndUserRole( final String acspNumber, final String userRole, final Pageable pageable );
+
+    @Query( "{ 'acsp_number': ?0, 'status': 'active', 'user_role': ?1 }" )
+    Slice<AcspMembersDao> fetchActiveMembershipSliceForAcspNumberAndUserRole( final String acspNumber, final String userRole, final Pageable pageable );
+
+    @Query( value = "{ 'acsp_number': ?0 }", count = true )
+    int fetchNumberOfActiveAndRemovedMembershipsForAcspNumber( final String acspNumber );
+
+    @Query( value = "{ 'acsp_number': ?0, 'status': 'active' }", count = true )
+    int fetchNumberOfActiveMembershipsForAcspNumber( final String acspNumber );
+
+    @Query( value = "{ 'acsp_number': ?0, 'user_role': ?1 }", count = true )
+    int fetchNumberOfActiveAndRemovedMembershipsForAcspNumberAndUserRole( final String acspNumber, final String userRole );
+
+    @Query( value = "{ 'acsp_number': ?0, 'status': 'active', 'user_role': ?1 }", count = true )
+    int fetchNumberOfActiveMembershipsForAcspNumberAndUserRole( final String acspNumber, final String userRole );
+
     @Query( "{ 'user_id': ?0, 'acsp_number': ?1 }" )
     List<AcspMembersDao> fetchActiveAndRemovedMemberships( final String userId, final String acspNumber );
 
@@ -0,0 +1,43 @@
+package uk.gov.companieshouse.acsp.manage.users.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembershipAuthorisationData;
+
+public interface AcspMembersRepositoryCustom {
+
+    Optional<AcspMembershipAuthorisationData> fetchMembershipAuthorisationData( final String membershipId );
+
+    Optional<AcspMembersDao> updateMembershipIfUnchanged( final AcspMembersDao expectedMembership, final Update update );
+
+    int lockOtherActiveOwners( final AcspMembersDao membership );
+
+    List<AcspMembersDao> fetchMembershipsWithStaleSnapshot( final LocalDateTime refreshedBefore, final int limit );
+
+    int updateMembershipSnapshots( final List<AcspMembersDao> memberships );
+
+    void ensureArchiveIndexes();
+
+    void ensureActiveMembershipUniqueIndex();
+
+    Optional<AcspMembersDao> fetchEarliestActiveMembershipForUserId( final String userId );
+
+    int archiveMembershipsRemovedBefore( final LocalDateTime removedBefore, final int limit );
+
+    Optional<AcspMembersDao> fetchArchivedMembership( final String membershipId );
+
+    List<AcspMembersDao> fetchMembershipsIncludingArchived( final Document filter, final Pageable pageable );
+
+    int fetchNumberOfMembershipsIncludingArchived( final Document filter );
+
+    List<Document> fetchMembershipsForMigration( final Document filter, final Object afterId, final int limit );
+
+    int applyMigration( final List<Document> memberships, final Document filter, final int schemaVersion, final Function<AcspMembersDao, Update> migration );
+
+}
@@ -0,0 +1,277 @@
+package uk.gov.companieshouse.acsp.manage.users.repositories;
+
+import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.MembershipStatusEnum.ACTIVE;
+import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.MembershipStatusEnum.REMOVED;
+import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.OWNER;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembershipAuthorisationData;
+import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
+
+public class AcspMembersRepositoryCustomImpl implements AcspMembersRepositoryCustom {
+
+    private static final String ACTIVE_OWNERS = "active_owners";
+    private static final String ARCHIVE_COLLECTION = "acsp_members_archive";
+    private static final String ACTIVE_MEMBERSHIP_UNIQUE_INDEX = "user_id_active_unique";
+
+    private final MongoTemplate mongoTemplate;
+
+    public AcspMembersRepositoryCustomImpl( final MongoTemplate mongoTemplate ){
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    private String collectionName(){
+        return mongoTemplate.getCollectionName( AcspMembersDao.class );
+    }
+
+    private static Object toId( final String membershipId ){
+        return Objects.nonNull( membershipId ) && ObjectId.isValid( membershipId ) ? new ObjectId( membershipId ) : membershipId;
+    }
+
+    private static Document sameAcspAs( final String variable ){
+        return new Document( "$expr", new Document( "$eq", List.of( "$acsp_number", "$$" + variable ) ) );
+    }
+
+    private Document lookupInSameAcsp( final Document match, final List<Document> stages, final String as ){
+        final var pipeline = new ArrayList<Document>();
+        pipeline.add( new Document( "$match", match ) );
+        pipeline.addAll( stages );
+        return new Document( "$lookup", new Document( "from", collectionName() )
+                .append( "let", new Document( "acspNumber", "$acsp_number" ) )
+                .append( "pipeline", pipeline )
+                .append( "as", as ) );
+    }
+
+    private <T> List<T> aggregate( final List<Document> pipeline, final Class<T> outputType ){
+        final var stages = pipeline.stream().map( stage -> (AggregationOperation) context -> stage ).toList();
+        final var aggregation = Aggregation.newAggregation( stages ).withOptions( AggregationOptions.builder().allowDiskUse( true ).build() );
+        return mongoTemplate.aggregate( aggregation, collectionName(), outputType ).getMappedResults();
+    }
+
+    @Override
+    public Optional<AcspMembershipAuthorisationData> fetchMembershipAuthorisationData( final String membershipId ){
+        final var pipeline = new ArrayList<Document>();
+        pipeline.add( new Document( "$match", new Document( "_id", toId( membershipId ) ) ) );
+        pipeline.add( lookupInSameAcsp( sameAcspAs( "acspNumber" ).append( "user_role", OWNER.getValue() ).append( "status", ACTIVE.getValue() ), List.of( new Document( "$count", "count" ) ), ACTIVE_OWNERS ) );
+
+        return Optional
+                .ofNullable( aggregate( pipeline, Document.class ) )
+                .filter( results -> !results.isEmpty() )
+                .map( List::getFirst )
+                .map( result -> {
+                    final var targetMembership = mongoTemplate.getConverter().read( AcspMembersDao.class, result );
+
+                    final var numberOfActiveOwners = Optional
+                            .ofNullable( result.getList( ACTIVE_OWNERS, Document.class ) )
+                            .filter( owners -> !owners.isEmpty() )
+                            .map( owners -> ( (Number) owners.getFirst().get( "count" ) ).intValue() )
+                            .orElse( 0 );
+
+                    return new AcspMembershipAuthorisationData( targetMembership, numberOfActiveOwners );
+                } );
+    }
+
+    @Override
+    public Optional<AcspMembersDao> updateMembershipIfUnchanged( final AcspMembersDao expectedMembership, final Update update ){
+        final var query = Query.query( Criteria
+                .where( "_id" ).is( expectedMembership.getId() )
+                .and( "etag" ).is( expectedMembership.getEtag() )
+                .and( "user_role" ).is( Optional.ofNullable( expectedMembership.getUserRole() ).map( UserRoleEnum::getValue ).orElse( null ) )
+                .and( "status" ).is( expectedMembership.getStatus() ) );
+
+        return Optional.ofNullable( mongoTemplate.findAndModify( query, update, FindAndModifyOptions.options().returnNew( true ), AcspMembersDao.class ) );
+    }
+
+    @Override
+    public int lockOtherActiveOwners( final AcspMembersDao membership ){
+        final var query = Query.query( Criteria
+                .where( "acsp_number" ).is( membership.getAcspNumber() )
+                .and( "user_role" ).is( OWNER.getValue() )
+                .and( "status" ).is( ACTIVE.getValue() )
+                .and( "_id" ).ne( toId( membership.getId() ) ) );
+        return (int) mongoTemplate.updateMulti( query, new Update().currentDate( "owner_lock_at" ), collectionName() ).getModifiedCount();
+    }
+
+    @Override
+    public List<AcspMembersDao> fetchMembershipsWithStaleSnapshot( final LocalDateTime refreshedBefore, final int limit ){
+        final var query = Query.query( new Criteria().orOperator(
+                        Criteria.where( "snapshot_refresh_attempted_at" ).exists( false ),
+                        Criteria.where( "snapshot_refresh_attempted_at" ).lt( refreshedBefore ) ) )
+                .with( Sort.by( Sort.Direction.ASC, "snapshot_refresh_attempted_at" ) )
+                .limit( limit );
+        return mongoTemplate.find( query, AcspMembersDao.class );
+    }
+
+    @Override
+    public int updateMembershipSnapshots( final List<AcspMembersDao> memberships ){
+        if ( memberships.isEmpty() ){
+            return 0;
+        }
+
+        final var bulkOperations = mongoTemplate.bulkOps( BulkMode.UNORDERED, AcspMembersDao.class );
+        memberships.forEach( membership -> {
+            final var update = new Update().set( "snapshot_refresh_attempted_at", membership.getSnapshotRefreshAttemptedAt() );
+            if ( Objects.equals( membership.getSnapshotRefreshedAt(), membership.getSnapshotRefreshAttemptedAt() ) ){
+                update.set( "user_email", membership.getUserEmail() )
+                        .set( "user_display_name", membership.getUserDisplayName() )
+                        .set( "acsp_name", membership.getAcspName() )
+                        .set( "acsp_status", membership.getAcspStatus() )
+                        .set( "snapshot_refreshed_at", membership.getSnapshotRefreshedAt() );
+            }
+            bulkOperations.updateOne( Query.query( Criteria.where( "_id" ).is( membership.getId() ) ), update );
+        } );
+        return bulkOperations.execute().getModifiedCount();
+    }
+
+    @Override
+    public void ensureArchiveIndexes(){
+        final var indexOperations = mongoTemplate.indexOps( ARCHIVE_COLLECTION );
+        indexOperations.ensureIndex( new Index().on( "acsp_number", Sort.Direction.ASC ) );
+        indexOperations.ensureIndex( new Index().on( "user_id", Sort.Direction.ASC ) );
+    }
+
+    @Override
+    public void ensureActiveMembershipUniqueIndex(){
+        mongoTemplate.indexOps( AcspMembersDao.class ).ensureIndex( new Index()
+                .on( "user_id", Sort.Direction.ASC )
+                .on( "status", Sort.Direction.ASC )
+                .named( ACTIVE_MEMBERSHIP_UNIQUE_INDEX )
+                .unique()
+                .partial( PartialIndexFilter.of( Criteria.where( "status" ).is( ACTIVE.getValue() ) ) ) );
+    }
+
+    @Override
+    public Optional<AcspMembersDao> fetchEarliestActiveMembershipForUserId( final String userId ){
+        final var query = Query.query( Criteria.where( "user_id" ).is( userId ).and( "status" ).is( ACTIVE.getValue() ) )
+                .with( Sort.by( Sort.Direction.ASC, "added_at", "_id" ) );
+        return Optional.ofNullable( mongoTemplate.findOne( query, AcspMembersDao.class ) );
+    }
+
+    @Override
+    public int archiveMembershipsRemovedBefore( final LocalDateTime removedBefore, final int limit ){
+        final var memberships = mongoTemplate.find( Query.query( Criteria.where( "status" ).is( REMOVED.getValue() ).and( "removed_at" ).lt( removedBefore ) ).limit( limit ), AcspMembersDao.class );
+        if ( memberships.isEmpty() ){
+            return 0;
+        }
+
+        final var bulkOperations = mongoTemplate.bulkOps( BulkMode.UNORDERED, AcspMembersDao.class, ARCHIVE_COLLECTION );
+        memberships.forEach( membership -> bulkOperations.replaceOne( Query.query( Criteria.where( "_id" ).is( membership.getId() ) ), membership, FindAndReplaceOptions.options().upsert() ) );
+        bulkOperations.execute();
+
+        final var membershipIds = memberships.stream().map( AcspMembersDao::getId ).toList();
+        return (int) mongoTemplate.remove( Query.query( Criteria.where( "_id" ).in( membershipIds ).and( "status" ).is( REMOVED.getValue() ) ), AcspMembersDao.class ).getDeletedCount();
+    }
+
+    @Override
+    public Optional<AcspMembersDao> fetchArchivedMembership( final String membershipId ){
+        return Optional.ofNullable( membershipId ).map( id -> mongoTemplate.findById( id, AcspMembersDao.class, ARCHIVE_COLLECTION ) );
+    }
+
+    private List<Document> unionWithArchive( final Document filter, final List<Document> branchStages ){
+        final var pipeline = new ArrayList<Document>();
+        pipeline.add( new Document( "$match", filter ) );
+        pipeline.addAll( branchStages );
+        final var archivePipeline = new ArrayList<Document>();
+        archivePipeline.add( new Document( "$match", filter ) );
+        archivePipeline.addAll( branchStages );
+        pipeline.add( new Document( "$unionWith", new Document( "coll", ARCHIVE_COLLECTION ).append( "pipeline", archivePipeline ) ) );
+        pipeline.add( new Document( "$group", new Document( "_id", "$_id" ).append( "membership", new Document( "$first", "$$ROOT" ) ) ) );
+        pipeline.add( new Document( "$replaceRoot", new Document( "newRoot", "$membership" ) ) );
+        return pipeline;
+    }
+
+    @Override
+    public List<AcspMembersDao> fetchMembershipsIncludingArchived( final Document filter, final Pageable pageable ){
+        final var sort = new Document();
+        pageable.getSort().forEach( order -> sort.append( order.getProperty(), order.isAscending() ? 1 : -1 ) );
+        if ( sort.isEmpty() && pageable.isPaged() ){
+            sort.append( "_id", 1 );
+        }
+        final var sortStages = new ArrayList<Document>();
+        if ( !sort.isEmpty() ){
+            sortStages.add( new Document( "$sort", sort ) );
+        }
+
+        final var branchStages = new ArrayList<>( sortStages );
+        if ( pageable.isPaged() ){
+            branchStages.add( new Document( "$limit", pageable.getOffset() + pageable.getPageSize() ) );
+        }
+
+        final var pipeline = unionWithArchive( filter, branchStages );
+        pipeline.addAll( sortStages );
+        if ( pageable.isPaged() ){
+            pipeline.add( new Document( "$skip", pageable.getOffset() ) );
+            pipeline.add( new Document( "$limit", pageable.getPageSize() ) );
+        }
+
+        return aggregate( pipeline, AcspMembersDao.class );
+    }
+
+    @Override
+    public int fetchNumberOfMembershipsIncludingArchived( final Document filter ){
+        final var pipeline = unionWithArchive( filter, List.of() );
+        pipeline.add( new Document( "$count", "count" ) );
+        return Optional
+                .ofNullable( aggregate( pipeline, Document.class ) )
+                .filter( results -> !results.isEmpty() )
+                .map( List::getFirst )
+                .map( result -> ( (Number) result.get( "count" ) ).intValue() )
+                .orElse( 0 );
+    }
+
+    private static Document afterIdCriteria( final Object afterId ){
+        final var greaterThanAfterId = new Document( "_id", new Document( "$gt", afterId ) );
+        return afterId instanceof String ? new Document( "$or", List.of( greaterThanAfterId, new Document( "_id", new Document( "$type", "objectId" ) ) ) ) : greaterThanAfterId;
+    }
+
+    @Override
+    public List<Document> fetchMembershipsForMigration( final Document filter, final Object afterId, final int limit ){
+        final var query = Objects.isNull( afterId ) ? filter : new Document( "$and", List.of( filter, afterIdCriteria( afterId ) ) );
+        return mongoTemplate.execute( collectionName(), collection -> collection.find( query ).sort( new Document( "_id", 1 ) ).limit( limit ).into( new ArrayList<Document>() ) );
+    }
+
+    @Override
+    public int applyMigration( final List<Document> memberships, final Document filter, final int schemaVersion, final Function<AcspMembersDao, Update> migration ){
+        final var converter = mongoTemplate.getConverter();
+        final var persistentEntity = converter.getMappingContext().getPersistentEntity( AcspMembersDao.class );
+        final var updateMapper = new UpdateMapper( converter );
+        final var writes = memberships.stream()
+                .map( membership -> Optional
+                        .ofNullable( migration.apply( converter.read( AcspMembersDao.class, membership ) ) )
+                        .map( update -> new UpdateOneModel<Document>(
+                                new Document( "$and", List.of( filter, new Document( "_id", membership.get( "_id" ) ) ) ),
+                                updateMapper.getMappedObject( update.set( "schema_version", schemaVersion ).getUpdateObject(), persistentEntity ) ) ) )
+                .flatMap( Optional::stream )
+                .toList();
+        if ( writes.isEmpty() ){
+            return 0;
+        }
+        return mongoTemplate.execute( collectionName(), collection -> collection.bulkWrite( writes, new BulkWriteOptions().ordered( false ) ) ).getModifiedCount();
+    }
+
+}
@@ -0,0 +1,30 @@
+package uk.gov.companieshouse.acsp.manage.users.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+import org.springframework.stereotype.Repository;
+import uk.gov.companieshouse.acsp.manage.users.model.EmailOutboxDao;
+
+@Repository
+public interface EmailOutboxRepository extends MongoRepository<EmailOutboxDao, String> {
+
+    @Query( "{ 'status': { '$in': [ 'pending', 'sending' ] }, 'next_attempt_at': { '$lte': ?0 } }" )
+    List<EmailOutboxDao> fetchDispatchableEntries( final LocalDateTime now, final Pageable pageable );
+
+    @Query( "{ '_id': ?0, 'status': { '$in': [ 'pending', 'sending' ] }, 'next_attempt_at': { '$lte': ?1 } }" )
+    @Update( "{ '$set': { 'status': 'sending', 'next_attempt_at': ?2 }, '$inc': { 'attempts': 1 } }" )
+    long claimEntry( final String id, final LocalDateTime now, final LocalDateTime leaseExpiresAt );
+
+    @Query( "{ '_id': ?0 }" )
+    @Update( "{ '$set': { 'status': 'sent', 'sent_at': ?1 } }" )
+    long markSent( final String id, final LocalDateTime sentAt );
+
+    @Query( "{ '_id': ?0 }" )
+    @Update( "{ '$set': { 'status': ?1, 'next_attempt_at': ?2, 'last_error': ?3 } }" )
+    long markUnsent( final String id, final String status, final LocalDateTime nextAttemptAt, final String lastError );
+
+}
@@ -0,0 +1,8 @@
+package uk.gov.companieshouse.acsp.manage.users.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import uk.gov.companieshouse.acsp.manage.users.model.MigrationProgressDao;
+
+@Repository
+public interface MigrationProgressRepository extends MongoRepository<MigrationProgressDao, Integer>, MigrationProgressRepositoryCustom {}
@@ -0,0 +1,13 @@
+package uk.gov.companieshouse.acsp.manage.users.repositories;
+
+import java.time.Duration;
+import java.util.Optional;
+import uk.gov.companieshouse.acsp.manage.users.model.MigrationProgressDao;
+
+public interface MigrationProgressRepositoryCustom {
+
+    Optional<MigrationProgressDao> acquireMigrationLease( final int version, final String description, final String leaseOwner, final Duration leaseDuration );
+
+    boolean updateMigrationProgress( final MigrationProgressDao progress, final String leaseOwner );
+
+}
@@ -0,0 +1,68 @@
+package uk.gov.companieshouse.acsp.manage.users.repositories;
+
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.MigrationStatus.COMPLETED;
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.MigrationStatus.RUNNING;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import uk.gov.companieshouse.acsp.manage.users.model.MigrationProgressDao;
+
+public class MigrationProgressRepositoryCustomImpl implements MigrationProgressRepositoryCustom {
+
+    private static final String LEASE_OWNER = "lease_owner";
+    private static final String LEASE_EXPIRES_AT = "lease_expires_at";
+
+    private final MongoTemplate mongoTemplate;
+
+    public MigrationProgressRepositoryCustomImpl( final MongoTemplate mongoTemplate ){
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<MigrationProgressDao> acquireMigrationLease( final int version, final String description, final String leaseOwner, final Duration leaseDuration ){
+        final var now = LocalDateTime.now();
+        final var query = Query.query( Criteria.where( "_id" ).is( version )
+                .and( "status" ).ne( COMPLETED.getValue() )
+                .orOperator( Criteria.where( LEASE_OWNER ).is( null ), Criteria.where( LEASE_OWNER ).is( leaseOwner ), Criteria.where( LEASE_EXPIRES_AT ).lt( now ) ) );
+
+        final var update = new Update()
+                .set( LEASE_OWNER, leaseOwner )
+                .set( LEASE_EXPIRES_AT, now.plus( leaseDuration ) )
+                .setOnInsert( "description", description )
+                .setOnInsert( "status", RUNNING.getValue() )
+                .setOnInsert( "processed_count", 0L )
+                .setOnInsert( "started_at", now );
+
+        try {
+            return Optional.ofNullable( mongoTemplate.findAndModify( query, update, FindAndModifyOptions.options().upsert( true ).returnNew( true ), MigrationProgressDao.class ) );
+        } catch ( DuplicateKeyException exception ){
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean updateMigrationProgress( final MigrationProgressDao progress, final String leaseOwner ){
+        final var query = Query.query( Criteria.where( "_id" ).is( progress.getVersion() ).and( LEASE_OWNER ).is( leaseOwner ) );
+        final var update = new Update()
+                .set( "status", progress.getStatus() )
+                .set( "last_processed_id", progress.getLastProcessedId() )
+                .set( "processed_count", progress.getProcessedCount() )
+                .set( "last_error", progress.getLastError() )
+                .set( "updated_at", progress.getUpdatedAt() )
+                .set( "completed_at", progress.getCompletedAt() );
+
+        if ( COMPLETED.getValue().equals( progress.getStatus() ) ){
+            update.unset( LEASE_OWNER ).unset( LEASE_EXPIRES_AT );
+        }
+
+        return mongoTemplate.updateFirst( query, update, MigrationProgressDao.class ).getModifiedCount() > 0;
+    }
+
+}
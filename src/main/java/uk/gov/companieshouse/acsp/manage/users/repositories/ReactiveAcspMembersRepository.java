@@ -0,0 +1,38 @@
+package uk.gov.companieshouse.acsp.manage.users.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+
+@Repository
+public interface ReactiveAcspMembersRepository extends ReactiveMongoRepository<AcspMembersDao, String>, ReactiveAcspMembersRepositoryCustom {
+
+    @Query( "{ 'acsp_number': ?0 }" )
+    Flux<AcspMembersDao> fetchActiveAndRemovedMembershipsForAcspNumber( final String acspNumber, final Pageable pageable );
+
+    @Query( "{ 'acsp_number': ?0, 'status': 'active' }" )
+    Flux<AcspMembersDao> fetchActiveMembershipsForAcspNumber( final String acspNumber, final Pageable pageable );
+
+    @Query( "{ 'acsp_number': ?0, 'user_role': ?1 }" )
+    Flux<AcspMembersDao> fetchActiveAndRemovedMembershipsForAcspNumberAndUserRole( final String acspNumber, final String userRole, final Pageable pageable );
+
+    @Query( "{ 'acsp_number': ?0, 'status': 'active', 'user_role': ?1 }" )
+    Flux<AcspMembersDao> fetchActiveMembershipsForAcspNumberAndUserRole( final String acspNumber, final String userRole, final Pageable pageable );
+
+    @Query( value = "{ 'acsp_number': ?0 }", count = true )
+    Mono<Long> fetchNumberOfActiveAndRemovedMembershipsForAcspNumber( final String acspNumber );
+
+    @Query( value = "{ 'acsp_number': ?0, 'status': 'active' }", count = true )
+    Mono<Long> fetchNumberOfActiveMembershipsForAcspNumber( final String acspNumber );
+
+    @Query( value = "{ 'acsp_number': ?0, 'user_role': ?1 }", count = true )
+    Mono<Long> fetchNumberOfActiveAndRemovedMembershipsForAcspNumberAndUserRole( final String acspNumber, final String userRole );
+
+    @Query( value = "{ 'acsp_number': ?0, 'status': 'active', 'user_role': ?1 }", count = true )
+    Mono<Long> fetchNumberOfActiveMembershipsForAcspNumberAndUserRole( final String acspNumber, final String userRole );
+
+}
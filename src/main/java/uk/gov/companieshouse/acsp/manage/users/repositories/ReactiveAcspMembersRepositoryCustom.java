@@ -0,0 +1,11 @@
+package uk.gov.companieshouse.acsp.manage.users.repositories;
+
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+
+public interface ReactiveAcspMembersRepositoryCustom {
+
+    Flux<AcspMembersDao> fetchMembershipSliceForAcspNumber( final String acspNumber, final String userRole, final boolean includeRemoved, final Pageable pageable );
+
+}
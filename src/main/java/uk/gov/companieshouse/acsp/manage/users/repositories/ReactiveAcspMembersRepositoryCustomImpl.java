@@ -0,0 +1,37 @@
+package uk.gov.companieshouse.acsp.manage.users.repositories;
+
+import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.MembershipStatusEnum.ACTIVE;
+
+import java.util.Objects;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+
+public class ReactiveAcspMembersRepositoryCustomImpl implements ReactiveAcspMembersRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactiveAcspMembersRepositoryCustomImpl( final ReactiveMongoTemplate reactiveMongoTemplate ){
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Flux<AcspMembersDao> fetchMembershipSliceForAcspNumber( final String acspNumber, final String userRole, final boolean includeRemoved, final Pageable pageable ){
+        final var criteria = Criteria.where( "acsp_number" ).is( acspNumber );
+        if ( !includeRemoved ){
+            criteria.and( "status" ).is( ACTIVE.getValue() );
+        }
+        if ( Objects.nonNull( userRole ) ){
+            criteria.and( "user_role" ).is( userRole );
+        }
+        final var query = Query.query( criteria )
+                .with( pageable.getSort() )
+                .skip( pageable.getOffset() )
+                .limit( pageable.getPageSize() + 1 );
+        return reactiveMongoTemplate.find( query, AcspMembersDao.class );
+    }
+
+}
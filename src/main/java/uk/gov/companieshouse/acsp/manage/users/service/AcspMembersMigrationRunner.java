@@ -0,0 +1,88 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.MigrationStatus.COMPLETED;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.debugContext;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.companieshouse.acsp.manage.users.migration.AcspMembersMigration;
+import uk.gov.companieshouse.acsp.manage.users.model.MigrationProgressDao;
+import uk.gov.companieshouse.acsp.manage.users.repositories.AcspMembersRepository;
+import uk.gov.companieshouse.acsp.manage.users.repositories.MigrationProgressRepository;
+
+@Service
+@ConditionalOnProperty( name = "acsp.members.migrations.enabled", havingValue = "true" )
+public class AcspMembersMigrationRunner {
+
+    @Value( "${acsp.members.migrations.batch-size:200}" )
+    private int batchSize;
+
+    @Value( "${acsp.members.migrations.lease-duration-ms:60000}" )
+    private long leaseDurationMs;
+
+    private final String leaseOwner = UUID.randomUUID().toString();
+    private final List<AcspMembersMigration> migrations;
+    private final AcspMembersRepository acspMembersRepository;
+    private final MigrationProgressRepository migrationProgressRepository;
+
+    public AcspMembersMigrationRunner( final List<AcspMembersMigration> migrations, final AcspMembersRepository acspMembersRepository, final MigrationProgressRepository migrationProgressRepository ) {
+        this.migrations = migrations.stream().sorted( Comparator.comparingInt( AcspMembersMigration::getVersion ) ).toList();
+        this.acspMembersRepository = acspMembersRepository;
+        this.migrationProgressRepository = migrationProgressRepository;
+    }
+
+    private boolean isCompleted( final AcspMembersMigration migration ){
+        return migrationProgressRepository.findById( migration.getVersion() )
+                .map( MigrationProgressDao::getStatus )
+                .filter( COMPLETED.getValue()::equals )
+                .isPresent();
+    }
+
+    @Scheduled( fixedDelayString = "${acsp.members.migrations.batch-interval-ms:1000}" )
+    public void runNextBatch(){
+        for ( final AcspMembersMigration migration: migrations ){
+            if ( !isCompleted( migration ) ){
+                migrationProgressRepository.acquireMigrationLease( migration.getVersion(), migration.getDescription(), leaseOwner, Duration.ofMillis( leaseDurationMs ) )
+                        .ifPresentOrElse( progress -> runBatch( migration, progress ), () -> debugContext( getXRequestId(), "Migration %d is leased by another instance", migration.getVersion() ) );
+                return;
+            }
+        }
+    }
+
+    private void runBatch( final AcspMembersMigration migration, final MigrationProgressDao progress ){
+        debugContext( getXRequestId(), "Attempting to run batch of migration %d after id %s", migration.getVersion(), progress.getLastProcessedId() );
+        try {
+            final var memberships = acspMembersRepository.fetchMembershipsForMigration( migration.getFilter(), progress.getLastProcessedId(), batchSize );
+            final var numberOfMigratedMemberships = acspMembersRepository.applyMigration( memberships, migration.getFilter(), migration.getVersion(), migration::migrate );
+
+            final var now = LocalDateTime.now();
+            progress.processedCount( progress.getProcessedCount() + numberOfMigratedMemberships )
+                    .lastError( null )
+                    .updatedAt( now );
+            if ( !memberships.isEmpty() ){
+                progress.lastProcessedId( memberships.getLast().get( "_id" ) );
+            }
+            if ( memberships.size() < batchSize ){
+                progress.status( COMPLETED.getValue() ).completedAt( now );
+                migration.onCompleted();
+            }
+            debugContext( getXRequestId(), "Successfully migrated %d memberships in migration %d", numberOfMigratedMemberships, migration.getVersion() );
+        } catch ( RuntimeException exception ){
+            progress.lastError( exception.getMessage() ).updatedAt( LocalDateTime.now() );
+            LOGGER.errorContext( getXRequestId(), new Exception( String.format( "Failed to run batch of migration %d: %s", migration.getVersion(), exception.getMessage() ) ), null );
+        }
+        if ( !migrationProgressRepository.updateMigrationProgress( progress, leaseOwner ) ){
+            LOGGER.errorContext( getXRequestId(), new Exception( String.format( "Lost lease on migration %d before recording progress after id %s", migration.getVersion(), progress.getLastProcessedId() ) ), null );
+        }
+    }
+
+}
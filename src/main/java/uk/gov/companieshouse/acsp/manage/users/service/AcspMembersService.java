@@ -1,103 +1,245 @@
 package uk.gov.companieshouse.acsp.manage.users.service;
 
 import static uk.gov.companieshouse.GenerateEtagUtil.generateEtag;
-import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.model.Constants.PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN;
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.ErrorCode.ERROR_CODE_1002;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.debugContext;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getIfMatch;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getSort;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+import static uk.gov.companieshouse.acsp.manage.users.utils.SecondaryReadsUtil.withSecondaryReads;
 import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.MembershipStatusEnum.ACTIVE;
+import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.OWNER;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mongodb.MongoException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import uk.gov.companieshouse.GenerateEtagUtil;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.BadRequestRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.ConflictRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.ForbiddenRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.InternalServerErrorRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.PreconditionFailedRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.mapper.AcspMembershipCollectionMappers;
 import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembershipAuthorisationData;
+import uk.gov.companieshouse.acsp.manage.users.model.enums.MembershipSort;
 import uk.gov.companieshouse.acsp.manage.users.repositories.AcspMembersRepository;
+import uk.gov.companieshouse.acsp.manage.users.repositories.ReactiveAcspMembersRepository;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembershipsList;
 import uk.gov.companieshouse.api.acsp_manage_users.model.RequestBodyPatch.UserStatusEnum;
 import uk.gov.companieshouse.api.acspprofile.AcspProfile;
+import uk.gov.companieshouse.api.acspprofile.Status;
 
 @Service
 public class AcspMembersService {
 
+    private static final long MAX_CACHED_MEMBERSHIP_COUNTS = 10_000L;
+    private static final String ACTIVE_MEMBERSHIP_INDEX = "user_id_active_unique";
+
+    @Value( "${acsp.members.pagination.count-free:false}" )
+    private boolean countFreePagination;
+
+    @Value( "${acsp.members.pagination.count-cache-ttl-seconds:60}" )
+    private long countCacheTtlSeconds;
+
+    @Value( "${acsp.members.reads.reactive.enabled:false}" )
+    private boolean reactiveReads;
+
+    @Value( "${acsp.members.archive.enabled:false}" )
+    private boolean archiveEnabled;
+
     private final AcspMembersRepository acspMembersRepository;
+    private final ReactiveAcspMembersRepository reactiveAcspMembersRepository;
     private final AcspMembershipCollectionMappers acspMembershipCollectionMappers;
+    private final Cache<CountKey, Long> cachedMembershipCounts = Caffeine.newBuilder()
+            .maximumSize( MAX_CACHED_MEMBERSHIP_COUNTS )
+            .expireAfter( Expiry.<CountKey, Long>creating( ( key, count ) -> Duration.ofSeconds( countCacheTtlSeconds ) ) )
+            .build();
 
-    public AcspMembersService( final AcspMembersRepository acspMembersRepository, final AcspMembershipCollectionMappers acspMembershipCollectionMappers ) {
+    public AcspMembersService( final AcspMembersRepository acspMembersRepository, final ReactiveAcspMembersRepository reactiveAcspMembersRepository, final AcspMembershipCollectionMappers acspMembershipCollectionMappers ) {
         this.acspMembersRepository = acspMembersRepository;
+        this.reactiveAcspMembersRepository = reactiveAcspMembersRepository;
         this.acspMembershipCollectionMappers = acspMembershipCollectionMappers;
     }
 
     @Transactional( readOnly = true )
     public Optional<AcspMembersDao> fetchMembershipDao( final String membershipId ) {
-        LOGGER.debugContext( getXRequestId(), String.format( "Attempting to fetch membership for id: %s", membershipId ), null );
+        debugContext( getXRequestId(), "Attempting to fetch membership for id: %s", membershipId );
         final var membership = acspMembersRepository.findById( membershipId );
-        LOGGER.debugContext( getXRequestId(), String.format( "Successfully fetched membership for id: %s", membershipId ), null );
+        debugContext( getXRequestId(), "Successfully fetched membership for id: %s", membershipId );
         return membership;
     }
 
     @Transactional( readOnly = true )
     public Optional<AcspMembership> fetchMembership( final String membershipId ) {
-        LOGGER.debugContext( getXRequestId(), String.format( "Attempting to fetch membership for id: %s", membershipId ), null );
-        final var membership = acspMembersRepository.findById( membershipId ).map( dao -> acspMembershipCollectionMappers.daoToDto( dao, null, null ) );
-        LOGGER.debugContext( getXRequestId(), String.format( "Successfully fetched membership with id: %s", membershipId ), null );
+        debugContext( getXRequestId(), "Attempting to fetch membership for id: %s", membershipId );
+        final var membership = acspMembersRepository.findById( membershipId ).or( () -> archiveEnabled ? acspMembersRepository.fetchArchivedMembership( membershipId ) : Optional.empty() ).map( dao -> acspMembershipCollectionMappers.daoToDto( dao, null, null ) );
+        debugContext( getXRequestId(), "Successfully fetched membership with id: %s", membershipId );
         return membership;
     }
 
+    private static Document membershipsFilter( final String userId, final String acspNumber, final String userRole ){
+        final var filter = new Document();
+        Optional.ofNullable( userId ).ifPresent( id -> filter.append( "user_id", id ) );
+        Optional.ofNullable( acspNumber ).ifPresent( number -> filter.append( "acsp_number", number ) );
+        Optional.ofNullable( userRole ).ifPresent( role -> filter.append( "user_role", role ) );
+        return filter;
+    }
+
+    private List<AcspMembersDao> fetchActiveAndRemovedMembershipDaos( final String userId, final String acspNumber ){
+        if ( archiveEnabled ){
+            return acspMembersRepository.fetchMembershipsIncludingArchived( membershipsFilter( userId, acspNumber, null ), Pageable.unpaged() );
+        }
+        return Objects.isNull( acspNumber ) ? acspMembersRepository.fetchActiveAndRemovedMembershipsForUserId( userId ) : acspMembersRepository.fetchActiveAndRemovedMemberships( userId, acspNumber );
+    }
+
     @Transactional( readOnly = true )
     public List<AcspMembersDao> fetchMembershipDaos( final String userId, final boolean includeRemoved ) {
-        LOGGER.debugContext( getXRequestId(), String.format( "Attempting to fetch memberships for user with id %s", userId ), null );
-        final var memberships = includeRemoved ? acspMembersRepository.fetchActiveAndRemovedMembershipsForUserId( userId ) : acspMembersRepository.fetchActiveMembershipForUserId( userId ).map( List::of ).orElse( List.of() );
-        LOGGER.debugContext( getXRequestId(), String.format( "Successfully fetched memberships for user with id %s", userId ), null );
+        debugContext( getXRequestId(), "Attempting to fetch memberships for user with id %s", userId );
+        final var memberships = includeRemoved ? fetchActiveAndRemovedMembershipDaos( userId, null ) : acspMembersRepository.fetchActiveMembershipForUserId( userId ).map( List::of ).orElse( List.of() );
+        debugContext( getXRequestId(), "Successfully fetched memberships for user with id %s", userId );
         return memberships;
     }
 
     @Transactional( readOnly = true )
     public AcspMembershipsList fetchMemberships( final User user, final boolean includeRemoved, final String acspNumber ) {
         final var loggingAcspNumber = Objects.nonNull( acspNumber ) ? String.format( " and Acsp %s", acspNumber ) : "";
-        LOGGER.debugContext( getXRequestId(), String.format( "Attempting to fetch memberships for user %s%s", Optional.of( user ).orElseThrow( () -> new NullPointerException( "User cannot be null" ) ).getEmail(), loggingAcspNumber ), null );
+        debugContext( getXRequestId(), "Attempting to fetch memberships for user %s%s", Optional.of( user ).orElseThrow( () -> new NullPointerException( "User cannot be null" ) ).getEmail(), loggingAcspNumber );
 
         final var membershipDaos = Optional
                 .ofNullable( acspNumber )
-                .map( any -> includeRemoved ? acspMembersRepository.fetchActiveAndRemovedMemberships( user.getUserId(), acspNumber ) : acspMembersRepository.fetchActiveMembership( user.getUserId(), acspNumber ).stream().toList() )
-                .orElseGet( () -> includeRemoved ? acspMembersRepository.fetchActiveAndRemovedMembershipsForUserId( user.getUserId() ) : acspMembersRepository.fetchActiveMembershipForUserId( user.getUserId() ).map( List::of ).orElse( List.of() ) );
+                .map( any -> includeRemoved ? fetchActiveAndRemovedMembershipDaos( user.getUserId(), acspNumber ) : acspMembersRepository.fetchActiveMembership( user.getUserId(), acspNumber ).stream().toList() )
+                .orElseGet( () -> includeRemoved ? fetchActiveAndRemovedMembershipDaos( user.getUserId(), null ) : acspMembersRepository.fetchActiveMembershipForUserId( user.getUserId() ).map( List::of ).orElse( List.of() ) );
 
         final var memberships = acspMembershipCollectionMappers.daoToDto( membershipDaos, user, null );
 
-        LOGGER.debugContext( getXRequestId(), String.format( "Successfully fetched memberships for user %s%s", user.getEmail(), loggingAcspNumber ), null );
+        debugContext( getXRequestId(), "Successfully fetched memberships for user %s%s", user.getEmail(), loggingAcspNumber );
         return new AcspMembershipsList().items( memberships );
     }
 
-    @Transactional( readOnly = true )
     public AcspMembershipsList fetchMembershipsForAcspNumberAndRole( final AcspProfile acspProfile, final String userRole, final boolean includeRemoved, final int pageIndex, final int itemsPerPage ) {
-        LOGGER.debugContext( getXRequestId(), "Attempting to fetch memberships", null );
+        return fetchMembershipsForAcspNumberAndRole( acspProfile, userRole, includeRemoved, pageIndex, itemsPerPage, countFreePagination );
+    }
 
-        final var pageable = PageRequest.of( pageIndex, itemsPerPage );
-        final var membershipDaos = Optional
-                .ofNullable( userRole )
-                .map( role -> includeRemoved ? acspMembersRepository.fetchActiveAndRemovedMembershipsForAcspNumberAndUserRole( acspProfile.getNumber(), role, pageable ) : acspMembersRepository.fetchActiveMembershipsForAcspNumberAndUserRole( acspProfile.getNumber(), role, pageable ) )
-                .orElseGet( () -> includeRemoved ? acspMembersRepository.fetchActiveAndRemovedMembershipsForAcspNumber( acspProfile.getNumber(), pageable ) : acspMembersRepository.fetchActiveMembershipsForAcspNumber( acspProfile.getNumber(), pageable ) );
-        final var memberships = acspMembershipCollectionMappers.daoToDto( membershipDaos, null, acspProfile );
+    public AcspMembershipsList fetchMembershipsForAcspNumberAndRole( final AcspProfile acspProfile, final String userRole, final boolean includeRemoved, final int pageIndex, final int itemsPerPage, final boolean countFree ) {
+        debugContext( getXRequestId(), "Attempting to fetch memberships (count_free=%b, reactive=%b)", countFree, reactiveReads );
+
+        final var sort = MembershipSort.fromParameter( getSort() ).orElseThrow( () -> new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "%s is not a supported sort order", getSort() ) ) );
+        final var pageable = PageRequest.of( pageIndex, itemsPerPage, Objects.isNull( userRole ) ? sort : MembershipSort.withinRole( sort ) );
+        final AcspMembershipsList memberships;
+        if ( includeRemoved && archiveEnabled ){
+            final var filter = membershipsFilter( null, acspProfile.getNumber(), userRole );
+            final var membershipDaos = withSecondaryReads( () -> acspMembersRepository.fetchMembershipsIncludingArchived( filter, pageable ) );
+            final long totalResults = withSecondaryReads( () -> countFree ? fetchCachedNumberOfMemberships( acspProfile.getNumber(), userRole, true ) : acspMembersRepository.fetchNumberOfMembershipsIncludingArchived( filter ) );
+            memberships = acspMembershipCollectionMappers.daoToDto( new PageImpl<>( membershipDaos, pageable, totalResults ), null, acspProfile );
+        } else if ( reactiveReads && countFree ){
+            final var membershipDaos = reactiveAcspMembersRepository.fetchMembershipSliceForAcspNumber( acspProfile.getNumber(), userRole, includeRemoved, pageable );
+            final var totalResults = fetchNumberOfMembershipsReactively( acspProfile.getNumber(), userRole, includeRemoved, true );
+            memberships = acspMembershipCollectionMappers.daoSliceToDto( membershipDaos, totalResults, pageable, acspProfile );
+        } else if ( reactiveReads ){
+            final var membershipDaos = fetchMembershipDaosReactively( acspProfile.getNumber(), userRole, includeRemoved, pageable );
+            final var totalResults = fetchNumberOfMembershipsReactively( acspProfile.getNumber(), userRole, includeRemoved, false );
+            memberships = acspMembershipCollectionMappers.daoToDto( membershipDaos, totalResults, pageable, acspProfile );
+        } else if ( countFree ){
+            final var membershipDaos = withSecondaryReads( () -> Optional
+                    .ofNullable( userRole )
+                    .map( role -> includeRemoved ? acspMembersRepository.fetchActiveAndRemovedMembershipSliceForAcspNumberAndUserRole( acspProfile.getNumber(), role, pageable ) : acspMembersRepository.fetchActiveMembershipSliceForAcspNumberAndUserRole( acspProfile.getNumber(), role, pageable ) )
+                    .orElseGet( () -> includeRemoved ? acspMembersRepository.fetchActiveAndRemovedMembershipSliceForAcspNumber( acspProfile.getNumber(), pageable ) : acspMembersRepository.fetchActiveMembershipSliceForAcspNumber( acspProfile.getNumber(), pageable ) ) );
+            final var totalResults = withSecondaryReads( () -> fetchCachedNumberOfMemberships( acspProfile.getNumber(), userRole, includeRemoved ) );
+            memberships = acspMembershipCollectionMappers.daoToDto( membershipDaos, totalResults, null, acspProfile );
+        } else {
+            final var membershipDaos = withSecondaryReads( () -> Optional
+                    .ofNullable( userRole )
+                    .map( role -> includeRemoved ? acspMembersRepository.fetchActiveAndRemovedMembershipsForAcspNumberAndUserRole( acspProfile.getNumber(), role, pageable ) : acspMembersRepository.fetchActiveMembershipsForAcspNumberAndUserRole( acspProfile.getNumber(), role, pageable ) )
+                    .orElseGet( () -> includeRemoved ? acspMembersRepository.fetchActiveAndRemovedMembershipsForAcspNumber( acspProfile.getNumber(), pageable ) : acspMembersRepository.fetchActiveMembershipsForAcspNumber( acspProfile.getNumber(), pageable ) ) );
+            memberships = acspMembershipCollectionMappers.daoToDto( membershipDaos, null, acspProfile );
+        }
 
-        LOGGER.debugContext( getXRequestId(), String.format( "Successfully retrieved members for Acsp %s", acspProfile.getNumber() ), null );
+        debugContext( getXRequestId(), "Successfully retrieved members for Acsp %s", acspProfile.getNumber() );
         return memberships;
     }
 
+    public Mono<AcspMembershipsList> fetchMembershipsForAcspNumberAndRoleReactively( final AcspProfile acspProfile, final String userRole, final boolean includeRemoved, final int pageIndex, final int itemsPerPage ) {
+        debugContext( getXRequestId(), "Attempting to fetch memberships reactively (count_free=%b)", countFreePagination );
+
+        if ( includeRemoved && archiveEnabled ){
+            return Mono.fromCallable( () -> fetchMembershipsForAcspNumberAndRole( acspProfile, userRole, true, pageIndex, itemsPerPage ) )
+                    .subscribeOn( Schedulers.boundedElastic() );
+        }
+
+        final var sort = MembershipSort.fromParameter( getSort() ).orElseThrow( () -> new BadRequestRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "%s is not a supported sort order", getSort() ) ) );
+        final var pageable = PageRequest.of( pageIndex, itemsPerPage, Objects.isNull( userRole ) ? sort : MembershipSort.withinRole( sort ) );
+        final var totalResults = fetchNumberOfMembershipsReactively( acspProfile.getNumber(), userRole, includeRemoved, countFreePagination );
+        final var memberships = countFreePagination
+                ? acspMembershipCollectionMappers.daoSliceToDtoReactively( reactiveAcspMembersRepository.fetchMembershipSliceForAcspNumber( acspProfile.getNumber(), userRole, includeRemoved, pageable ), totalResults, pageable, acspProfile )
+                : acspMembershipCollectionMappers.daoToDtoReactively( fetchMembershipDaosReactively( acspProfile.getNumber(), userRole, includeRemoved, pageable ), totalResults, pageable, acspProfile );
+
+        return memberships.doOnSuccess( membershipsList -> debugContext( getXRequestId(), "Successfully retrieved members for Acsp %s", acspProfile.getNumber() ) );
+    }
+
+    private Flux<AcspMembersDao> fetchMembershipDaosReactively( final String acspNumber, final String userRole, final boolean includeRemoved, final Pageable pageable ) {
+        return Optional
+                .ofNullable( userRole )
+                .map( role -> includeRemoved ? reactiveAcspMembersRepository.fetchActiveAndRemovedMembershipsForAcspNumberAndUserRole( acspNumber, role, pageable ) : reactiveAcspMembersRepository.fetchActiveMembershipsForAcspNumberAndUserRole( acspNumber, role, pageable ) )
+                .orElseGet( () -> includeRemoved ? reactiveAcspMembersRepository.fetchActiveAndRemovedMembershipsForAcspNumber( acspNumber, pageable ) : reactiveAcspMembersRepository.fetchActiveMembershipsForAcspNumber( acspNumber, pageable ) );
+    }
+
+    private Mono<Long> fetchNumberOfMembershipsReactively( final String acspNumber, final String userRole, final boolean includeRemoved, final boolean countFree ) {
+        if ( countFree ){
+            return Mono.fromSupplier( () -> fetchCachedNumberOfMemberships( acspNumber, userRole, includeRemoved ) )
+                    .subscribeOn( Schedulers.boundedElastic() );
+        }
+        return Optional
+                .ofNullable( userRole )
+                .map( role -> includeRemoved ? reactiveAcspMembersRepository.fetchNumberOfActiveAndRemovedMembershipsForAcspNumberAndUserRole( acspNumber, role ) : reactiveAcspMembersRepository.fetchNumberOfActiveMembershipsForAcspNumberAndUserRole( acspNumber, role ) )
+                .orElseGet( () -> includeRemoved ? reactiveAcspMembersRepository.fetchNumberOfActiveAndRemovedMembershipsForAcspNumber( acspNumber ) : reactiveAcspMembersRepository.fetchNumberOfActiveMembershipsForAcspNumber( acspNumber ) );
+    }
+
+    private long fetchCachedNumberOfMemberships( final String acspNumber, final String userRole, final boolean includeRemoved ) {
+        return cachedMembershipCounts.get( new CountKey( acspNumber, userRole, includeRemoved ), key -> {
+            debugContext( getXRequestId(), "Counting memberships for key %s", key );
+            final long count = includeRemoved && archiveEnabled ? acspMembersRepository.fetchNumberOfMembershipsIncludingArchived( membershipsFilter( null, acspNumber, userRole ) ) : Optional
+                    .ofNullable( userRole )
+                    .map( role -> includeRemoved ? acspMembersRepository.fetchNumberOfActiveAndRemovedMembershipsForAcspNumberAndUserRole( acspNumber, role ) : acspMembersRepository.fetchNumberOfActiveMembershipsForAcspNumberAndUserRole( acspNumber, role ) )
+                    .orElseGet( () -> includeRemoved ? acspMembersRepository.fetchNumberOfActiveAndRemovedMembershipsForAcspNumber( acspNumber ) : acspMembersRepository.fetchNumberOfActiveMembershipsForAcspNumber( acspNumber ) );
+            return count;
+        } );
+    }
+
+    private void evictCachedNumberOfMemberships( final String acspNumber ) {
+        cachedMembershipCounts.asMap().keySet().removeIf( key -> Objects.equals( key.acspNumber(), acspNumber ) );
+    }
+
     @Transactional( readOnly = true )
     public Optional<AcspMembersDao> fetchActiveAcspMembership( final String userId, final String acspNumber ) {
-        LOGGER.debugContext( getXRequestId(), String.format( "Attempting to fetch active membership for user %s and Acsp %s", userId, acspNumber ), null );
+        debugContext( getXRequestId(), "Attempting to fetch active membership for user %s and Acsp %s", userId, acspNumber );
         final var membership = acspMembersRepository.fetchActiveMembership( userId, acspNumber );
-        LOGGER.debugContext( getXRequestId(), String.format( "Successfully fetched active membership for user %s and Acsp %s", userId, acspNumber ), null );
+        debugContext( getXRequestId(), "Successfully fetched active membership for user %s and Acsp %s", userId, acspNumber );
         return membership;
     }
 
@@ -106,9 +248,17 @@ public class AcspMembersService {
         return acspMembersRepository.fetchNumberOfActiveOwners( acspNumber );
     }
 
+    @Transactional( readOnly = true )
+    public Optional<AcspMembershipAuthorisationData> fetchMembershipAuthorisationData( final String membershipId ) {
+        debugContext( getXRequestId(), "Attempting to fetch authorisation data for membership %s", membershipId );
+        final var authorisationData = acspMembersRepository.fetchMembershipAuthorisationData( membershipId );
+        debugContext( getXRequestId(), "Successfully fetched authorisation data for membership %s", membershipId );
+        return authorisationData;
+    }
+
     @Transactional
     public AcspMembership createMembership( final User user, final AcspProfile acspProfile, final UserRoleEnum userRole, final String addedByUserId ) {
-        LOGGER.debugContext( getXRequestId(), String.format( "Attempting to create membership for user %s and Acsp %s", user.getUserId(), acspProfile.getNumber() ), null );
+        debugContext( getXRequestId(), "Attempting to create membership for user %s and Acsp %s", user.getUserId(), acspProfile.getNumber() );
 
         final var now = LocalDateTime.now();
         final var proposedMembership = new AcspMembersDao()
@@ -119,12 +269,27 @@ public class AcspMembersService {
                 .addedAt( now )
                 .addedBy( addedByUserId )
                 .etag( generateEtag() )
-                .status( ACTIVE.getValue() );
-        final var completedMembership = acspMembersRepository.insert( proposedMembership );
+                .status( ACTIVE.getValue() )
+                .userEmail( user.getEmail() )
+                .userDisplayName( user.getDisplayName() )
+                .acspName( acspProfile.getName() )
+                .acspStatus( Optional.ofNullable( acspProfile.getStatus() ).map( Status::getValue ).orElse( null ) )
+                .snapshotRefreshedAt( now )
+                .snapshotRefreshAttemptedAt( now );
+        final AcspMembersDao completedMembership;
+        try {
+            completedMembership = acspMembersRepository.insert( proposedMembership );
+        } catch ( DuplicateKeyException exception ){
+            if ( Objects.isNull( exception.getMessage() ) || !exception.getMessage().contains( ACTIVE_MEMBERSHIP_INDEX ) ){
+                throw exception;
+            }
+            throw new BadRequestRuntimeException( ERROR_CODE_1002.getCode(), String.format( "%s user already has an active Acsp membership", user.getUserId() ) );
+        }
+        evictCachedNumberOfMemberships( acspProfile.getNumber() );
 
         final var membership = acspMembershipCollectionMappers.daoToDto( completedMembership, user, acspProfile );
 
-        LOGGER.debugContext( getXRequestId(), String.format( "Successfully created membership for user %s and Acsp %s", user.getUserId(), acspProfile.getNumber() ), null );
+        debugContext( getXRequestId(), "Successfully created membership for user %s and Acsp %s", user.getUserId(), acspProfile.getNumber() );
         return membership;
     }
 
@@ -132,26 +297,60 @@ public class AcspMembersService {
         return update -> when ? update.set( key, value.get() ) : update;
     }
 
+    private static boolean isTransientTransactionFailure( final DataAccessException exception ){
+        return exception.getMostSpecificCause() instanceof MongoException mongoException && mongoException.hasErrorLabel( MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL );
+    }
+
+    private static RuntimeException concurrentModification( final String membershipId ){
+        return Objects.nonNull( getIfMatch() )
+                ? new PreconditionFailedRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "Acsp Membership %s no longer matches etag %s", membershipId, getIfMatch() ) )
+                : new ConflictRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "Acsp Membership %s was modified or removed since it was read", membershipId ) );
+    }
+
+    @Transactional
+    public AcspMembersDao updateMembership( final AcspMembersDao targetMembership, final UserStatusEnum userStatus, final UserRoleEnum userRole, final String updatedBy ) {
+        return updateMembership( targetMembership, userStatus, userRole, updatedBy, false );
+    }
+
     @Transactional
-    public void updateMembership( final String membershipId, final UserStatusEnum userStatus, final UserRoleEnum userRole, final String updatedBy ) {
-        LOGGER.debugContext( getXRequestId(), String.format( "Attempting to update membership for id: %s", membershipId ), null );
-        if ( Objects.isNull( membershipId ) ) {
-            throw new InternalServerErrorRuntimeException( "Cannot update Acsp Membership", new Exception( "membershipId is null" ) );
+    public AcspMembersDao updateMembership( final AcspMembersDao targetMembership, final UserStatusEnum userStatus, final UserRoleEnum userRole, final String updatedBy, final boolean keepActiveOwner ) {
+        if ( Objects.isNull( targetMembership ) || Objects.isNull( targetMembership.getId() ) ) {
+            throw new InternalServerErrorRuntimeException( "Cannot update Acsp Membership", new Exception( "targetMembership is null" ) );
         }
 
+        final var membershipId = targetMembership.getId();
+        debugContext( getXRequestId(), "Attempting to update membership for id: %s", membershipId );
+
         final var isChangingRole = Objects.nonNull( userRole );
         final var isRemovingMembership = Objects.nonNull( userStatus );
-        final var numbRecordsUpdated = Optional.of( new Update() )
-                .map( enrichUpdate( true, "etag", GenerateEtagUtil::generateEtag ) )
-                .map( enrichUpdate( isChangingRole, "user_role", () -> userRole.getValue() ) )
-                .map( enrichUpdate( isRemovingMembership, "status", () -> userStatus.getValue() ) )
-                .map( enrichUpdate( isRemovingMembership, "removed_by", () -> updatedBy ) )
-                .map( enrichUpdate( isRemovingMembership, "removed_at", LocalDateTime::now ) )
-                .map( update -> acspMembersRepository.updateAcspMembership( membershipId, update ) )
-                .filter( numRecordsUpdated -> numRecordsUpdated != 0 )
-                .orElseThrow( () -> new InternalServerErrorRuntimeException( String.format( "Failed to update Acsp Membership %s", membershipId ), new Exception( String.format( "Failed to update Acsp Membership with id: %s", membershipId ) ) ) );
-
-        LOGGER.debugContext( getXRequestId(), String.format( "Successfully updated %d records (Acsp Membership with id: %s)", numbRecordsUpdated, membershipId ), null );
+        final var isRemovingOwner = keepActiveOwner && OWNER.equals( targetMembership.getUserRole() ) && ( isRemovingMembership || ( isChangingRole && !OWNER.equals( userRole ) ) );
+        final AcspMembersDao updatedMembership;
+        try {
+            if ( isRemovingOwner && acspMembersRepository.lockOtherActiveOwners( targetMembership ) == 0 ){
+                throw new ForbiddenRuntimeException( PLEASE_CHECK_THE_REQUEST_AND_TRY_AGAIN, String.format( "Acsp Membership %s is the last active owner of Acsp %s", membershipId, targetMembership.getAcspNumber() ) );
+            }
+            updatedMembership = Optional.of( new Update() )
+                    .map( enrichUpdate( true, "etag", GenerateEtagUtil::generateEtag ) )
+                    .map( enrichUpdate( isChangingRole, "user_role", () -> userRole.getValue() ) )
+                    .map( enrichUpdate( isChangingRole, "user_role_rank", () -> MembershipSort.roleRank( userRole.getValue() ) ) )
+                    .map( enrichUpdate( isRemovingMembership, "status", () -> userStatus.getValue() ) )
+                    .map( enrichUpdate( isRemovingMembership, "removed_by", () -> updatedBy ) )
+                    .map( enrichUpdate( isRemovingMembership, "removed_at", LocalDateTime::now ) )
+                    .flatMap( update -> acspMembersRepository.updateMembershipIfUnchanged( targetMembership, update ) )
+                    .orElseThrow( () -> concurrentModification( membershipId ) );
+        } catch ( DataAccessException exception ){
+            if ( !isTransientTransactionFailure( exception ) ){
+                throw exception;
+            }
+            throw concurrentModification( membershipId );
+        }
+
+        evictCachedNumberOfMemberships( targetMembership.getAcspNumber() );
+
+        debugContext( getXRequestId(), "Successfully updated Acsp Membership with id: %s", membershipId );
+        return updatedMembership;
     }
 
+    private record CountKey( String acspNumber, String userRole, boolean includeRemoved ) {}
+
 }
@@ -1,7 +1,7 @@
 package uk.gov.companieshouse.acsp.manage.users.service;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
-import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.infoContext;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
 import static uk.gov.companieshouse.acsp.manage.users.utils.ParsingUtil.parseJsonTo;
 
@@ -40,14 +40,18 @@ public class AcspProfileService {
                     }
                     throw new InternalServerErrorRuntimeException( "Failed to retrieve Acsp Profile", (Exception) throwable );
                 } )
-                .doOnSubscribe( onSubscribe -> LOGGER.infoContext( xRequestId, String.format( "Sending request to acsp-profile-data-api: GET /authorised-corporate-service-providers/{acsp_number}. Attempting to retrieve acsp: %s", acspNumber ), null ) )
-                .doFinally( signalType -> LOGGER.infoContext( xRequestId, String.format( "Finished request to acsp-profile-data-api for acsp: %s.", acspNumber ), null ) );
+                .doOnSubscribe( onSubscribe -> infoContext( xRequestId, "Sending request to acsp-profile-data-api: GET /authorised-corporate-service-providers/{acsp_number}. Attempting to retrieve acsp: %s", acspNumber ) )
+                .doFinally( signalType -> infoContext( xRequestId, "Finished request to acsp-profile-data-api for acsp: %s.", acspNumber ) );
     }
 
     public AcspProfile fetchAcspProfile( final String acspNumber ){
         return toFetchAcspProfileRequest( acspNumber, getXRequestId() ).block( Duration.ofSeconds( 20L ) );
     }
 
+    public Mono<AcspProfile> fetchAcspProfileReactively( final String acspNumber ){
+        return toFetchAcspProfileRequest( acspNumber, getXRequestId() );
+    }
+
     public Map<String, AcspProfile> fetchAcspProfiles( final Stream<AcspMembersDao> memberships ) {
         final var xRequestId = getXRequestId();
         return Flux.fromStream( memberships )
@@ -0,0 +1,182 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import uk.gov.companieshouse.acsp.manage.users.model.email.BaseEmailData;
+import uk.gov.companieshouse.acsp.manage.users.model.enums.MessageType;
+import uk.gov.companieshouse.email_producer.EmailProducer;
+
+@Component
+public class EmailDispatcher implements DisposableBean {
+
+    private static final String SEND_LATENCY = "acsp.members.email.send";
+    private static final String SEND_FAILURES = "acsp.members.email.send.failures";
+    private static final String BATCH_SIZE = "acsp.members.email.batch.size";
+    private static final String QUEUE_DEPTH = "acsp.members.email.queue.depth";
+    private static final String QUEUE_OVERFLOW = "acsp.members.email.queue.overflow";
+    private static final String MESSAGE_TYPE = "message_type";
+    private static final String OUTCOME = "outcome";
+
+    private final EmailProducer emailProducer;
+    private final Scheduler emailScheduler;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Map<String, SendMeters> sendMeters = new ConcurrentHashMap<>();
+    private final Map<MessageType, AtomicInteger> queueDepths = new EnumMap<>( MessageType.class );
+    private final Map<MessageType, DistributionSummary> batchSizes = new EnumMap<>( MessageType.class );
+    private final Map<MessageType, Counter> queueOverflows = new EnumMap<>( MessageType.class );
+    private final BlockingQueue<QueuedEmail> queue;
+    private final ExecutorService drainExecutor;
+
+    public EmailDispatcher( final EmailProducer emailProducer, @Qualifier( "emailScheduler" ) final Scheduler emailScheduler, final MeterRegistry meterRegistry, @Value( "${acsp.members.email.batching.batch-size:1}" ) final int batchSize, @Value( "${acsp.members.email.batching.linger-ms:0}" ) final long lingerMs, @Value( "${acsp.members.email.batching.queue-capacity:1000}" ) final int queueCapacity ) {
+        this.emailProducer = emailProducer;
+        this.emailScheduler = emailScheduler;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos( lingerMs );
+        for ( final var messageType: MessageType.values() ){
+            final var tags = Tags.of( MESSAGE_TYPE, messageType.getValue() );
+            sendMetersFor( messageType.getValue() );
+            queueDepths.put( messageType, meterRegistry.gauge( QUEUE_DEPTH, tags, new AtomicInteger() ) );
+            batchSizes.put( messageType, DistributionSummary.builder( BATCH_SIZE ).tags( tags ).register( meterRegistry ) );
+            queueOverflows.put( messageType, Counter.builder( QUEUE_OVERFLOW ).tags( tags ).register( meterRegistry ) );
+        }
+
+        if ( batchSize > 1 && lingerMs > 0 ){
+            queue = new ArrayBlockingQueue<>( queueCapacity );
+            drainExecutor = Executors.newSingleThreadExecutor( runnable -> {
+                final var thread = new Thread( runnable, "email-batcher" );
+                thread.setDaemon( true );
+                return thread;
+            } );
+            drainExecutor.execute( this::drain );
+        } else {
+            queue = null;
+            drainExecutor = null;
+        }
+    }
+
+    private SendMeters sendMetersFor( final String messageType ){
+        return sendMeters.computeIfAbsent( messageType, type -> new SendMeters(
+                Timer.builder( SEND_LATENCY ).tags( MESSAGE_TYPE, type, OUTCOME, "success" ).register( meterRegistry ),
+                Timer.builder( SEND_LATENCY ).tags( MESSAGE_TYPE, type, OUTCOME, "failure" ).register( meterRegistry ),
+                Counter.builder( SEND_FAILURES ).tag( MESSAGE_TYPE, type ).register( meterRegistry ) ) );
+    }
+
+    public Mono<Void> dispatch( final BaseEmailData<?> emailData, final MessageType messageType ){
+        if ( Objects.isNull( queue ) ){
+            return Mono.<Void>fromRunnable( () -> send( emailData, messageType.getValue() ) )
+                    .subscribeOn( emailScheduler );
+        }
+        return Mono.defer( () -> {
+            final var email = new QueuedEmail( emailData, messageType, Sinks.one() );
+            if ( !queue.offer( email ) ){
+                queueOverflows.get( messageType ).increment();
+                return Mono.error( new RejectedExecutionException( String.format( "Email queue is full, rejected %s email", messageType.getValue() ) ) );
+            }
+            queueDepths.get( messageType ).incrementAndGet();
+            return email.result().asMono();
+        } );
+    }
+
+    public void send( final BaseEmailData<?> emailData, final String messageType ){
+        final var meters = sendMetersFor( messageType );
+        final var sample = Timer.start( meterRegistry );
+        try {
+            emailProducer.sendEmail( emailData, messageType );
+            sample.stop( meters.success() );
+        } catch ( RuntimeException exception ){
+            sample.stop( meters.failure() );
+            meters.failures().increment();
+            throw exception;
+        }
+    }
+
+    private void drain(){
+        final var batch = new ArrayList<QueuedEmail>( batchSize );
+        while ( !Thread.currentThread().isInterrupted() ){
+            try {
+                batch.add( queue.take() );
+                final var deadline = System.nanoTime() + lingerNanos;
+                while ( batch.size() < batchSize ){
+                    final var next = queue.poll( Math.max( 0L, deadline - System.nanoTime() ), TimeUnit.NANOSECONDS );
+                    if ( Objects.isNull( next ) ){
+                        break;
+                    }
+                    batch.add( next );
+                }
+                sendBatch( batch );
+            } catch ( InterruptedException exception ){
+                Thread.currentThread().interrupt();
+            } catch ( RuntimeException exception ){
+                LOGGER.errorContext( "email-batcher", exception, null );
+            } finally {
+                batch.forEach( email -> email.result().tryEmitError( new RejectedExecutionException( "Email dispatcher stopped before the email was sent" ) ) );
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch( final List<QueuedEmail> batch ){
+        final var messageTypeCounts = new EnumMap<MessageType, Integer>( MessageType.class );
+        for ( final var email: batch ){
+            queueDepths.get( email.messageType() ).decrementAndGet();
+            messageTypeCounts.merge( email.messageType(), 1, Integer::sum );
+        }
+        messageTypeCounts.forEach( ( messageType, count ) -> batchSizes.get( messageType ).record( count ) );
+
+        for ( final var email: batch ){
+            try {
+                send( email.emailData(), email.messageType().getValue() );
+                email.result().tryEmitEmpty();
+            } catch ( RuntimeException exception ){
+                email.result().tryEmitError( exception );
+            }
+        }
+    }
+
+    @Override
+    public void destroy(){
+        if ( Objects.isNull( drainExecutor ) ){
+            return;
+        }
+        drainExecutor.shutdownNow();
+        final var unsent = new ArrayList<QueuedEmail>();
+        queue.drainTo( unsent );
+        unsent.forEach( email -> {
+            queueDepths.get( email.messageType() ).decrementAndGet();
+            email.result().tryEmitError( new RejectedExecutionException( "Email dispatcher stopped before the email was sent" ) );
+        } );
+    }
+
+    private record SendMeters( Timer success, Timer failure, Counter failures ) {}
+
+    private record QueuedEmail( BaseEmailData<?> emailData, MessageType messageType, Sinks.One<Void> result ) {}
+
+}
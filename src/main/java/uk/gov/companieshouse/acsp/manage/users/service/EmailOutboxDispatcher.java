@@ -0,0 +1,91 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.EmailOutboxStatus.FAILED;
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.EmailOutboxStatus.PENDING;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.debugContext;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.infoContext;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.companieshouse.acsp.manage.users.model.EmailOutboxDao;
+import uk.gov.companieshouse.acsp.manage.users.repositories.EmailOutboxRepository;
+
+@Service
+@ConditionalOnProperty( name = "acsp.members.email-outbox.enabled", havingValue = "true" )
+public class EmailOutboxDispatcher {
+
+    @Value( "${acsp.members.email-outbox.batch-size:100}" )
+    private int batchSize;
+
+    @Value( "${acsp.members.email-outbox.max-attempts:5}" )
+    private int maxAttempts;
+
+    @Value( "${acsp.members.email-outbox.retry-backoff-ms:30000}" )
+    private long retryBackoffMs;
+
+    @Value( "${acsp.members.email-outbox.lease-ms:60000}" )
+    private long leaseMs;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailDispatcher emailDispatcher;
+
+    public EmailOutboxDispatcher( final EmailOutboxRepository emailOutboxRepository, final EmailDispatcher emailDispatcher ) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailDispatcher = emailDispatcher;
+    }
+
+    @Scheduled( fixedDelayString = "${acsp.members.email-outbox.interval-ms:1000}" )
+    public void dispatchPendingEmails(){
+        final var now = LocalDateTime.now();
+        final var entries = emailOutboxRepository.fetchDispatchableEntries( now, PageRequest.of( 0, batchSize, Sort.by( "created_at" ) ) );
+
+        int numberOfSentEmails = 0;
+        for ( final var entry: entries ){
+            if ( emailOutboxRepository.claimEntry( entry.getId(), now, now.plus( leaseMs, ChronoUnit.MILLIS ) ) == 0 ){
+                continue;
+            }
+            if ( dispatch( entry ) ){
+                numberOfSentEmails++;
+            }
+        }
+
+        if ( !entries.isEmpty() ){
+            debugContext( getXRequestId(), "Dispatched %d of %d outbox emails", numberOfSentEmails, entries.size() );
+        }
+    }
+
+    private boolean dispatch( final EmailOutboxDao entry ){
+        try {
+            emailDispatcher.send( entry.getEmailData(), entry.getMessageType() );
+            emailOutboxRepository.markSent( entry.getId(), LocalDateTime.now() );
+            infoContext( entry.getXRequestId(), entry.getEmailData().toNotificationSentLoggingMessage() );
+            return true;
+        } catch ( RuntimeException exception ){
+            final var attempts = entry.getAttempts() + 1;
+            final var status = attempts >= maxAttempts ? FAILED : PENDING;
+            final var nextAttemptAt = LocalDateTime.now().plus( retryBackoffMs * ( 1L << Math.min( attempts - 1, 10 ) ), ChronoUnit.MILLIS );
+            markUnsent( entry, status.getValue(), nextAttemptAt, exception.getMessage() );
+            LOGGER.errorContext( entry.getXRequestId(), new Exception( entry.getEmailData().toNotificationSendingFailureLoggingMessage() ), null );
+            return false;
+        }
+    }
+
+    private void markUnsent( final EmailOutboxDao entry, final String status, final LocalDateTime nextAttemptAt, final String lastError ){
+        try {
+            emailOutboxRepository.markUnsent( entry.getId(), status, nextAttemptAt, lastError );
+        } catch ( DuplicateKeyException exception ){
+            emailOutboxRepository.markUnsent( entry.getId(), FAILED.getValue(), nextAttemptAt, String.format( "Superseded by a newer pending email for %s after: %s", entry.getCoalescingKey(), lastError ) );
+            debugContext( entry.getXRequestId(), "Outbox email %s was superseded by a newer pending email for %s", entry.getId(), entry.getCoalescingKey() );
+        }
+    }
+
+}
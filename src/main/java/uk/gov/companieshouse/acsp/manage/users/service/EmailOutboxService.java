@@ -0,0 +1,114 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.EmailOutboxStatus.PENDING;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.debugContext;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+
+import com.mongodb.client.result.UpdateResult;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.companieshouse.acsp.manage.users.model.EmailOutboxDao;
+import uk.gov.companieshouse.acsp.manage.users.model.email.BaseEmailData;
+import uk.gov.companieshouse.acsp.manage.users.model.enums.MessageType;
+
+@Service
+public class EmailOutboxService {
+
+    private static final String COALESCING_INDEX = "coalescing_key_pending_unique";
+    private static final int MAX_TRANSACTION_ATTEMPTS = 3;
+
+    @Value( "${acsp.members.email-outbox.enabled:false}" )
+    private boolean outboxEnabled;
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public EmailOutboxService( final MongoTemplate mongoTemplate, final TransactionTemplate transactionTemplate ) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public boolean isEnabled(){
+        return outboxEnabled;
+    }
+
+    public <T> T withinTransaction( final Supplier<T> membershipChange ){
+        if ( !outboxEnabled ){
+            return membershipChange.get();
+        }
+        for ( int attempt = 1; ; attempt++ ){
+            try {
+                return transactionTemplate.execute( status -> membershipChange.get() );
+            } catch ( DuplicateKeyException exception ){
+                if ( attempt >= MAX_TRANSACTION_ATTEMPTS || !isCoalescingConflict( exception ) ){
+                    throw exception;
+                }
+                debugContext( getXRequestId(), "Retrying transaction after concurrent coalesced outbox insert (attempt %d)", attempt );
+            }
+        }
+    }
+
+    private static boolean isCoalescingConflict( final DuplicateKeyException exception ){
+        return Objects.nonNull( exception.getMessage() ) && exception.getMessage().contains( COALESCING_INDEX );
+    }
+
+    public void record( final BaseEmailData<?> emailData, final MessageType messageType ){
+        final var xRequestId = getXRequestId();
+        final var id = UUID.nameUUIDFromBytes( String.join( "|", xRequestId, messageType.getValue(), emailData.toString() ).getBytes( UTF_8 ) ).toString();
+        final var now = LocalDateTime.now();
+
+        final var update = new Update()
+                .setOnInsert( "message_type", messageType.getValue() )
+                .setOnInsert( "email_data", emailData )
+                .setOnInsert( "status", PENDING.getValue() )
+                .setOnInsert( "attempts", 0 )
+                .setOnInsert( "next_attempt_at", now )
+                .setOnInsert( "x_request_id", xRequestId )
+                .setOnInsert( "created_at", now );
+        final var result = mongoTemplate.upsert( Query.query( Criteria.where( "_id" ).is( id ) ), update, EmailOutboxDao.class );
+
+        debugContext( xRequestId, Objects.isNull( result.getUpsertedId() ) ? "Email %s was already recorded in the outbox" : "Recorded email %s in the outbox", id );
+    }
+
+    public void record( final BaseEmailData<?> emailData, final MessageType messageType, final String coalescingKey, final long coalescingWindowMs ){
+        final var xRequestId = getXRequestId();
+        final var now = LocalDateTime.now();
+
+        final var update = new Update()
+                .set( "message_type", messageType.getValue() )
+                .set( "email_data", emailData )
+                .set( "x_request_id", xRequestId )
+                .setOnInsert( "coalescing_key", coalescingKey )
+                .setOnInsert( "status", PENDING.getValue() )
+                .setOnInsert( "attempts", 0 )
+                .setOnInsert( "next_attempt_at", now.plus( coalescingWindowMs, ChronoUnit.MILLIS ) )
+                .setOnInsert( "created_at", now );
+        final var query = Query.query( Criteria.where( "coalescing_key" ).is( coalescingKey ).and( "status" ).is( PENDING.getValue() ) );
+
+        UpdateResult result;
+        try {
+            result = mongoTemplate.upsert( query, update, EmailOutboxDao.class );
+        } catch ( DuplicateKeyException exception ){
+            if ( TransactionSynchronizationManager.isActualTransactionActive() || !isCoalescingConflict( exception ) ){
+                throw exception;
+            }
+            result = mongoTemplate.upsert( query, update, EmailOutboxDao.class );
+        }
+
+        debugContext( xRequestId, Objects.isNull( result.getUpsertedId() ) ? "Coalesced email %s into a pending outbox entry" : "Recorded email %s in the outbox", coalescingKey );
+    }
+
+}
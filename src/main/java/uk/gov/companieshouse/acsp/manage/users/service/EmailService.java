@@ -13,7 +13,6 @@ import uk.gov.companieshouse.acsp.manage.users.model.email.YourRoleAtAcspHasChan
 import uk.gov.companieshouse.acsp.manage.users.model.email.YourRoleAtAcspHasChanged.YourRoleAtAcspHasChangedToStandardEmailData;
 import uk.gov.companieshouse.acsp.manage.users.model.enums.MessageType;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
-import uk.gov.companieshouse.email_producer.EmailProducer;
 import java.util.Objects;
 
 import static uk.gov.companieshouse.acsp.manage.users.model.enums.MessageType.*;
@@ -26,23 +25,32 @@ public class EmailService {
     @Value( "${signin.url}" )
     private String signinUrl;
 
-    private final EmailProducer emailProducer;
+    @Value( "${acsp.members.email.role-change-coalescing-window-ms:0}" )
+    private long roleChangeCoalescingWindowMs;
+
+    private final EmailDispatcher emailDispatcher;
+    private final EmailOutboxService emailOutboxService;
 
     @Autowired
-    public EmailService( final EmailProducer emailProducer ) {
-        this.emailProducer = emailProducer;
+    public EmailService( final EmailDispatcher emailDispatcher, final EmailOutboxService emailOutboxService ) {
+        this.emailDispatcher = emailDispatcher;
+        this.emailOutboxService = emailOutboxService;
     }
 
     private Mono<Void> sendEmail( final BaseEmailData<?> emailData, final MessageType messageType ){
-        final var xRequestId = getXRequestId();
+        if ( emailOutboxService.isEnabled() ){
+            emailOutboxService.record( emailData, messageType );
+            return Mono.empty();
+        }
         return Mono.just( emailData )
-                .doOnNext( email -> emailProducer.sendEmail( email, messageType.getValue() ) )
-                .doOnNext( email -> LOGGER.infoContext( xRequestId, email.toNotificationSentLoggingMessage(), null ) )
+                .flatMap( email -> emailDispatcher.dispatch( email, messageType ).thenReturn( email ) )
+                .doOnNext( email -> LOGGER.infoContext( getXRequestId(), email.toNotificationSentLoggingMessage(), null ) )
                 .onErrorMap( throwable -> {
-                    LOGGER.errorContext( xRequestId, new Exception( emailData.toNotificationSendingFailureLoggingMessage() ), null );
+                    LOGGER.errorContext( getXRequestId(), new Exception( emailData.toNotificationSendingFailureLoggingMessage() ), null );
                     return throwable;
                 } )
-                .then();
+                .then()
+                .contextCapture();
     }
 
     public Mono<Void> sendConfirmYouAreAMemberEmail( final String recipientEmail, final String addedBy, final String acspName, final UserRoleEnum role ){
@@ -76,6 +84,10 @@ public class EmailService {
     }
 
     public Mono<Void> sendYourRoleAtAcspHasChangedEmail( final String recipientEmail, final String editedBy, final String acspName, final UserRoleEnum newRole ){
+        return sendYourRoleAtAcspHasChangedEmail( null, recipientEmail, editedBy, acspName, newRole );
+    }
+
+    public Mono<Void> sendYourRoleAtAcspHasChangedEmail( final String membershipId, final String recipientEmail, final String editedBy, final String acspName, final UserRoleEnum newRole ){
         final var xRequestId = getXRequestId();
         if ( Objects.isNull( recipientEmail ) || Objects.isNull( editedBy ) || Objects.isNull( acspName ) || Objects.isNull( newRole ) ){
             LOGGER.errorContext( xRequestId, new Exception( "Attempted to send your-role-at-acsp-has-changed email, with null recipientEmail, null editedBy, null acspName, or null newRole." ), null );
@@ -103,7 +115,11 @@ public class EmailService {
             }
         };
 
-        return sendEmail( emailData, messageType );
+        if ( Objects.isNull( membershipId ) || roleChangeCoalescingWindowMs <= 0 || !emailOutboxService.isEnabled() ){
+            return sendEmail( emailData, messageType );
+        }
+        emailOutboxService.record( emailData, messageType, String.format( "%s:%s", membershipId, recipientEmail ), roleChangeCoalescingWindowMs );
+        return Mono.empty();
     }
 
 }
@@ -0,0 +1,51 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.debugContext;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.companieshouse.acsp.manage.users.repositories.AcspMembersRepository;
+
+@Service
+@ConditionalOnProperty( name = "acsp.members.archive.enabled", havingValue = "true" )
+public class MembershipArchiver {
+
+    @Value( "${acsp.members.archive.removed-for-days:90}" )
+    private long removedForDays;
+
+    @Value( "${acsp.members.archive.batch-size:500}" )
+    private int batchSize;
+
+    private final AcspMembersRepository acspMembersRepository;
+
+    public MembershipArchiver( final AcspMembersRepository acspMembersRepository ) {
+        this.acspMembersRepository = acspMembersRepository;
+    }
+
+    @EventListener( ApplicationReadyEvent.class )
+    public void ensureArchiveIndexes(){
+        acspMembersRepository.ensureArchiveIndexes();
+    }
+
+    @Scheduled( fixedDelayString = "${acsp.members.archive.interval-ms:3600000}" )
+    public void archiveRemovedMemberships(){
+        final var removedBefore = LocalDateTime.now().minusDays( removedForDays );
+        debugContext( getXRequestId(), "Attempting to archive memberships removed before %s", removedBefore );
+
+        int numberOfArchivedMemberships = 0;
+        int archivedInBatch;
+        do {
+            archivedInBatch = acspMembersRepository.archiveMembershipsRemovedBefore( removedBefore, batchSize );
+            numberOfArchivedMemberships += archivedInBatch;
+        } while ( archivedInBatch >= batchSize );
+
+        debugContext( getXRequestId(), "Successfully archived %d memberships", numberOfArchivedMemberships );
+    }
+
+}
@@ -0,0 +1,98 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.debugContext;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.repositories.AcspMembersRepository;
+import uk.gov.companieshouse.api.accounts.user.model.User;
+import uk.gov.companieshouse.api.acspprofile.AcspProfile;
+import uk.gov.companieshouse.api.acspprofile.Status;
+
+@Service
+@ConditionalOnProperty( name = "acsp.members.snapshot.refresh.enabled", havingValue = "true" )
+public class MembershipSnapshotRefresher {
+
+    private static final Duration REFRESH_TIMEOUT = Duration.ofSeconds( 60L );
+
+    @Value( "${acsp.members.snapshot.staleness-seconds:3600}" )
+    private long snapshotStalenessSeconds;
+
+    @Value( "${acsp.members.snapshot.refresh.batch-size:500}" )
+    private int batchSize;
+
+    private final AcspMembersRepository acspMembersRepository;
+    private final UsersService usersService;
+    private final AcspProfileService acspProfileService;
+
+    public MembershipSnapshotRefresher( final AcspMembersRepository acspMembersRepository, final UsersService usersService, final AcspProfileService acspProfileService ) {
+        this.acspMembersRepository = acspMembersRepository;
+        this.usersService = usersService;
+        this.acspProfileService = acspProfileService;
+    }
+
+    private Mono<Map<String, User>> fetchUsers( final List<AcspMembersDao> memberships ){
+        return usersService.fetchUserDetails( Flux.fromIterable( memberships ) )
+                .onErrorContinue( ( throwable, userId ) -> debugContext( getXRequestId(), "Unable to refresh snapshot for user %s", userId ) )
+                .collectMap( User::getUserId );
+    }
+
+    private Mono<Map<String, AcspProfile>> fetchAcspProfiles( final List<AcspMembersDao> memberships ){
+        return Flux.fromIterable( memberships )
+                .map( AcspMembersDao::getAcspNumber )
+                .distinct()
+                .flatMap( acspNumber -> acspProfileService.fetchAcspProfileReactively( acspNumber )
+                        .onErrorResume( throwable -> {
+                            debugContext( getXRequestId(), "Unable to refresh snapshot for Acsp %s", acspNumber );
+                            return Mono.empty();
+                        } ) )
+                .collectMap( AcspProfile::getNumber );
+    }
+
+    @Scheduled( fixedDelayString = "${acsp.members.snapshot.refresh.interval-ms:60000}" )
+    public void refreshStaleSnapshots(){
+        final var refreshedBefore = LocalDateTime.now().minusSeconds( snapshotStalenessSeconds / 2 );
+        final var memberships = acspMembersRepository.fetchMembershipsWithStaleSnapshot( refreshedBefore, batchSize );
+        if ( memberships.isEmpty() ){
+            return;
+        }
+
+        debugContext( getXRequestId(), "Attempting to refresh snapshots for %d memberships", memberships.size() );
+
+        final var snapshotData = Mono.zip( fetchUsers( memberships ), fetchAcspProfiles( memberships ) ).block( REFRESH_TIMEOUT );
+        final var users = snapshotData.getT1();
+        final var acspProfiles = snapshotData.getT2();
+        final var now = LocalDateTime.now();
+        var numberOfUnresolvedMemberships = 0;
+        for ( final AcspMembersDao membership: memberships ){
+            membership.snapshotRefreshAttemptedAt( now );
+            final var user = users.get( membership.getUserId() );
+            final var acspProfile = acspProfiles.get( membership.getAcspNumber() );
+            if ( Objects.isNull( user ) || Objects.isNull( acspProfile ) ){
+                numberOfUnresolvedMemberships++;
+                continue;
+            }
+            membership.userEmail( user.getEmail() )
+                    .userDisplayName( user.getDisplayName() )
+                    .acspName( acspProfile.getName() )
+                    .acspStatus( Optional.ofNullable( acspProfile.getStatus() ).map( Status::getValue ).orElse( null ) )
+                    .snapshotRefreshedAt( now );
+        }
+
+        acspMembersRepository.updateMembershipSnapshots( memberships );
+        debugContext( getXRequestId(), "Successfully refreshed snapshots for %d of %d memberships", memberships.size() - numberOfUnresolvedMemberships, memberships.size() );
+    }
+
+}
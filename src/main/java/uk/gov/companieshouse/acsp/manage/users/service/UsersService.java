@@ -1,7 +1,7 @@
 package uk.gov.companieshouse.acsp.manage.users.service;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
-import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.LOGGER;
+import static uk.gov.companieshouse.acsp.manage.users.utils.LoggingUtil.infoContext;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
 import static uk.gov.companieshouse.acsp.manage.users.utils.ParsingUtil.parseJsonTo;
 import static uk.gov.companieshouse.acsp.manage.users.utils.StaticPropertyUtil.APPLICATION_NAMESPACE;
@@ -46,8 +46,8 @@ public class UsersService {
                     }
                     throw new InternalServerErrorRuntimeException( "Failed to retrieve user details", (Exception) throwable );
                 } )
-                .doOnSubscribe( onSubscribe -> LOGGER.infoContext( xRequestId, String.format( "Sending request to accounts-user-api: GET /users/{user_id}. Attempting to retrieve user: %s", userId ), null ) )
-                .doFinally( signalType -> LOGGER.infoContext( xRequestId, String.format( "Finished request to accounts-user-api for user: %s", userId ), null ) );
+                .doOnSubscribe( onSubscribe -> infoContext( xRequestId, "Sending request to accounts-user-api: GET /users/{user_id}. Attempting to retrieve user: %s", userId ) )
+                .doFinally( signalType -> infoContext( xRequestId, "Finished request to accounts-user-api for user: %s", userId ) );
     }
 
     public User fetchUserDetails( final String userId ){
@@ -64,6 +64,14 @@ public class UsersService {
                 .block( Duration.ofSeconds( 20L ) );
     }
 
+    public Flux<User> fetchUserDetails( final Flux<AcspMembersDao> memberships ){
+        final var xRequestId = getXRequestId();
+        return memberships
+                .map( AcspMembersDao::getUserId )
+                .distinct()
+                .flatMap( userId -> toFetchUserDetailsRequest( userId, xRequestId ) );
+    }
+
     public UsersList searchUserDetails( final List<String> emails ) {
         final var xRequestId = getXRequestId();
         return usersWebClient.get()
@@ -77,8 +85,8 @@ public class UsersService {
                 .bodyToMono( String.class )
                 .map( parseJsonTo( UsersList.class ) )
                 .onErrorMap( throwable -> { throw new InternalServerErrorRuntimeException( "Failed to retrieve user details", (Exception) throwable ); } )
-                .doOnSubscribe( onSubscribe -> LOGGER.infoContext( xRequestId, String.format( "Sending request to accounts-user-api: GET /users/search. Attempting to retrieve users: %s", String.join( ", ", emails ) ), null ) )
-                .doFinally( signalType -> LOGGER.infoContext( xRequestId, String.format( "Finished request to accounts-user-api for users: %s", String.join( ", ", emails ) ), null ) )
+                .doOnSubscribe( onSubscribe -> infoContext( xRequestId, "Sending request to accounts-user-api: GET /users/search. Attempting to retrieve users: %s", String.join( ", ", emails ) ) )
+                .doFinally( signalType -> infoContext( xRequestId, "Finished request to accounts-user-api for users: %s", String.join( ", ", emails ) ) )
                 .block( Duration.ofSeconds( 20L ) );
     }
 
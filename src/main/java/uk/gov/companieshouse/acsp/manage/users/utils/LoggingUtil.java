@@ -1,5 +1,9 @@
 package uk.gov.companieshouse.acsp.manage.users.utils;
 
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import uk.gov.companieshouse.logging.Logger;
 import uk.gov.companieshouse.logging.LoggerFactory;
 
@@ -7,4 +11,108 @@ public final class LoggingUtil {
 
     public static final Logger LOGGER = LoggerFactory.getLogger( StaticPropertyUtil.APPLICATION_NAMESPACE );
 
+    private static volatile org.slf4j.Logger levelLogger;
+
+    private static final ConcurrentHashMap<String, AtomicLong> samplingCounters = new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<String, RateWindow> rateWindows = new ConcurrentHashMap<>();
+
+    private static final String CLIENT_ERRORS = "client-errors";
+    private static final int CLIENT_ERROR_LOGS_PER_SECOND = 20;
+
+    private record RateWindow( AtomicLong second, AtomicInteger count ) {}
+
+    private LoggingUtil(){}
+
+    private static org.slf4j.Logger levelLogger(){
+        if ( Objects.isNull( levelLogger ) ){
+            final var namespace = StaticPropertyUtil.APPLICATION_NAMESPACE;
+            if ( Objects.isNull( namespace ) ){
+                return org.slf4j.LoggerFactory.getLogger( org.slf4j.Logger.ROOT_LOGGER_NAME );
+            }
+            levelLogger = org.slf4j.LoggerFactory.getLogger( namespace );
+        }
+        return levelLogger;
+    }
+
+    public static boolean isDebugEnabled(){
+        return levelLogger().isDebugEnabled();
+    }
+
+    public static boolean isInfoEnabled(){
+        return levelLogger().isInfoEnabled();
+    }
+
+    public static void debugContext( final String xRequestId, final String message ){
+        if ( isDebugEnabled() ){
+            LOGGER.debugContext( xRequestId, message, null );
+        }
+    }
+
+    public static void debugContext( final String xRequestId, final String format, final Object argument ){
+        if ( isDebugEnabled() ){
+            LOGGER.debugContext( xRequestId, String.format( format, argument ), null );
+        }
+    }
+
+    public static void debugContext( final String xRequestId, final String format, final Object firstArgument, final Object secondArgument ){
+        if ( isDebugEnabled() ){
+            LOGGER.debugContext( xRequestId, String.format( format, firstArgument, secondArgument ), null );
+        }
+    }
+
+    public static void debugContext( final String xRequestId, final String format, final Object... arguments ){
+        if ( isDebugEnabled() ){
+            LOGGER.debugContext( xRequestId, String.format( format, arguments ), null );
+        }
+    }
+
+    public static void infoContext( final String xRequestId, final String message ){
+        if ( isInfoEnabled() ){
+            LOGGER.infoContext( xRequestId, message, null );
+        }
+    }
+
+    public static void infoContext( final String xRequestId, final String format, final Object argument ){
+        if ( isInfoEnabled() ){
+            LOGGER.infoContext( xRequestId, String.format( format, argument ), null );
+        }
+    }
+
+    public static void infoContext( final String xRequestId, final String format, final Object firstArgument, final Object secondArgument ){
+        if ( isInfoEnabled() ){
+            LOGGER.infoContext( xRequestId, String.format( format, firstArgument, secondArgument ), null );
+        }
+    }
+
+    public static void infoContext( final String xRequestId, final String format, final Object... arguments ){
+        if ( isInfoEnabled() ){
+            LOGGER.infoContext( xRequestId, String.format( format, arguments ), null );
+        }
+    }
+
+    static boolean isSampled( final String messageType, final int sampleRate ){
+        return sampleRate <= 1 || samplingCounters.computeIfAbsent( messageType, type -> new AtomicLong() ).getAndIncrement() % sampleRate == 0;
+    }
+
+    public static void sampledInfoContext( final String messageType, final int sampleRate, final String xRequestId, final String message ){
+        if ( isInfoEnabled() && isSampled( messageType, sampleRate ) ){
+            LOGGER.infoContext( xRequestId, message, null );
+        }
+    }
+
+    static boolean isWithinRateLimit( final String messageType, final int maxPerSecond, final long currentTimeMillis ){
+        final var window = rateWindows.computeIfAbsent( messageType, type -> new RateWindow( new AtomicLong(), new AtomicInteger() ) );
+        final var currentSecond = currentTimeMillis / 1000;
+        final var windowSecond = window.second().get();
+        if ( windowSecond != currentSecond && window.second().compareAndSet( windowSecond, currentSecond ) ){
+            window.count().set( 0 );
+        }
+        return window.count().incrementAndGet() <= maxPerSecond;
+    }
+
+    public static boolean isClientErrorLogPermitted(){
+        return isWithinRateLimit( CLIENT_ERRORS, CLIENT_ERROR_LOGS_PER_SECOND, System.currentTimeMillis() );
+    }
+
 }
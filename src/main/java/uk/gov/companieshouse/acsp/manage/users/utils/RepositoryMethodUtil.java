@@ -0,0 +1,42 @@
+package uk.gov.companieshouse.acsp.manage.users.utils;
+
+import static uk.gov.companieshouse.acsp.manage.users.model.Constants.UNKNOWN;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+public final class RepositoryMethodUtil {
+
+    public static final String REPOSITORY_METHOD_KEY = "acsp-manage-users-api.repository-method";
+
+    private static final ThreadLocal<String> repositoryMethodThreadLocal = ThreadLocal.withInitial( () -> UNKNOWN );
+
+    private RepositoryMethodUtil(){}
+
+    public static String getRepositoryMethod(){
+        return repositoryMethodThreadLocal.get();
+    }
+
+    public static MethodInterceptor repositoryMethodTracker( final Class<?> repositoryInterface ){
+        return invocation -> {
+            final var previous = repositoryMethodThreadLocal.get();
+            final var repositoryMethod = String.format( "%s.%s", repositoryInterface.getSimpleName(), invocation.getMethod().getName() );
+            repositoryMethodThreadLocal.set( repositoryMethod );
+            try {
+                final var result = invocation.proceed();
+                if ( result instanceof Mono<?> mono ){
+                    return mono.contextWrite( Context.of( REPOSITORY_METHOD_KEY, repositoryMethod ) );
+                }
+                if ( result instanceof Flux<?> flux ){
+                    return flux.contextWrite( Context.of( REPOSITORY_METHOD_KEY, repositoryMethod ) );
+                }
+                return result;
+            } finally {
+                repositoryMethodThreadLocal.set( previous );
+            }
+        };
+    }
+
+}
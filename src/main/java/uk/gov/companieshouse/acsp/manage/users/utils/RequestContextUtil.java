@@ -53,6 +53,14 @@ public final class RequestContextUtil {
         return getFieldFromRequestContext( RequestContextData::getUser, null );
     }
 
+    public static String getIfMatch(){
+        return getFieldFromRequestContext( RequestContextData::getIfMatch, null );
+    }
+
+    public static String getSort(){
+        return getFieldFromRequestContext( RequestContextData::getSort, null );
+    }
+
     public static boolean isOAuth2Request(){
         return getEricIdentityType().equals( OAUTH2 );
     }
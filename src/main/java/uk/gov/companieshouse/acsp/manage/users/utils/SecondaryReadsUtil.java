@@ -0,0 +1,25 @@
+package uk.gov.companieshouse.acsp.manage.users.utils;
+
+import java.util.function.Supplier;
+
+public final class SecondaryReadsUtil {
+
+    private static final ThreadLocal<Boolean> secondaryReadsThreadLocal = ThreadLocal.withInitial( () -> false );
+
+    private SecondaryReadsUtil(){}
+
+    public static boolean isSecondaryReadPermitted(){
+        return secondaryReadsThreadLocal.get();
+    }
+
+    public static <T> T withSecondaryReads( final Supplier<T> reads ){
+        final var previous = secondaryReadsThreadLocal.get();
+        secondaryReadsThreadLocal.set( true );
+        try {
+            return reads.get();
+        } finally {
+            secondaryReadsThreadLocal.set( previous );
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package uk.gov.companieshouse.acsp.manage.users.controller;
 
 import java.util.Arrays;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -22,8 +23,10 @@ import reactor.core.publisher.Mono;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
 import uk.gov.companieshouse.acsp.manage.users.configuration.WebSecurityConfig;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembershipAuthorisationData;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspMembersService;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspProfileService;
+import uk.gov.companieshouse.acsp.manage.users.service.EmailOutboxService;
 import uk.gov.companieshouse.acsp.manage.users.service.EmailService;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
 import uk.gov.companieshouse.acsp.manage.users.utils.StaticPropertyUtil;
@@ -37,8 +40,13 @@ import uk.gov.companieshouse.api.sdk.ApiClientService;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.OWNER;
 import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.STANDARD;
@@ -75,6 +83,9 @@ class AcspMembershipControllerTest {
     @MockBean
     private EmailService emailService;
 
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+
     private static final TestDataManager testDataManager = TestDataManager.getInstance();
 
     private void mockFetchUserDetailsFor( final String... userIds ) {
@@ -87,6 +98,7 @@ class AcspMembershipControllerTest {
                 .apply( SecurityMockMvcConfigurers.springSecurity() )
                 .build();
         ReflectionTestUtils.setField( staticPropertyUtil, "APPLICATION_NAMESPACE", "acsp-manage-users-api" );
+        Mockito.doAnswer( invocation -> invocation.getArgument( 0, Supplier.class ).get() ).when( emailOutboxService ).withinTransaction( any() );
     }
 
     @Test
@@ -149,7 +161,8 @@ class AcspMembershipControllerTest {
                         .header("ERIC-Identity-Type", "oauth2")
                         .header("ERIC-Authorised-Key-Roles", "*")
                         .header( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "TS001" ) ) )
-                .andExpect( status().isOk() );
+                .andExpect( status().isOk() )
+                .andExpect( header().string( "ETag", String.format( "\"%s\"", requestingUserDto.getEtag() ) ) );
     }
 
     @Test
@@ -209,7 +222,7 @@ class AcspMembershipControllerTest {
 
         Mockito.doReturn( Optional.of( requestingUserDao ) ).when( acspMembersService ).fetchActiveAcspMembership( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", "WITA001" );
         Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
-        Mockito.doReturn( Optional.empty() ).when( acspMembersService ).fetchMembershipDao( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
+        Mockito.doReturn( Optional.empty() ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT001" );
 
         mockMvc.perform( patch( "/acsps/memberships/WIT001" )
                         .header("X-Request-Id", "theId123")
@@ -271,8 +284,7 @@ class AcspMembershipControllerTest {
 
         Mockito.doReturn( Optional.of( acspMemberDaos ) ).when( acspMembersService ).fetchActiveAcspMembership( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", "WITA001" );
         Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
-        Mockito.doReturn( Optional.of( acspMemberDaos ) ).when( acspMembersService ).fetchMembershipDao( "WIT004" );
-        Mockito.doReturn( 1 ).when( acspMembersService ).fetchNumberOfActiveOwners( "WITA004" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMemberDaos, 1 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT004" );
         Mockito.doReturn( testDataManager.fetchAcspProfiles( "WITA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
 
         mockMvc.perform( patch( "/acsps/memberships/WIT004" )
@@ -289,9 +301,8 @@ class AcspMembershipControllerTest {
     @Test
     void updateAcspMembershipForAcspAndIdWithApiKeyAndActiveAcspReturnsForbiddenWhenAttemptingToRemoveLastOwner() throws Exception {
         Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
-        Mockito.doReturn( Optional.of( testDataManager.fetchAcspMembersDaos( "WIT004" ).getFirst() ) ).when( acspMembersService ).fetchMembershipDao( "WIT004" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( testDataManager.fetchAcspMembersDaos( "WIT004" ).getFirst(), 1 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT004" );
         Mockito.doReturn( testDataManager.fetchAcspProfiles( "WITA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
-        Mockito.doReturn( 1 ).when( acspMembersService ).fetchNumberOfActiveOwners( "WITA001" );
 
         mockMvc.perform( patch( "/acsps/memberships/WIT004" )
                         .header("X-Request-Id", "theId123")
@@ -310,9 +321,8 @@ class AcspMembershipControllerTest {
         acspProfile.setStatus( Status.CEASED );
 
         Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
-        Mockito.doReturn( Optional.of( testDataManager.fetchAcspMembersDaos( "WIT004" ).getFirst() ) ).when( acspMembersService ).fetchMembershipDao( "WIT004" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( testDataManager.fetchAcspMembersDaos( "WIT004" ).getFirst(), 1 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT004" );
         Mockito.doReturn( acspProfile ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
-        Mockito.doReturn( 1 ).when( acspMembersService ).fetchNumberOfActiveOwners( "WITA001" );
 
         mockMvc.perform( patch( "/acsps/memberships/WIT004" )
                         .header("X-Request-Id", "theId123")
@@ -346,7 +356,7 @@ class AcspMembershipControllerTest {
 
         Mockito.doReturn( Optional.of( acspMemberDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "WITU002", "WITA001" );
         Mockito.doReturn( testDataManager.fetchUserDtos( "WITU002" ).getFirst() ).when( usersService ).fetchUserDetails( "WITU002" );
-        Mockito.doReturn( Optional.of( acspMemberDaos.getLast() ) ).when( acspMembersService ).fetchMembershipDao( "WIT003" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMemberDaos.getLast(), 1 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT003" );
         Mockito.doReturn( Optional.of( acspMemberDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "WITU002", "WITA001" );
         Mockito.doReturn( testDataManager.fetchAcspProfiles( "WITA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
 
@@ -366,7 +376,7 @@ class AcspMembershipControllerTest {
         final var acspMemberDaos = testDataManager.fetchAcspMembersDaos( "XME004", "XME002" );
 
         Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
-        Mockito.doReturn( Optional.of( acspMemberDaos.getLast() ) ).when( acspMembersService ).fetchMembershipDao( "XME002" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMemberDaos.getLast(), 1 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "XME002" );
         Mockito.doReturn( Optional.of( acspMemberDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", "XMEA001" );
 
         mockMvc.perform( patch( "/acsps/memberships/XME002" )
@@ -385,8 +395,7 @@ class AcspMembershipControllerTest {
         final var acspMemberDaos = testDataManager.fetchAcspMembersDaos( "COM004", "COM002" );
 
         Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
-        Mockito.doReturn( Optional.of( acspMemberDaos.getLast() ) ).when( acspMembersService ).fetchMembershipDao( "COM002" );
-        Mockito.doReturn( 2 ).when( acspMembersService ).fetchNumberOfActiveOwners( "COMA001" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMemberDaos.getLast(), 2 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "COM002" );
         Mockito.doReturn( Optional.of( acspMemberDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", "COMA001" );
         Mockito.doReturn( testDataManager.fetchAcspProfiles( "COMA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "COMA001" );
 
@@ -406,12 +415,11 @@ class AcspMembershipControllerTest {
         final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "WIT004", "WIT002" );
 
         Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
-        Mockito.doReturn( Optional.of( acspMembersDaos.getLast() ) ).when( acspMembersService ).fetchMembershipDao( "WIT002" );
-        Mockito.doReturn( 2 ).when( acspMembersService ).fetchNumberOfActiveOwners( "WITA001" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMembersDaos.getLast(), 2 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT002" );
         Mockito.doReturn( Optional.of( acspMembersDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", "WITA001" );
         Mockito.doReturn( testDataManager.fetchUserDtos( "WITU002" ).getFirst() ).when( usersService ).fetchUserDetails( "WITU002" );
         Mockito.doReturn( testDataManager.fetchAcspProfiles( "WITA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
-        Mockito.doReturn( Mono.empty() ).when( emailService ).sendYourRoleAtAcspHasChangedEmail( "yennefer@witcher.com", "demo@ch.gov.uk", "Witcher", OWNER );
+        Mockito.doReturn( Mono.empty() ).when( emailService ).sendYourRoleAtAcspHasChangedEmail( "WIT002", "yennefer@witcher.com", "demo@ch.gov.uk", "Witcher", OWNER );
 
         mockMvc.perform( patch( "/acsps/memberships/WIT002" )
                         .header("X-Request-Id", "theId123")
@@ -423,8 +431,8 @@ class AcspMembershipControllerTest {
                         .content( "{\"user_role\":\"owner\"}" ) )
                 .andExpect( status().isOk() );
 
-        Mockito.verify( acspMembersService ).updateMembership( "WIT002", null, OWNER, "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
-        Mockito.verify( emailService ).sendYourRoleAtAcspHasChangedEmail( "yennefer@witcher.com", "demo@ch.gov.uk", "Witcher", OWNER );
+        Mockito.verify( acspMembersService ).updateMembership( eq( acspMembersDaos.getLast() ), isNull(), eq( OWNER ), eq( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ), anyBoolean() );
+        Mockito.verify( emailService ).sendYourRoleAtAcspHasChangedEmail( "WIT002", "yennefer@witcher.com", "demo@ch.gov.uk", "Witcher", OWNER );
     }
 
     @Test
@@ -432,12 +440,11 @@ class AcspMembershipControllerTest {
         final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "WIT001", "WIT002" );
 
         Mockito.doReturn( testDataManager.fetchUserDtos( "WITU001" ).getFirst() ).when( usersService ).fetchUserDetails( "WITU001" );
-        Mockito.doReturn( Optional.of( acspMembersDaos.getLast() ) ).when( acspMembersService ).fetchMembershipDao( "WIT002" );
-        Mockito.doReturn( 2 ).when( acspMembersService ).fetchNumberOfActiveOwners( "WITA001" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMembersDaos.getLast(), 2 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT002" );
         Mockito.doReturn( Optional.of( acspMembersDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "WITU001", "WITA001" );
         Mockito.doReturn( testDataManager.fetchUserDtos( "WITU002" ).getFirst() ).when( usersService ).fetchUserDetails( "WITU002" );
         Mockito.doReturn( testDataManager.fetchAcspProfiles( "WITA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
-        Mockito.doReturn( Mono.empty() ).when( emailService ).sendYourRoleAtAcspHasChangedEmail( "yennefer@witcher.com", "Geralt of Rivia", "Witcher", STANDARD );
+        Mockito.doReturn( Mono.empty() ).when( emailService ).sendYourRoleAtAcspHasChangedEmail( "WIT002", "yennefer@witcher.com", "Geralt of Rivia", "Witcher", STANDARD );
 
         mockMvc.perform( patch( "/acsps/memberships/WIT002" )
                         .header("X-Request-Id", "theId123")
@@ -449,8 +456,8 @@ class AcspMembershipControllerTest {
                         .content( "{\"user_role\":\"standard\"}" ) )
                 .andExpect( status().isOk() );
 
-        Mockito.verify( acspMembersService ).updateMembership( "WIT002", null, UserRoleEnum.STANDARD, "WITU001" );
-        Mockito.verify( emailService ).sendYourRoleAtAcspHasChangedEmail(  "yennefer@witcher.com", "Geralt of Rivia", "Witcher", UserRoleEnum.STANDARD );
+        Mockito.verify( acspMembersService ).updateMembership( eq( acspMembersDaos.getLast() ), isNull(), eq( UserRoleEnum.STANDARD ), eq( "WITU001" ), anyBoolean() );
+        Mockito.verify( emailService ).sendYourRoleAtAcspHasChangedEmail( "WIT002", "yennefer@witcher.com", "Geralt of Rivia", "Witcher", UserRoleEnum.STANDARD );
     }
 
     @Test
@@ -458,8 +465,7 @@ class AcspMembershipControllerTest {
         final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "WIT001", "WIT002" );
 
         Mockito.doReturn( testDataManager.fetchUserDtos( "WITU001" ).getFirst() ).when( usersService ).fetchUserDetails( "WITU001" );
-        Mockito.doReturn( Optional.of( acspMembersDaos.getLast() ) ).when( acspMembersService ).fetchMembershipDao( "WIT002" );
-        Mockito.doReturn( 2 ).when( acspMembersService ).fetchNumberOfActiveOwners( "WITA001" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMembersDaos.getLast(), 2 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT002" );
         Mockito.doReturn( Optional.of( acspMembersDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "WITU001", "WITA001" );
         Mockito.doThrow( new NotFoundRuntimeException( "Not found", new Exception( "Not found" ) ) ).when( usersService ).fetchUserDetails( "WITU002" );
         Mockito.doReturn( testDataManager.fetchAcspProfiles( "WITA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
@@ -480,8 +486,7 @@ class AcspMembershipControllerTest {
         final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "WIT001", "WIT002" );
 
         Mockito.doReturn( testDataManager.fetchUserDtos( "WITU001" ).getFirst() ).when( usersService ).fetchUserDetails( "WITU001" );
-        Mockito.doReturn( Optional.of( acspMembersDaos.getLast() ) ).when( acspMembersService ).fetchMembershipDao( "WIT002" );
-        Mockito.doReturn( 2 ).when( acspMembersService ).fetchNumberOfActiveOwners( "WITA001" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMembersDaos.getLast(), 2 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT002" );
         Mockito.doReturn( Optional.of( acspMembersDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "WITU001", "WITA001" );
         Mockito.doThrow( new NotFoundRuntimeException( "acsp-manage-users-api", new Exception( "Not found" ) ) ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
 
@@ -501,12 +506,11 @@ class AcspMembershipControllerTest {
         final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "WIT004", "WIT002" );
 
         Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
-        Mockito.doReturn( Optional.of( acspMembersDaos.getLast() ) ).when( acspMembersService ).fetchMembershipDao( "WIT002" );
-        Mockito.doReturn( 2 ).when( acspMembersService ).fetchNumberOfActiveOwners( "WITA001" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMembersDaos.getLast(), 2 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT002" );
         Mockito.doReturn( Optional.of( acspMembersDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", "WITA001" );
         Mockito.doReturn( testDataManager.fetchUserDtos( "WITU002" ).getFirst() ).when( usersService ).fetchUserDetails( "WITU002" );
         Mockito.doReturn( testDataManager.fetchAcspProfiles( "WITA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
-        Mockito.doReturn( Mono.empty() ).when( emailService ).sendYourRoleAtAcspHasChangedEmail( "yennefer@witcher.com", "demo@ch.gov.uk", "Witcher", STANDARD );
+        Mockito.doReturn( Mono.empty() ).when( emailService ).sendYourRoleAtAcspHasChangedEmail( "WIT002", "yennefer@witcher.com", "demo@ch.gov.uk", "Witcher", STANDARD );
 
         mockMvc.perform( patch( "/acsps/memberships/WIT002" )
                         .header("X-Request-Id", "theId123")
@@ -518,8 +522,8 @@ class AcspMembershipControllerTest {
                         .content( "{\"user_role\":\"standard\",\"user_status\":\"removed\"}" ) )
                 .andExpect( status().isOk() );
 
-        Mockito.verify( acspMembersService ).updateMembership( "WIT002", UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
-        Mockito.verify( emailService ).sendYourRoleAtAcspHasChangedEmail( "yennefer@witcher.com", "demo@ch.gov.uk", "Witcher", UserRoleEnum.STANDARD );
+        Mockito.verify( acspMembersService ).updateMembership( eq( acspMembersDaos.getLast() ), eq( UserStatusEnum.REMOVED ), eq( UserRoleEnum.STANDARD ), eq( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ), anyBoolean() );
+        Mockito.verify( emailService ).sendYourRoleAtAcspHasChangedEmail( "WIT002", "yennefer@witcher.com", "demo@ch.gov.uk", "Witcher", UserRoleEnum.STANDARD );
     }
 
     @Test
@@ -527,8 +531,7 @@ class AcspMembershipControllerTest {
         final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "COM001", "COM004" );
 
         Mockito.doReturn( testDataManager.fetchUserDtos( "COMU001" ).getFirst() ).when( usersService ).fetchUserDetails( "COMU001" );
-        Mockito.doReturn( Optional.of( acspMembersDaos.getLast() ) ).when( acspMembersService ).fetchMembershipDao( "COM004" );
-        Mockito.doReturn( 2 ).when( acspMembersService ).fetchNumberOfActiveOwners( "COMA001" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMembersDaos.getLast(), 2 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "COM004" );
         Mockito.doReturn( Optional.of( acspMembersDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", "COMA001" );
         Mockito.doReturn( testDataManager.fetchAcspProfiles( "COMA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "COMA001" );
 
@@ -542,4 +545,51 @@ class AcspMembershipControllerTest {
                 .andExpect( status().isOk() );
     }
 
+    @Test
+    void updateAcspMembershipForAcspAndIdWithStaleIfMatchReturnsPreconditionFailed() throws Exception {
+        final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "WIT004", "WIT002" );
+
+        Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMembersDaos.getLast(), 2 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT002" );
+        Mockito.doReturn( Optional.of( acspMembersDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", "WITA001" );
+        Mockito.doReturn( testDataManager.fetchAcspProfiles( "WITA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
+
+        mockMvc.perform( patch( "/acsps/memberships/WIT002" )
+                        .header("X-Request-Id", "theId123")
+                        .header("Eric-identity", "67ZeMsvAEgkBWs7tNKacdrPvOmQ" )
+                        .header("ERIC-Identity-Type", "oauth2")
+                        .header("ERIC-Authorised-Key-Roles", "*")
+                        .header( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "WIT004" ) )
+                        .header( "If-Match", "\"stale-etag\"" )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .content( "{\"user_status\":\"removed\"}" ) )
+                .andExpect( status().isPreconditionFailed() );
+
+        Mockito.verify( acspMembersService, Mockito.never() ).updateMembership( any(), any(), any(), any(), anyBoolean() );
+    }
+
+    @Test
+    void updateAcspMembershipForAcspAndIdWithMatchingIfMatchReturnsUpdatedEtag() throws Exception {
+        final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "WIT004", "WIT002" );
+        final var updatedMembership = testDataManager.fetchAcspMembersDaos( "WIT002" ).getFirst();
+
+        Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
+        Mockito.doReturn( Optional.of( new AcspMembershipAuthorisationData( acspMembersDaos.getLast(), 2 ) ) ).when( acspMembersService ).fetchMembershipAuthorisationData( "WIT002" );
+        Mockito.doReturn( Optional.of( acspMembersDaos.getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", "WITA001" );
+        Mockito.doReturn( testDataManager.fetchAcspProfiles( "WITA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
+        Mockito.doReturn( updatedMembership ).when( acspMembersService ).updateMembership( eq( acspMembersDaos.getLast() ), eq( UserStatusEnum.REMOVED ), isNull(), eq( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ), anyBoolean() );
+
+        mockMvc.perform( patch( "/acsps/memberships/WIT002" )
+                        .header("X-Request-Id", "theId123")
+                        .header("Eric-identity", "67ZeMsvAEgkBWs7tNKacdrPvOmQ" )
+                        .header("ERIC-Identity-Type", "oauth2")
+                        .header("ERIC-Authorised-Key-Roles", "*")
+                        .header( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "WIT004" ) )
+                        .header( "If-Match", String.format( "W/\"%s\"", acspMembersDaos.getLast().getEtag() ) )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .content( "{\"user_status\":\"removed\"}" ) )
+                .andExpect( status().isOk() )
+                .andExpect( header().string( "ETag", String.format( "\"%s\"", updatedMembership.getEtag() ) ) );
+    }
+
 }
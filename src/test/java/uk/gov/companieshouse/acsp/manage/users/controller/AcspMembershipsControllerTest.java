@@ -1,6 +1,7 @@
 package uk.gov.companieshouse.acsp.manage.users.controller;
 
 import java.util.Arrays;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -23,9 +24,11 @@ import org.springframework.web.context.WebApplicationContext;
 import reactor.core.publisher.Mono;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
 import uk.gov.companieshouse.acsp.manage.users.configuration.WebSecurityConfig;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.BadRequestRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspMembersService;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspProfileService;
+import uk.gov.companieshouse.acsp.manage.users.service.EmailOutboxService;
 import uk.gov.companieshouse.acsp.manage.users.service.EmailService;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
 import uk.gov.companieshouse.acsp.manage.users.utils.StaticPropertyUtil;
@@ -43,6 +46,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static uk.gov.companieshouse.acsp.manage.users.common.ParsingUtils.parseResponseTo;
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.ErrorCode.ERROR_CODE_1002;
 import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.STANDARD;
 
 @WebMvcTest(AcspMembershipsController.class)
@@ -71,6 +75,9 @@ class AcspMembershipsControllerTest {
     @MockBean
     private EmailService emailService;
 
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+
     private static final TestDataManager testDataManager = TestDataManager.getInstance();
 
     private void mockFetchUserDetailsFor( final String... userIds ) {
@@ -83,6 +90,7 @@ class AcspMembershipsControllerTest {
                 .apply( SecurityMockMvcConfigurers.springSecurity() )
                 .build();
         ReflectionTestUtils.setField( staticPropertyUtil, "APPLICATION_NAMESPACE", "acsp-manage-users-api" );
+        Mockito.doAnswer( invocation -> invocation.getArgument( 0, Supplier.class ).get() ).when( emailOutboxService ).withinTransaction( any() );
     }
 
     @Nested
@@ -377,7 +385,8 @@ class AcspMembershipsControllerTest {
 
             mockFetchUserDetailsFor( "COMU002" );
             Mockito.doReturn( Optional.of( requestingUserDao ) ).when( acspMembersService ).fetchActiveAcspMembership( "COMU002", "COMA001" );
-            Mockito.doReturn( requestingUser ).when( acspMembersService ).fetchMembershipDaos( "COMU002", false );
+            Mockito.doReturn( testDataManager.fetchAcspProfiles( "COMA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "COMA001" );
+            Mockito.doThrow( new BadRequestRuntimeException( ERROR_CODE_1002.getCode(), new Exception( "COMU002 user already has an active Acsp membership" ) ) ).when( acspMembersService ).createMembership( requestingUser.getFirst(), testDataManager.fetchAcspProfiles( "COMA001" ).getFirst(), STANDARD, "COMU002" );
 
             mockMvc.perform( post( "/acsps/COMA001/memberships" )
                             .header("X-Request-Id", "theId123")
@@ -442,7 +451,6 @@ class AcspMembershipsControllerTest {
             Mockito.doReturn( testDataManager.fetchUserDtos( "TSU001" ).getFirst() ).when( usersService ).fetchUserDetails( "TSU001" );
             Mockito.doReturn( targetUserData ).when( usersService ).fetchUserDetails( "COMU001" );
             Mockito.doReturn( targetAcspProfile ).when(acspProfileService).fetchAcspProfile( "TSA001" );
-            Mockito.doReturn( List.of() ).when( acspMembersService ).fetchMembershipDaos( "COMU001", false );
             Mockito.doReturn( Optional.of( testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst() ) ).when( acspMembersService ).fetchActiveAcspMembership( "TSU001", "TSA001" );
             Mockito.doReturn( Mono.empty() ).when( emailService ).sendConfirmYouAreAMemberEmail( "jimmy.carr@comedy.com", "buzz.lightyear@toystory.com", "Toy Story", STANDARD );
 
@@ -479,7 +487,6 @@ class AcspMembershipsControllerTest {
         Mockito.doReturn( users.getFirst() ).when( usersService ).fetchUserDetails( "TSU001" );
         Mockito.doReturn( users.getLast() ).when( usersService ).fetchUserDetails( "COMU001" );
         Mockito.doReturn( acsp ).when( acspProfileService ).fetchAcspProfile( "TSA001" );
-        Mockito.doReturn( List.of() ).when( acspMembersService ).fetchMembershipDaos( "COMU001", false );
         Mockito.doReturn( Optional.of( requestingUsersMembership ) ).when( acspMembersService ).fetchActiveAcspMembership( "TSU001", "TSA001" );
         Mockito.doReturn( Mono.empty() ).when( emailService ).sendConfirmYouAreAMemberEmail( "jimmy.carr@comedy.com", "buzz.lightyear@toystory.com", "Toy Story", role );
 
@@ -513,7 +520,6 @@ class AcspMembershipsControllerTest {
         Mockito.doReturn( users.getFirst() ).when( usersService ).fetchUserDetails( "WITU001" );
         Mockito.doReturn( users.getLast() ).when( usersService ).fetchUserDetails( "COMU001" );
         Mockito.doReturn( acsp ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
-        Mockito.doReturn( List.of() ).when( acspMembersService ).fetchMembershipDaos( "COMU001", false );
         Mockito.doReturn( Optional.of( requestingUsersMembership ) ).when( acspMembersService ).fetchActiveAcspMembership( "WITU001", "WITA001" );
         Mockito.doReturn( Mono.empty() ).when( emailService ).sendConfirmYouAreAMemberEmail("jimmy.carr@comedy.com", "Geralt of Rivia", "Witcher", role );
 
@@ -547,7 +553,6 @@ class AcspMembershipsControllerTest {
         Mockito.doReturn( users.getFirst() ).when( usersService ).fetchUserDetails( "WITU001" );
         Mockito.doReturn( users.getLast() ).when( usersService ).fetchUserDetails( "COMU001" );
         Mockito.doReturn( acsp ).when( acspProfileService ).fetchAcspProfile( "WITA001" );
-        Mockito.doReturn( List.of() ).when( acspMembersService ).fetchMembershipDaos( "COMU001", false );
         Mockito.doReturn( Optional.of( requestingUsersMembership ) ).when( acspMembersService ).fetchActiveAcspMembership( "WITU001", "WITA001" );
 
         mockMvc.perform( post("/acsps/WITA001/memberships")
@@ -1,7 +1,9 @@
 package uk.gov.companieshouse.acsp.manage.users.controller;
 
 import java.util.Arrays;
+import java.util.function.Supplier;
 import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -19,11 +21,13 @@ import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
 import uk.gov.companieshouse.acsp.manage.users.configuration.InterceptorConfig;
 import uk.gov.companieshouse.acsp.manage.users.configuration.WebSecurityConfig;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.BadRequestRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.ConflictRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.ForbiddenRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.InternalServerErrorRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspMembersService;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspProfileService;
+import uk.gov.companieshouse.acsp.manage.users.service.EmailOutboxService;
 import uk.gov.companieshouse.acsp.manage.users.service.EmailService;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
 import uk.gov.companieshouse.acsp.manage.users.utils.StaticPropertyUtil;
@@ -56,6 +60,9 @@ class ControllerAdviceTest {
     @MockBean
     private EmailService emailService;
 
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+
     @MockBean
     private AcspProfileService acspProfileService;
 
@@ -69,6 +76,7 @@ class ControllerAdviceTest {
                 .build();
         Mockito.doNothing().when( interceptorConfig ).addInterceptors( any() );
         ReflectionTestUtils.setField( staticPropertyUtil, "APPLICATION_NAMESPACE", "acsp-manage-users-api" );
+        Mockito.doAnswer( invocation -> invocation.getArgument( 0, Supplier.class ).get() ).when( emailOutboxService ).withinTransaction( any() );
     }
     private static final TestDataManager testDataManager = TestDataManager.getInstance();
 
@@ -165,5 +173,28 @@ class ControllerAdviceTest {
                 .andExpect( status().isForbidden() );
     }
 
-}
+    @Test
+    void testConflictRuntimeError() throws Exception {
+        mockFetchUserDetailsFor( "TSU001" );
+        Mockito.doReturn( Optional.of( testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst() ) ).when( acspMemersService ).fetchActiveAcspMembership( "TSU001", "TSA001" );
+        Mockito.doThrow( new ConflictRuntimeException( "Request was less than ideal", new Exception( "Request was less than ideal" ) ) ).when( acspMemersService ).fetchMembership( any() );
+
+        mockMvc.perform( get("/acsps/memberships/TS001")
+                        .header( "X-Request-Id", "theId123" )
+                        .header( "ERIC-Identity", "TSU001")
+                        .header("ERIC-Identity-Type", "oauth2")
+                        .header("ERIC-Authorised-Key-Roles", "*")
+                        .header( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "TS001" ) ) )
+                .andExpect( status().isConflict() );
+    }
 
+    @Test
+    void clientErrorExceptionsDoNotCaptureStackTraces() {
+        Assertions.assertEquals( 0, new NotFoundRuntimeException( "Not found", "Could not find membership" ).getStackTrace().length );
+        Assertions.assertEquals( 0, new BadRequestRuntimeException( "Bad request", new Exception( "Bad request" ) ).getStackTrace().length );
+        Assertions.assertEquals( 0, new ForbiddenRuntimeException( "Forbidden", "Forbidden" ).getStackTrace().length );
+        Assertions.assertEquals( 0, new ConflictRuntimeException( "Conflict", "Conflict" ).getStackTrace().length );
+        Assertions.assertTrue( new InternalServerErrorRuntimeException( "Problem", new Exception( "Problem" ) ).getStackTrace().length > 0 );
+    }
+
+}
@@ -0,0 +1,202 @@
+package uk.gov.companieshouse.acsp.manage.users.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static uk.gov.companieshouse.acsp.manage.users.common.ParsingUtils.parseResponseTo;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import reactor.core.publisher.Mono;
+import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
+import uk.gov.companieshouse.acsp.manage.users.configuration.WebSecurityConfig;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.service.AcspMembersService;
+import uk.gov.companieshouse.acsp.manage.users.service.AcspProfileService;
+import uk.gov.companieshouse.acsp.manage.users.service.EmailOutboxService;
+import uk.gov.companieshouse.acsp.manage.users.service.EmailService;
+import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
+import uk.gov.companieshouse.acsp.manage.users.utils.StaticPropertyUtil;
+import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembershipsList;
+
+@WebMvcTest( controllers = { ReactiveAcspMembershipsController.class, AcspMembershipsController.class }, properties = "acsp.members.controllers.reactive.enabled=true" )
+@Import( WebSecurityConfig.class )
+@Tag( "unit-test" )
+class ReactiveAcspMembershipsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @MockBean
+    private StaticPropertyUtil staticPropertyUtil;
+
+    @MockBean
+    private UsersService usersService;
+
+    @MockBean
+    private AcspProfileService acspProfileService;
+
+    @MockBean
+    private AcspMembersService acspMembersService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+
+    private static final TestDataManager testDataManager = TestDataManager.getInstance();
+
+    @BeforeEach
+    void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup( context )
+                .apply( SecurityMockMvcConfigurers.springSecurity() )
+                .build();
+        ReflectionTestUtils.setField( staticPropertyUtil, "APPLICATION_NAMESPACE", "acsp-manage-users-api" );
+        Mockito.doAnswer( invocation -> invocation.getArgument( 0, Supplier.class ).get() ).when( emailOutboxService ).withinTransaction( any() );
+    }
+
+    private void mockRequestingUser() {
+        final var requestingUserDao = testDataManager.fetchAcspMembersDaos( "WIT004" ).getFirst();
+        Mockito.doReturn( testDataManager.fetchUserDtos( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" ).getFirst() ).when( usersService ).fetchUserDetails( "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
+        Mockito.doReturn( Optional.of( requestingUserDao ) ).when( acspMembersService ).fetchActiveAcspMembership( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", "WITA001" );
+    }
+
+    @Test
+    void getMembersForAcspReturnsOkWithoutBlockingTheRequestThread() throws Exception {
+        final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+
+        mockRequestingUser();
+        Mockito.doReturn( Mono.just( acspProfile ) ).when( acspProfileService ).fetchAcspProfileReactively( "COMA001" );
+        Mockito.doReturn( Mono.just( new AcspMembershipsList() ) ).when( acspMembersService ).fetchMembershipsForAcspNumberAndRoleReactively( acspProfile, "owner", false, 0, 15 );
+
+        final var asyncResult = mockMvc.perform( get( "/acsps/COMA001/memberships?include_removed=false&role=owner&page_index=0&items_per_page=15" )
+                        .header( "X-Request-Id", "theId123" )
+                        .header( "Eric-identity", "67ZeMsvAEgkBWs7tNKacdrPvOmQ" )
+                        .header( "ERIC-Identity-Type", "oauth2" )
+                        .header( "ERIC-Authorised-Key-Roles", "*" )
+                        .header( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "WIT004" ) ) )
+                .andExpect( request().asyncStarted() )
+                .andReturn();
+
+        final var response = mockMvc.perform( asyncDispatch( asyncResult ) ).andExpect( status().isOk() );
+
+        Assertions.assertEquals( new AcspMembershipsList(), parseResponseTo( response, AcspMembershipsList.class ) );
+        Mockito.verify( acspProfileService, Mockito.never() ).fetchAcspProfile( "COMA001" );
+    }
+
+    @Test
+    void getMembersForAcspWithInvalidRoleReturnsBadRequest() throws Exception {
+        mockRequestingUser();
+
+        mockMvc.perform( get( "/acsps/COMA001/memberships?role=invalid_role" )
+                        .header( "X-Request-Id", "theId123" )
+                        .header( "Eric-identity", "67ZeMsvAEgkBWs7tNKacdrPvOmQ" )
+                        .header( "ERIC-Identity-Type", "oauth2" )
+                        .header( "ERIC-Authorised-Key-Roles", "*" )
+                        .header( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "WIT004" ) ) )
+                .andExpect( status().isBadRequest() );
+    }
+
+    @Test
+    void getMembersForAcspWithNonexistentAcspReturnsNotFound() throws Exception {
+        mockRequestingUser();
+        Mockito.doReturn( Mono.error( new NotFoundRuntimeException( "Failed to find Acsp Profile", "Failed to find Acsp Profile" ) ) ).when( acspProfileService ).fetchAcspProfileReactively( "NONEXISTENT" );
+
+        final var asyncResult = mockMvc.perform( get( "/acsps/NONEXISTENT/memberships" )
+                        .header( "X-Request-Id", "theId123" )
+                        .header( "Eric-identity", "67ZeMsvAEgkBWs7tNKacdrPvOmQ" )
+                        .header( "ERIC-Identity-Type", "oauth2" )
+                        .header( "ERIC-Authorised-Key-Roles", "*" )
+                        .header( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "WIT004" ) ) )
+                .andExpect( request().asyncStarted() )
+                .andReturn();
+
+        mockMvc.perform( asyncDispatch( asyncResult ) ).andExpect( status().isNotFound() );
+    }
+
+    @Test
+    void getMembersForAcspAsyncDispatchIsAuthorisedBySavedSecurityContext() throws Exception {
+        final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+
+        mockRequestingUser();
+        Mockito.doReturn( Mono.just( acspProfile ) ).when( acspProfileService ).fetchAcspProfileReactively( "COMA001" );
+        Mockito.doReturn( Mono.just( new AcspMembershipsList().totalResults( 1 ) ) ).when( acspMembersService ).fetchMembershipsForAcspNumberAndRoleReactively( acspProfile, null, false, 0, 15 );
+
+        final var asyncResult = mockMvc.perform( get( "/acsps/COMA001/memberships" )
+                        .header( "X-Request-Id", "theId123" )
+                        .header( "Eric-identity", "67ZeMsvAEgkBWs7tNKacdrPvOmQ" )
+                        .header( "ERIC-Identity-Type", "oauth2" )
+                        .header( "ERIC-Authorised-Key-Roles", "*" )
+                        .header( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "WIT004" ) ) )
+                .andExpect( request().asyncStarted() )
+                .andReturn();
+
+        Assertions.assertNotNull( asyncResult.getRequest().getAttribute( RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME ) );
+
+        final var response = mockMvc.perform( asyncDispatch( asyncResult ) ).andExpect( status().isOk() );
+
+        Assertions.assertEquals( 1, parseResponseTo( response, AcspMembershipsList.class ).getTotalResults() );
+    }
+
+    @Test
+    void getMembersForAcspAsyncDispatchWithoutSecurityContextIsForbidden() throws Exception {
+        final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+
+        mockRequestingUser();
+        Mockito.doReturn( Mono.just( acspProfile ) ).when( acspProfileService ).fetchAcspProfileReactively( "COMA001" );
+        Mockito.doReturn( Mono.just( new AcspMembershipsList() ) ).when( acspMembersService ).fetchMembershipsForAcspNumberAndRoleReactively( acspProfile, null, false, 0, 15 );
+
+        final var asyncResult = mockMvc.perform( get( "/acsps/COMA001/memberships" )
+                        .header( "X-Request-Id", "theId123" )
+                        .header( "Eric-identity", "67ZeMsvAEgkBWs7tNKacdrPvOmQ" )
+                        .header( "ERIC-Identity-Type", "oauth2" )
+                        .header( "ERIC-Authorised-Key-Roles", "*" )
+                        .header( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "WIT004" ) ) )
+                .andExpect( request().asyncStarted() )
+                .andReturn();
+
+        asyncResult.getRequest().removeAttribute( RequestAttributeSecurityContextRepository.DEFAULT_REQUEST_ATTR_NAME );
+
+        mockMvc.perform( asyncDispatch( asyncResult ) ).andExpect( status().isForbidden() );
+    }
+
+    @Test
+    void findMembershipsForUserAndAcspIsStillServedByTheBlockingController() throws Exception {
+        mockRequestingUser();
+
+        mockMvc.perform( post( "/acsps/COMA001/memberships/lookup" )
+                        .header( "X-Request-Id", "theId123" )
+                        .header( "Eric-identity", "67ZeMsvAEgkBWs7tNKacdrPvOmQ" )
+                        .header( "ERIC-Identity-Type", "oauth2" )
+                        .header( "ERIC-Authorised-Key-Roles", "*" )
+                        .header( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "WIT004" ) )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .content( "{}" ) )
+                .andExpect( request().asyncNotStarted() )
+                .andExpect( status().isBadRequest() );
+    }
+
+}
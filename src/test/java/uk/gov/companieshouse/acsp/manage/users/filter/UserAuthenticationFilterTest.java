@@ -3,10 +3,12 @@ package uk.gov.companieshouse.acsp.manage.users.filter;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.never;
+import static uk.gov.companieshouse.acsp.manage.users.model.Constants.REQUEST_CONTEXT_DATA;
 
 import jakarta.servlet.FilterChain;
 import java.util.Optional;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -23,9 +25,11 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextData;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspMembersService;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
 import uk.gov.companieshouse.api.accounts.user.model.User;
@@ -77,6 +81,42 @@ class UserAuthenticationFilterTest {
         Mockito.verify( securityContext, never() ).setAuthentication( any() );
     }
 
+    @Test
+    void doFilterInternalStoresParsedRequestContextDataOnRequest() {
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "X-Request-Id", "theId123" );
+        request.addHeader( "Eric-Identity", "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
+        request.addHeader( "Eric-Identity-Type","key" );
+        request.addHeader( "ERIC-Authorised-Key-Roles", "*" );
+        final var response = new MockHttpServletResponse();
+        final var filterChain = Mockito.mock( FilterChain.class );
+
+        userAuthenticationFilter.doFilterInternal( request, response, filterChain );
+
+        final var requestContextData = (RequestContextData) request.getAttribute( REQUEST_CONTEXT_DATA );
+        Assertions.assertEquals( "theId123", requestContextData.getXRequestId() );
+        Assertions.assertEquals( "67ZeMsvAEgkBWs7tNKacdrPvOmQ", requestContextData.getEricIdentity() );
+        Assertions.assertEquals( "key", requestContextData.getEricIdentityType() );
+        Assertions.assertEquals( "*", requestContextData.getEricAuthorisedKeyRoles() );
+    }
+
+    @Test
+    void doFilterInternalSavesSecurityContextOnRequestForAsyncDispatch() {
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "X-Request-Id", "theId123" );
+        request.addHeader( "Eric-Identity", "67ZeMsvAEgkBWs7tNKacdrPvOmQ" );
+        request.addHeader( "Eric-Identity-Type","key" );
+        request.addHeader( "ERIC-Authorised-Key-Roles", "*" );
+        final var response = new MockHttpServletResponse();
+        final var filterChain = Mockito.mock( FilterChain.class );
+
+        userAuthenticationFilter.doFilterInternal( request, response, filterChain );
+
+        final var savedContext = new RequestAttributeSecurityContextRepository().loadDeferredContext( request ).get();
+        Assertions.assertTrue( springRoleWasAssigned( "ROLE_KEY" ).matches( savedContext.getAuthentication() ) );
+        Assertions.assertNull( SecurityContextHolder.getContext().getAuthentication() );
+    }
+
     private static Stream<Arguments> doFilterInternalWithoutEricIdentityDoesNotAddAnyRolesScenarios(){
         return Stream.of(
                 Arguments.of( "oauth2" ),
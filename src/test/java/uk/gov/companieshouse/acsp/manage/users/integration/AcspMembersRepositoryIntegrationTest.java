@@ -1,6 +1,10 @@
 package uk.gov.companieshouse.acsp.manage.users.integration;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
@@ -8,12 +12,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
 import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.model.MigrationProgressDao;
+import uk.gov.companieshouse.acsp.manage.users.model.enums.MembershipSort;
 import uk.gov.companieshouse.acsp.manage.users.repositories.AcspMembersRepository;
+import uk.gov.companieshouse.acsp.manage.users.repositories.MigrationProgressRepository;
+import uk.gov.companieshouse.acsp.manage.users.repositories.ReactiveAcspMembersRepository;
 import uk.gov.companieshouse.acsp.manage.users.utils.StaticPropertyUtil;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.MembershipStatusEnum;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
@@ -31,6 +43,12 @@ class AcspMembersRepositoryIntegrationTest extends BaseMongoIntegration {
     @Autowired
     private AcspMembersRepository acspMembersRepository;
 
+    @Autowired
+    private MigrationProgressRepository migrationProgressRepository;
+
+    @Autowired
+    private ReactiveAcspMembersRepository reactiveAcspMembersRepository;
+
     @MockBean
     private StaticPropertyUtil staticPropertyUtil;
 
@@ -47,6 +65,17 @@ class AcspMembersRepositoryIntegrationTest extends BaseMongoIntegration {
         assertTrue( result.stream().allMatch( member -> member.getRemovedBy() == null ) );
     }
 
+    @Test
+    void fetchMembershipSliceForAcspNumberReturnsPageAndOneExtraRow() {
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002", "COM003", "COM004", "COM005", "COM006", "COM007", "COM008", "COM010", "COM012" ) );
+
+        final var result = reactiveAcspMembersRepository.fetchMembershipSliceForAcspNumber( "COMA001", null, false, PageRequest.of( 1, 2, Sort.by( "_id" ) ) ).collectList().block();
+        final var lastPage = reactiveAcspMembersRepository.fetchMembershipSliceForAcspNumber( "COMA001", null, false, PageRequest.of( 3, 2, Sort.by( "_id" ) ) ).collectList().block();
+
+        assertEquals( List.of( "COM005", "COM007", "COM008" ), result.stream().map( AcspMembersDao::getId ).toList() );
+        assertEquals( List.of( "COM012" ), lastPage.stream().map( AcspMembersDao::getId ).toList() );
+    }
+
     @Test
     void findAllByAcspNumberReturnsAllMembersForGivenAcspNumber() {
         acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002", "COM003", "COM004", "COM005", "COM006" ) );
@@ -161,9 +190,269 @@ class AcspMembersRepositoryIntegrationTest extends BaseMongoIntegration {
         Assertions.assertEquals( UserRoleEnum.STANDARD, acspMembersRepository.findById( "TS001" ).get().getUserRole() );
     }
 
+    @Test
+    void updateMembershipIfUnchangedIncrementsVersionOnceAndRejectsStaleMembership(){
+        final var membership = acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "TS001" ) ).getFirst();
+        final var version = membership.getVersion();
+
+        final var updatedMembership = acspMembersRepository.updateMembershipIfUnchanged( membership, new Update().set( "etag", "updatedEtag" ) );
+
+        Assertions.assertEquals( version + 1, updatedMembership.get().getVersion() );
+        Assertions.assertTrue( acspMembersRepository.updateMembershipIfUnchanged( membership, new Update().set( "etag", "staleEtag" ) ).isEmpty() );
+    }
+
+    @Test
+    void fetchMembershipAuthorisationDataWithNullOrMalformedOrNonexistentMembershipIdReturnsEmptyOptional(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002" ) );
+        Assertions.assertFalse( acspMembersRepository.fetchMembershipAuthorisationData( null ).isPresent() );
+        Assertions.assertFalse( acspMembersRepository.fetchMembershipAuthorisationData( "£££" ).isPresent() );
+        Assertions.assertFalse( acspMembersRepository.fetchMembershipAuthorisationData( "TS001" ).isPresent() );
+    }
+
+    @Test
+    void fetchMembershipAuthorisationDataRetrievesTargetMembershipAndNumberOfActiveOwners(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "TS001", "COM001", "COM002", "COM003", "COM004" ) );
+
+        final var result = acspMembersRepository.fetchMembershipAuthorisationData( "COM004" ).get();
+
+        Assertions.assertEquals( "COM004", result.getTargetMembership().getId() );
+        Assertions.assertEquals( "COMA001", result.getTargetMembership().getAcspNumber() );
+        Assertions.assertEquals( 1, result.getNumberOfActiveOwners() );
+    }
+
+    @Test
+    void fetchActiveAndRemovedMembershipsForAcspNumberWithRoleSortReturnsDeterministicOrder(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002", "COM003", "COM004", "COM005", "COM006" ) );
+
+        final var roles = acspMembersRepository.fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", PageRequest.of( 0, 10, MembershipSort.ROLE.getSort() ) )
+                .getContent().stream().map( AcspMembersDao::getUserRole ).map( UserRoleEnum::getValue ).toList();
+        Assertions.assertEquals( List.of( "owner", "owner", "admin", "admin", "admin", "standard" ), roles );
+
+        final var firstPage = acspMembersRepository.fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", PageRequest.of( 0, 3, MembershipSort.ADDED_AT.getSort() ) ).getContent().stream().map( AcspMembersDao::getId ).toList();
+        final var secondPage = acspMembersRepository.fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", PageRequest.of( 1, 3, MembershipSort.ADDED_AT.getSort() ) ).getContent().stream().map( AcspMembersDao::getId ).toList();
+        Assertions.assertTrue( firstPage.stream().noneMatch( secondPage::contains ) );
+    }
+
+    @Test
+    void fetchMembershipsWithStaleSnapshotReturnsMembershipsWithMissingOrOldRefreshAttempts(){
+        final var memberships = testDataManager.fetchAcspMembersDaos( "COM001", "COM002", "COM003" );
+        memberships.get( 1 ).snapshotRefreshAttemptedAt( LocalDateTime.now().minusDays( 1 ) );
+        memberships.get( 2 ).snapshotRefreshAttemptedAt( LocalDateTime.now() );
+        acspMembersRepository.insert( memberships );
+
+        final var result = acspMembersRepository.fetchMembershipsWithStaleSnapshot( LocalDateTime.now().minusHours( 1 ), 10 );
+
+        Assertions.assertEquals( List.of( "COM001", "COM002" ), result.stream().map( AcspMembersDao::getId ).sorted().toList() );
+        Assertions.assertEquals( 1, acspMembersRepository.fetchMembershipsWithStaleSnapshot( LocalDateTime.now().minusHours( 1 ), 1 ).size() );
+    }
+
+    @Test
+    void updateMembershipSnapshotsWritesSnapshotFields(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002" ) );
+        final var refreshedAt = LocalDateTime.now();
+        final var membership = acspMembersRepository.findById( "COM001" ).get()
+                .userEmail( "jimmy@comedy.com" )
+                .userDisplayName( "Jimmy Carr" )
+                .acspName( "Comedy" )
+                .acspStatus( "active" )
+                .snapshotRefreshedAt( refreshedAt )
+                .snapshotRefreshAttemptedAt( refreshedAt );
+
+        Assertions.assertEquals( 1, acspMembersRepository.updateMembershipSnapshots( List.of( membership ) ) );
+        Assertions.assertEquals( 0, acspMembersRepository.updateMembershipSnapshots( List.of() ) );
+
+        final var updatedMembership = acspMembersRepository.findById( "COM001" ).get();
+        Assertions.assertEquals( "jimmy@comedy.com", updatedMembership.getUserEmail() );
+        Assertions.assertEquals( "Jimmy Carr", updatedMembership.getUserDisplayName() );
+        Assertions.assertEquals( "Comedy", updatedMembership.getAcspName() );
+        Assertions.assertEquals( "active", updatedMembership.getAcspStatus() );
+        Assertions.assertNotNull( updatedMembership.getSnapshotRefreshedAt() );
+        Assertions.assertNull( acspMembersRepository.findById( "COM002" ).get().getUserEmail() );
+    }
+
+    @Test
+    void updateMembershipSnapshotsOnlyRecordsAttemptForUnresolvedMemberships(){
+        final var refreshedAt = LocalDateTime.now().minusDays( 1 );
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001" ).getFirst()
+                .userEmail( "jimmy@comedy.com" )
+                .snapshotRefreshedAt( refreshedAt ) );
+        final var membership = acspMembersRepository.findById( "COM001" ).get()
+                .userEmail( null )
+                .snapshotRefreshAttemptedAt( LocalDateTime.now() );
+
+        Assertions.assertEquals( 1, acspMembersRepository.updateMembershipSnapshots( List.of( membership ) ) );
+
+        final var updatedMembership = acspMembersRepository.findById( "COM001" ).get();
+        Assertions.assertEquals( "jimmy@comedy.com", updatedMembership.getUserEmail() );
+        Assertions.assertTrue( updatedMembership.getSnapshotRefreshedAt().isBefore( LocalDateTime.now().minusHours( 1 ) ) );
+        Assertions.assertNotNull( updatedMembership.getSnapshotRefreshAttemptedAt() );
+        Assertions.assertTrue( acspMembersRepository.fetchMembershipsWithStaleSnapshot( LocalDateTime.now().minusHours( 1 ), 10 ).isEmpty() );
+    }
+
+    @Test
+    void archiveMembershipsRemovedBeforeMovesOldRemovedMembershipsIntoArchive(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002", "COM003", "COM004", "COM005", "COM006" ) );
+
+        Assertions.assertEquals( 2, acspMembersRepository.archiveMembershipsRemovedBefore( LocalDateTime.now().minusYears( 6 ), 10 ) );
+        Assertions.assertEquals( 0, acspMembersRepository.archiveMembershipsRemovedBefore( LocalDateTime.now().minusYears( 6 ), 10 ) );
+
+        Assertions.assertFalse( acspMembersRepository.findById( "COM001" ).isPresent() );
+        Assertions.assertFalse( acspMembersRepository.findById( "COM003" ).isPresent() );
+        Assertions.assertTrue( acspMembersRepository.findById( "COM006" ).isPresent() );
+        Assertions.assertEquals( "COMU001", acspMembersRepository.fetchArchivedMembership( "COM001" ).get().getUserId() );
+        Assertions.assertFalse( acspMembersRepository.fetchArchivedMembership( "COM002" ).isPresent() );
+        Assertions.assertFalse( acspMembersRepository.fetchArchivedMembership( null ).isPresent() );
+    }
+
+    @Test
+    void fetchMembershipsIncludingArchivedReadsHotAndArchiveCollections(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002", "COM003", "COM004", "COM005", "COM006" ) );
+        acspMembersRepository.archiveMembershipsRemovedBefore( LocalDateTime.now().minusYears( 6 ), 10 );
+
+        final var filter = new Document( "acsp_number", "COMA001" );
+        Assertions.assertEquals( 4, acspMembersRepository.fetchNumberOfActiveAndRemovedMembershipsForAcspNumber( "COMA001" ) );
+        Assertions.assertEquals( 6, acspMembersRepository.fetchNumberOfMembershipsIncludingArchived( filter ) );
+        Assertions.assertEquals( 6, acspMembersRepository.fetchMembershipsIncludingArchived( filter, PageRequest.of( 0, 10 ) ).size() );
+        Assertions.assertEquals( 2, acspMembersRepository.fetchMembershipsIncludingArchived( filter, PageRequest.of( 2, 2 ) ).size() );
+        Assertions.assertEquals( List.of( "COM001", "COM002" ), acspMembersRepository.fetchMembershipsIncludingArchived( filter.append( "user_role", "owner" ), PageRequest.of( 0, 10 ) ).stream().map( AcspMembersDao::getId ).sorted().toList() );
+    }
+
+    @Test
+    void fetchMembershipsIncludingArchivedReturnsMembershipCopiedToArchiveButNotYetDeletedOnce(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002", "COM003" ) );
+        mongoTemplate.insert( acspMembersRepository.findById( "COM002" ).get(), "acsp_members_archive" );
+
+        final var filter = new Document( "acsp_number", "COMA001" );
+        Assertions.assertEquals( 3, acspMembersRepository.fetchNumberOfMembershipsIncludingArchived( filter ) );
+        Assertions.assertEquals( List.of( "COM001", "COM002", "COM003" ), acspMembersRepository.fetchMembershipsIncludingArchived( filter, PageRequest.of( 0, 10, Sort.by( "_id" ) ) ).stream().map( AcspMembersDao::getId ).toList() );
+        Assertions.assertEquals( List.of( "COM003" ), acspMembersRepository.fetchMembershipsIncludingArchived( filter, PageRequest.of( 1, 2 ) ).stream().map( AcspMembersDao::getId ).toList() );
+    }
+
+    @Test
+    void fetchMembershipsIncludingArchivedPagesThroughSortedHotAndArchivedMemberships(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002", "COM003", "COM004", "COM005", "COM006" ) );
+        acspMembersRepository.archiveMembershipsRemovedBefore( LocalDateTime.now().minusYears( 6 ), 10 );
+
+        final var filter = new Document( "acsp_number", "COMA001" );
+        final var sort = Sort.by( "_id" );
+        final var firstPage = acspMembersRepository.fetchMembershipsIncludingArchived( filter, PageRequest.of( 0, 4, sort ) ).stream().map( AcspMembersDao::getId ).toList();
+        final var secondPage = acspMembersRepository.fetchMembershipsIncludingArchived( filter, PageRequest.of( 1, 4, sort ) ).stream().map( AcspMembersDao::getId ).toList();
+
+        Assertions.assertEquals( List.of( "COM001", "COM002", "COM003", "COM004" ), firstPage );
+        Assertions.assertEquals( List.of( "COM005", "COM006" ), secondPage );
+    }
+
+    @Test
+    void fetchMembershipsForMigrationAndApplyMigrationWorkThroughMatchingMembershipsInIdOrder(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002", "COM003" ) );
+        final var filter = new Document( "schema_version", new Document( "$exists", false ) );
+
+        final var firstBatch = acspMembersRepository.fetchMembershipsForMigration( filter, null, 2 );
+        Assertions.assertEquals( List.of( "COM001", "COM002" ), firstBatch.stream().map( membership -> membership.get( "_id" ) ).toList() );
+        Assertions.assertEquals( 2, acspMembersRepository.applyMigration( firstBatch, filter, 1, membership -> new Update().set( "added_by", "migration" ) ) );
+
+        final var secondBatch = acspMembersRepository.fetchMembershipsForMigration( filter, "COM002", 2 );
+        Assertions.assertEquals( List.of( "COM003" ), secondBatch.stream().map( membership -> membership.get( "_id" ) ).toList() );
+        Assertions.assertTrue( acspMembersRepository.fetchMembershipsForMigration( filter, null, 10 ).stream().map( membership -> membership.get( "_id" ) ).toList().contains( "COM003" ) );
+        Assertions.assertEquals( 1, acspMembersRepository.fetchMembershipsForMigration( filter, null, 10 ).size() );
+
+        final var migratedMembership = acspMembersRepository.findById( "COM001" ).get();
+        Assertions.assertEquals( 1, migratedMembership.getSchemaVersion() );
+        Assertions.assertEquals( "migration", migratedMembership.getAddedBy() );
+        Assertions.assertEquals( 0, acspMembersRepository.applyMigration( List.of(), filter, 1, membership -> new Update() ) );
+    }
+
+    @Test
+    void fetchMembershipsForMigrationPagesFromStringIdsOntoObjectIdsUsingStoredIdTypes(){
+        final var objectId = new ObjectId();
+        mongoTemplate.getCollection( "acsp_members" ).insertMany( List.of(
+                new Document( "_id", "COM001" ).append( "user_id", "COMU001" ),
+                new Document( "_id", objectId.toHexString() ).append( "user_id", "COMU002" ),
+                new Document( "_id", objectId ).append( "user_id", "COMU003" ) ) );
+        final var filter = new Document();
+
+        final var firstBatch = acspMembersRepository.fetchMembershipsForMigration( filter, null, 2 );
+        Assertions.assertEquals( List.of( "COM001", objectId.toHexString() ), firstBatch.stream().map( membership -> membership.get( "_id" ) ).toList() );
+
+        final var secondBatch = acspMembersRepository.fetchMembershipsForMigration( filter, firstBatch.getLast().get( "_id" ), 2 );
+        Assertions.assertEquals( List.of( objectId ), secondBatch.stream().map( membership -> membership.get( "_id" ) ).toList() );
+        Assertions.assertTrue( acspMembersRepository.fetchMembershipsForMigration( filter, objectId, 2 ).isEmpty() );
+
+        Assertions.assertEquals( 2, acspMembersRepository.applyMigration( List.of( firstBatch.getLast(), secondBatch.getFirst() ), filter, 2, membership -> new Update().set( "added_by", "migration" ) ) );
+        Assertions.assertEquals( "migration", mongoTemplate.getCollection( "acsp_members" ).find( new Document( "_id", objectId.toHexString() ) ).first().getString( "added_by" ) );
+        Assertions.assertEquals( "migration", mongoTemplate.getCollection( "acsp_members" ).find( new Document( "_id", objectId ) ).first().getString( "added_by" ) );
+    }
+
+    @Test
+    void applyMigrationSkipsMembershipsForWhichMigrationReturnsNoUpdate(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002" ) );
+        final var filter = new Document( "schema_version", new Document( "$exists", false ) );
+
+        final var batch = acspMembersRepository.fetchMembershipsForMigration( filter, null, 2 );
+        Assertions.assertEquals( 1, acspMembersRepository.applyMigration( batch, filter, 1, membership -> "COM001".equals( membership.getId() ) ? null : new Update() ) );
+        Assertions.assertNull( acspMembersRepository.findById( "COM001" ).get().getSchemaVersion() );
+        Assertions.assertEquals( 0, acspMembersRepository.applyMigration( batch, filter, 1, membership -> null ) );
+    }
+
+    @Test
+    void applyMigrationSkipsMembershipsNoLongerMatchingMigrationFilter(){
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM001", "COM002" ) );
+        final var filter = new Document( "schema_version", new Document( "$exists", false ) );
+
+        final var batch = acspMembersRepository.fetchMembershipsForMigration( filter, null, 2 );
+        Assertions.assertEquals( 2, acspMembersRepository.applyMigration( batch, filter, 1, membership -> new Update().set( "added_by", "first" ) ) );
+        Assertions.assertEquals( 0, acspMembersRepository.applyMigration( batch, filter, 1, membership -> new Update().set( "added_by", "second" ) ) );
+        Assertions.assertEquals( "first", acspMembersRepository.findById( "COM001" ).get().getAddedBy() );
+    }
+
+    @Test
+    void acquireMigrationLeaseGrantsLeaseToOneInstanceUntilItExpires(){
+        final var lease = migrationProgressRepository.acquireMigrationLease( 1, "Migration 1", "instance-a", Duration.ofMinutes( 1 ) );
+        Assertions.assertTrue( lease.isPresent() );
+        Assertions.assertEquals( "running", lease.get().getStatus() );
+        Assertions.assertEquals( "instance-a", lease.get().getLeaseOwner() );
+
+        Assertions.assertTrue( migrationProgressRepository.acquireMigrationLease( 1, "Migration 1", "instance-b", Duration.ofMinutes( 1 ) ).isEmpty() );
+        Assertions.assertTrue( migrationProgressRepository.acquireMigrationLease( 1, "Migration 1", "instance-a", Duration.ofMinutes( 1 ) ).isPresent() );
+        Assertions.assertFalse( migrationProgressRepository.updateMigrationProgress( lease.get().processedCount( 10 ), "instance-b" ) );
+        Assertions.assertTrue( migrationProgressRepository.updateMigrationProgress( lease.get().processedCount( 2 ), "instance-a" ) );
+        Assertions.assertEquals( 2, migrationProgressRepository.findById( 1 ).get().getProcessedCount() );
+
+        mongoTemplate.updateFirst( Query.query( Criteria.where( "_id" ).is( 1 ) ), new Update().set( "lease_expires_at", LocalDateTime.now().minusSeconds( 1 ) ), MigrationProgressDao.class );
+        Assertions.assertEquals( "instance-b", migrationProgressRepository.acquireMigrationLease( 1, "Migration 1", "instance-b", Duration.ofMinutes( 1 ) ).get().getLeaseOwner() );
+    }
+
+    @Test
+    void fetchEarliestActiveMembershipForUserIdReturnsEarliestAddedActiveMembership(){
+        final var now = LocalDateTime.now();
+        acspMembersRepository.insert( List.of(
+                new AcspMembersDao().id( "DUP001" ).userId( "DUPU001" ).acspNumber( "DUPA001" ).userRole( UserRoleEnum.STANDARD.getValue() ).status( MembershipStatusEnum.ACTIVE.getValue() ).addedAt( now.minusDays( 1 ) ),
+                new AcspMembersDao().id( "DUP002" ).userId( "DUPU001" ).acspNumber( "DUPA002" ).userRole( UserRoleEnum.STANDARD.getValue() ).status( MembershipStatusEnum.ACTIVE.getValue() ).addedAt( now ),
+                new AcspMembersDao().id( "DUP003" ).userId( "DUPU001" ).acspNumber( "DUPA003" ).userRole( UserRoleEnum.STANDARD.getValue() ).status( MembershipStatusEnum.REMOVED.getValue() ).addedAt( now.minusDays( 2 ) ) ) );
+
+        Assertions.assertEquals( "DUP001", acspMembersRepository.fetchEarliestActiveMembershipForUserId( "DUPU001" ).get().getId() );
+        Assertions.assertTrue( acspMembersRepository.fetchEarliestActiveMembershipForUserId( "DUPU002" ).isEmpty() );
+    }
+
+    @Test
+    void ensureActiveMembershipUniqueIndexFailsWhileDuplicateActiveMembershipsExist(){
+        acspMembersRepository.insert( List.of(
+                new AcspMembersDao().id( "DUP001" ).userId( "DUPU001" ).acspNumber( "DUPA001" ).userRole( UserRoleEnum.STANDARD.getValue() ).status( MembershipStatusEnum.ACTIVE.getValue() ),
+                new AcspMembersDao().id( "DUP002" ).userId( "DUPU001" ).acspNumber( "DUPA002" ).userRole( UserRoleEnum.STANDARD.getValue() ).status( MembershipStatusEnum.ACTIVE.getValue() ) ) );
+
+        Assertions.assertThrows( DuplicateKeyException.class, acspMembersRepository::ensureActiveMembershipUniqueIndex );
+
+        mongoTemplate.updateFirst( Query.query( Criteria.where( "_id" ).is( "DUP002" ) ), new Update().set( "status", MembershipStatusEnum.REMOVED.getValue() ), AcspMembersDao.class );
+        acspMembersRepository.ensureActiveMembershipUniqueIndex();
+
+        Assertions.assertThrows( DuplicateKeyException.class, () -> mongoTemplate.insert( new AcspMembersDao().id( "DUP003" ).userId( "DUPU001" ).acspNumber( "DUPA003" ).userRole( UserRoleEnum.STANDARD.getValue() ).status( MembershipStatusEnum.ACTIVE.getValue() ) ) );
+    }
+
     @AfterEach
     public void after() {
+        mongoTemplate.dropCollection( "acsp_members_archive" );
         mongoTemplate.dropCollection( AcspMembersDao.class );
+        mongoTemplate.dropCollection( MigrationProgressDao.class );
     }
 
 }
\ No newline at end of file
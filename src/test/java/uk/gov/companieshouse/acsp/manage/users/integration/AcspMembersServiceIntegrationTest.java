@@ -11,6 +11,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.mock.web.MockHttpServletRequest;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.ConflictRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.ForbiddenRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.InternalServerErrorRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContext;
 import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextData.RequestContextDataBuilder;
@@ -22,6 +24,7 @@ import uk.gov.companieshouse.acsp.manage.users.service.AcspProfileService;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
 import uk.gov.companieshouse.api.accounts.user.model.User;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership;
+import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.MembershipStatusEnum;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembershipsList;
 import uk.gov.companieshouse.api.acsp_manage_users.model.RequestBodyPatch.UserStatusEnum;
@@ -330,15 +333,45 @@ class AcspMembersServiceIntegrationTest extends BaseMongoIntegration {
     }
 
     @Test
-    void updateMembershipWithNullMembershipIdThrowsInternalServerErrorRuntimeException() {
+    void updateMembershipWithNullMembershipThrowsInternalServerErrorRuntimeException() {
         Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> acspMembersService.updateMembership( null, UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
     }
 
     @Test
-    void
-    updateMembershipWithMalformedOrNonexistentMembershipIdThrowsInternalServerErrorRuntimeException() {
-        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> acspMembersService.updateMembership( "£££", UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
-        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> acspMembersService.updateMembership( "TS001", UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
+    void updateMembershipWithMalformedOrNonexistentMembershipIdThrowsConflictRuntimeException() {
+        final var malformedMembership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        malformedMembership.setId( "£££" );
+        Assertions.assertThrows( ConflictRuntimeException.class, () -> acspMembersService.updateMembership( malformedMembership, UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
+        Assertions.assertThrows( ConflictRuntimeException.class, () -> acspMembersService.updateMembership( testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst(), UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
+    }
+
+    @Test
+    void updateMembershipWhereMembershipHasChangedSinceItWasReadThrowsConflictRuntimeException() {
+        final var originalDao = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        acspMembersRepository.insert( originalDao );
+
+        acspMembersService.updateMembership( originalDao, null, UserRoleEnum.STANDARD, "TSU002" );
+
+        Assertions.assertThrows( ConflictRuntimeException.class, () -> acspMembersService.updateMembership( originalDao, UserStatusEnum.REMOVED, null, "TSU002" ) );
+        Assertions.assertEquals( MembershipStatusEnum.ACTIVE.getValue(), acspMembersRepository.findById( "TS001" ).get().getStatus() );
+    }
+
+    @Test
+    void updateMembershipKeepsLastActiveOwnerOfAcsp() {
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM002", "COM010" ) );
+
+        acspMembersService.updateMembership( acspMembersRepository.findById( "COM002" ).get(), null, UserRoleEnum.ADMIN, "TSU002", true );
+
+        Assertions.assertThrows( ForbiddenRuntimeException.class, () -> acspMembersService.updateMembership( acspMembersRepository.findById( "COM010" ).get(), UserStatusEnum.REMOVED, null, "TSU002", true ) );
+        Assertions.assertEquals( UserRoleEnum.ADMIN, acspMembersRepository.findById( "COM002" ).get().getUserRole() );
+        Assertions.assertEquals( MembershipStatusEnum.ACTIVE.getValue(), acspMembersRepository.findById( "COM010" ).get().getStatus() );
+    }
+
+    @Test
+    void updateMembershipWithRemovedMembershipThrowsConflictRuntimeException() {
+        final var removedDao = testDataManager.fetchAcspMembersDaos( "TS002" ).getFirst();
+        acspMembersRepository.insert( removedDao );
+        Assertions.assertThrows( ConflictRuntimeException.class, () -> acspMembersService.updateMembership( removedDao, null, UserRoleEnum.STANDARD, "TSU001" ) );
     }
 
     @Test
@@ -346,8 +379,7 @@ class AcspMembersServiceIntegrationTest extends BaseMongoIntegration {
         final var originalDao = testDataManager.fetchAcspMembersDaos("TS001").getFirst();
         acspMembersRepository.insert(originalDao);
 
-        acspMembersService.updateMembership("TS001", null, null, "TSU002");
-        final var updatedDao = acspMembersRepository.findById("TS001").get();
+        final var updatedDao = acspMembersService.updateMembership(originalDao, null, null, "TSU002");
 
         Assertions.assertNotEquals(originalDao.getEtag(), updatedDao.getEtag());
         Assertions.assertEquals(originalDao.getUserRole(), updatedDao.getUserRole());
@@ -361,8 +393,7 @@ class AcspMembersServiceIntegrationTest extends BaseMongoIntegration {
         final var originalDao = testDataManager.fetchAcspMembersDaos("TS001").getFirst();
         acspMembersRepository.insert(originalDao);
 
-        acspMembersService.updateMembership("TS001", null, UserRoleEnum.STANDARD, "TSU002");
-        final var updatedDao = acspMembersRepository.findById("TS001").get();
+        final var updatedDao = acspMembersService.updateMembership(originalDao, null, UserRoleEnum.STANDARD, "TSU002");
 
         Assertions.assertNotEquals(originalDao.getEtag(), updatedDao.getEtag());
         Assertions.assertEquals(UserRoleEnum.STANDARD, updatedDao.getUserRole());
@@ -377,8 +408,7 @@ class AcspMembersServiceIntegrationTest extends BaseMongoIntegration {
         final var originalDao = testDataManager.fetchAcspMembersDaos("TS001").getFirst();
         acspMembersRepository.insert(originalDao);
 
-        acspMembersService.updateMembership("TS001", UserStatusEnum.REMOVED, null, "TSU002");
-        final var updatedDao = acspMembersRepository.findById("TS001").get();
+        final var updatedDao = acspMembersService.updateMembership(originalDao, UserStatusEnum.REMOVED, null, "TSU002");
 
         Assertions.assertNotEquals(originalDao.getEtag(), updatedDao.getEtag());
         Assertions.assertEquals(originalDao.getUserRole(), updatedDao.getUserRole());
@@ -392,8 +422,7 @@ class AcspMembersServiceIntegrationTest extends BaseMongoIntegration {
         final var originalDao = testDataManager.fetchAcspMembersDaos("TS001").getFirst();
         acspMembersRepository.insert(originalDao);
 
-        acspMembersService.updateMembership("TS001", UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002");
-        final var updatedDao = acspMembersRepository.findById("TS001").get();
+        final var updatedDao = acspMembersService.updateMembership(originalDao, UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002");
 
         Assertions.assertNotEquals(originalDao.getEtag(), updatedDao.getEtag());
         Assertions.assertEquals(UserRoleEnum.STANDARD, updatedDao.getUserRole());
@@ -407,8 +436,7 @@ class AcspMembersServiceIntegrationTest extends BaseMongoIntegration {
         final var originalDao = testDataManager.fetchAcspMembersDaos("TS001").getFirst();
         acspMembersRepository.insert(originalDao);
 
-        acspMembersService.updateMembership("TS001", UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, null);
-        final var updatedDao = acspMembersRepository.findById("TS001").get();
+        final var updatedDao = acspMembersService.updateMembership(originalDao, UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, null);
 
         Assertions.assertNotEquals(originalDao.getEtag(), updatedDao.getEtag());
         Assertions.assertEquals(UserRoleEnum.STANDARD, updatedDao.getUserRole());
@@ -596,6 +596,26 @@ class AcspMembershipControllerTest extends BaseMongoIntegration {
                 .andExpect( status().isOk() );
     }
 
+    @Test
+    void updateAcspMembershipForAcspAndIdOnRemovedMembershipSucceeds() throws Exception {
+        acspMembersRepository.insert( testDataManager.fetchAcspMembersDaos( "COM004", "COM006" ) );
+        Mockito.doReturn( testDataManager.fetchAcspProfiles( "COMA001" ).getFirst() ).when( acspProfileService ).fetchAcspProfile( "COMA001" );
+
+        mockMvc.perform( patch( "/acsps/memberships/COM006" )
+                        .header("X-Request-Id", "theId123")
+                        .header("Eric-identity", "COMU001" )
+                        .header("ERIC-Identity-Type", "key")
+                        .header("ERIC-Authorised-Key-Roles", "*")
+                        .header( "Eric-Authorised-Token-Permissions", "" )
+                        .contentType( MediaType.APPLICATION_JSON )
+                        .content( "{\"user_role\":\"admin\"}" ) )
+                .andExpect( status().isOk() );
+
+        final var updatedDao = acspMembersRepository.findById( "COM006" ).get();
+        Assertions.assertEquals( UserRoleEnum.ADMIN, updatedDao.getUserRole() );
+        Assertions.assertEquals( UserStatusEnum.REMOVED.getValue(), updatedDao.getStatus() );
+    }
+
     @AfterEach
     public void after() {
         mongoTemplate.dropCollection( AcspMembersDao.class );
@@ -13,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
@@ -607,7 +608,7 @@ class AcspMembershipsControllerIntegrationTest extends BaseMongoIntegration {
         static Stream<Arguments> addMemberForAcspWithUserIdWithIncorrectPermissionsTestData(){
             return Stream.of(
                     Arguments.of( "COMU002", "{\"user_id\":\"COMU002\",\"user_role\":\"standard\"}", testDataManager.fetchTokenPermissions( "COM002" ) ),
-                    Arguments.of( "COMU005", "{\"user_id\":\"COMU002\",\"user_role\":\"owner\"}", testDataManager.fetchTokenPermissions( "COM005" ) )
+                    Arguments.of( "COMU005", "{\"user_id\":\"COMU002\",\"user_role\":\"standard\"}", testDataManager.fetchTokenPermissions( "COM005" ) )
             );
         }
 
@@ -770,6 +771,14 @@ class AcspMembershipsControllerIntegrationTest extends BaseMongoIntegration {
 
     }
 
+    @BeforeEach
+    public void before() {
+        new MongoPersistentEntityIndexResolver( mongoTemplate.getConverter().getMappingContext() )
+                .resolveIndexFor( AcspMembersDao.class )
+                .forEach( mongoTemplate.indexOps( AcspMembersDao.class )::ensureIndex );
+        acspMembersRepository.ensureActiveMembershipUniqueIndex();
+    }
+
     @AfterEach
     public void after() {
         mongoTemplate.dropCollection(AcspMembersDao.class);
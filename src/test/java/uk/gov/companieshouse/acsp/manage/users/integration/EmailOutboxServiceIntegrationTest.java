@@ -0,0 +1,143 @@
+package uk.gov.companieshouse.acsp.manage.users.integration;
+
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.MessageType.CONFIRM_YOU_ARE_A_STANDARD_MEMBER_MESSAGE_TYPE;
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.MessageType.YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_ADMIN_MESSAGE_TYPE;
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.MessageType.YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.model.EmailOutboxDao;
+import uk.gov.companieshouse.acsp.manage.users.model.email.ConfirmYouAreAMember.ConfirmYouAreAStandardMemberEmailData;
+import uk.gov.companieshouse.acsp.manage.users.model.email.YourRoleAtAcspHasChanged.YourRoleAtAcspHasChangedToAdminEmailData;
+import uk.gov.companieshouse.acsp.manage.users.model.email.YourRoleAtAcspHasChanged.YourRoleAtAcspHasChangedToOwnerEmailData;
+import uk.gov.companieshouse.acsp.manage.users.service.EmailOutboxService;
+import uk.gov.companieshouse.acsp.manage.users.utils.StaticPropertyUtil;
+
+@Tag( "integration-test" )
+@DataMongoTest
+@Import( { EmailOutboxService.class, EmailOutboxServiceIntegrationTest.TransactionConfig.class } )
+class EmailOutboxServiceIntegrationTest extends BaseMongoIntegration {
+
+    @TestConfiguration
+    static class TransactionConfig {
+
+        @Bean
+        MongoTransactionManager transactionManager( final MongoDatabaseFactory mongoDatabaseFactory ){
+            return new MongoTransactionManager( mongoDatabaseFactory );
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate( final MongoTransactionManager transactionManager ){
+            return new TransactionTemplate( transactionManager );
+        }
+
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @MockBean
+    private StaticPropertyUtil staticPropertyUtil;
+
+    private final TestDataManager testDataManager = TestDataManager.getInstance();
+
+    private final ConfirmYouAreAStandardMemberEmailData emailData = new ConfirmYouAreAStandardMemberEmailData( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", "https://signin" );
+
+    @BeforeEach
+    void setup(){
+        ReflectionTestUtils.setField( emailOutboxService, "outboxEnabled", true );
+        mongoTemplate.createCollection( AcspMembersDao.class );
+        mongoTemplate.createCollection( EmailOutboxDao.class );
+        new MongoPersistentEntityIndexResolver( mongoTemplate.getConverter().getMappingContext() )
+                .resolveIndexFor( EmailOutboxDao.class )
+                .forEach( mongoTemplate.indexOps( EmailOutboxDao.class )::ensureIndex );
+    }
+
+    @Test
+    void recordWithinCommittedTransactionPersistsMembershipAndOutboxEntry(){
+        emailOutboxService.withinTransaction( () -> {
+            mongoTemplate.insert( testDataManager.fetchAcspMembersDaos( "COM001" ).getFirst() );
+            emailOutboxService.record( emailData, CONFIRM_YOU_ARE_A_STANDARD_MEMBER_MESSAGE_TYPE );
+            return null;
+        } );
+
+        Assertions.assertEquals( 1, mongoTemplate.count( new Query(), AcspMembersDao.class ) );
+        final var outboxEntry = mongoTemplate.findOne( new Query(), EmailOutboxDao.class );
+        Assertions.assertEquals( "pending", outboxEntry.getStatus() );
+        Assertions.assertEquals( CONFIRM_YOU_ARE_A_STANDARD_MEMBER_MESSAGE_TYPE.getValue(), outboxEntry.getMessageType() );
+    }
+
+    @Test
+    void failureWithinTransactionRollsBackMembershipAndOutboxEntry(){
+        Assertions.assertThrows( IllegalStateException.class, () -> emailOutboxService.withinTransaction( () -> {
+            mongoTemplate.insert( testDataManager.fetchAcspMembersDaos( "COM001" ).getFirst() );
+            emailOutboxService.record( emailData, CONFIRM_YOU_ARE_A_STANDARD_MEMBER_MESSAGE_TYPE );
+            throw new IllegalStateException( "Email could not be recorded" );
+        } ) );
+
+        Assertions.assertEquals( 0, mongoTemplate.count( new Query(), AcspMembersDao.class ) );
+        Assertions.assertEquals( 0, mongoTemplate.count( new Query(), EmailOutboxDao.class ) );
+    }
+
+    @Test
+    void recordingTheSameEmailTwiceInTheSameRequestKeepsOneOutboxEntry(){
+        emailOutboxService.withinTransaction( () -> {
+            emailOutboxService.record( emailData, CONFIRM_YOU_ARE_A_STANDARD_MEMBER_MESSAGE_TYPE );
+            return null;
+        } );
+        emailOutboxService.withinTransaction( () -> {
+            emailOutboxService.record( emailData, CONFIRM_YOU_ARE_A_STANDARD_MEMBER_MESSAGE_TYPE );
+            return null;
+        } );
+
+        Assertions.assertEquals( 1, mongoTemplate.count( new Query(), EmailOutboxDao.class ) );
+    }
+
+    @Test
+    void recordWithCoalescingKeyKeepsOnePendingEntryWithTheLatestEmail(){
+        emailOutboxService.record( new YourRoleAtAcspHasChangedToAdminEmailData( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", "https://signin" ), YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_ADMIN_MESSAGE_TYPE, "TS001:buzz.lightyear@toystory.com", 60000L );
+        emailOutboxService.record( new YourRoleAtAcspHasChangedToOwnerEmailData( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", "https://signin" ), YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE, "TS001:buzz.lightyear@toystory.com", 60000L );
+
+        Assertions.assertEquals( 1, mongoTemplate.count( new Query(), EmailOutboxDao.class ) );
+        Assertions.assertEquals( YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE.getValue(), mongoTemplate.findOne( new Query(), EmailOutboxDao.class ).getMessageType() );
+    }
+
+    @Test
+    void pendingEntriesWithTheSameCoalescingKeyAreRejectedByTheIndex(){
+        mongoTemplate.insert( new EmailOutboxDao().id( "outbox001" ).status( "pending" ).coalescingKey( "TS001:buzz.lightyear@toystory.com" ) );
+        mongoTemplate.insert( new EmailOutboxDao().id( "outbox002" ).status( "sent" ).coalescingKey( "TS001:buzz.lightyear@toystory.com" ) );
+        mongoTemplate.insert( new EmailOutboxDao().id( "outbox003" ).status( "pending" ) );
+        mongoTemplate.insert( new EmailOutboxDao().id( "outbox004" ).status( "pending" ) );
+
+        Assertions.assertThrows( DuplicateKeyException.class, () -> mongoTemplate.insert( new EmailOutboxDao().id( "outbox005" ).status( "pending" ).coalescingKey( "TS001:buzz.lightyear@toystory.com" ) ) );
+    }
+
+    @AfterEach
+    public void after() {
+        mongoTemplate.dropCollection( AcspMembersDao.class );
+        mongoTemplate.dropCollection( EmailOutboxDao.class );
+    }
+
+}
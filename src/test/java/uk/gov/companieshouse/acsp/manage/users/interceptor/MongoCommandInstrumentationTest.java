@@ -0,0 +1,214 @@
+package uk.gov.companieshouse.acsp.manage.users.interceptor;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.DbCallback;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import uk.gov.companieshouse.acsp.manage.users.utils.RepositoryMethodUtil;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class MongoCommandInstrumentationTest {
+
+    @Mock
+    private ObjectProvider<MongoTemplate> mongoTemplateProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MongoCommandInstrumentation mongoCommandInstrumentation;
+
+    @BeforeEach
+    void setup(){
+        meterRegistry = new SimpleMeterRegistry();
+        mongoCommandInstrumentation = new MongoCommandInstrumentation( 200L, "none", meterRegistry, mongoTemplateProvider );
+    }
+
+    private CommandStartedEvent startedEvent( final int requestId, final String commandName, final BsonDocument command ){
+        final var event = Mockito.mock( CommandStartedEvent.class );
+        Mockito.lenient().doReturn( requestId ).when( event ).getRequestId();
+        Mockito.lenient().doReturn( commandName ).when( event ).getCommandName();
+        Mockito.lenient().doReturn( command ).when( event ).getCommand();
+        return event;
+    }
+
+    private CommandSucceededEvent succeededEvent( final int requestId, final String commandName, final BsonDocument response, final long elapsedMillis ){
+        final var event = Mockito.mock( CommandSucceededEvent.class );
+        Mockito.lenient().doReturn( requestId ).when( event ).getRequestId();
+        Mockito.lenient().doReturn( commandName ).when( event ).getCommandName();
+        Mockito.lenient().doReturn( response ).when( event ).getResponse();
+        Mockito.lenient().doReturn( TimeUnit.MILLISECONDS.toNanos( elapsedMillis ) ).when( event ).getElapsedTime( TimeUnit.NANOSECONDS );
+        Mockito.lenient().doReturn( elapsedMillis ).when( event ).getElapsedTime( TimeUnit.MILLISECONDS );
+        return event;
+    }
+
+    @Test
+    void commandSucceededRecordsLatencyAndDocumentsReturnedTaggedByCollection(){
+        final var command = new BsonDocument( "find", new BsonString( "acsp_members" ) );
+        final var firstBatch = new BsonArray();
+        firstBatch.add( new BsonDocument() );
+        firstBatch.add( new BsonDocument() );
+        final var response = new BsonDocument( "cursor", new BsonDocument( "firstBatch", firstBatch ) );
+
+        mongoCommandInstrumentation.commandStarted( startedEvent( 1, "find", command ) );
+        mongoCommandInstrumentation.commandSucceeded( succeededEvent( 1, "find", response, 5L ) );
+
+        final var timer = meterRegistry.get( "acsp.members.mongo.commands" ).tag( "collection", "acsp_members" ).tag( "outcome", "success" ).tag( "repository_method", "unknown" ).timer();
+        Assertions.assertEquals( 1, timer.count() );
+        Assertions.assertEquals( 5.0, timer.totalTime( TimeUnit.MILLISECONDS ) );
+        Assertions.assertEquals( 2.0, meterRegistry.get( "acsp.members.mongo.documents.returned" ).summary().totalAmount() );
+        Mockito.verify( mongoTemplateProvider, Mockito.never() ).getObject();
+    }
+
+    @Test
+    void commandSucceededUsesCountFieldWhenResponseHasNoCursor(){
+        mongoCommandInstrumentation.commandStarted( startedEvent( 2, "update", new BsonDocument( "update", new BsonString( "acsp_members" ) ) ) );
+        mongoCommandInstrumentation.commandSucceeded( succeededEvent( 2, "update", new BsonDocument( "n", new BsonInt32( 3 ) ), 1L ) );
+
+        Assertions.assertEquals( 3.0, meterRegistry.get( "acsp.members.mongo.documents.returned" ).tag( "command", "update" ).summary().totalAmount() );
+    }
+
+    @Test
+    void commandFailedRecordsFailureOutcome(){
+        final var event = Mockito.mock( CommandFailedEvent.class );
+        Mockito.doReturn( 3 ).when( event ).getRequestId();
+        Mockito.doReturn( "find" ).when( event ).getCommandName();
+        Mockito.doReturn( 1_000_000L ).when( event ).getElapsedTime( TimeUnit.NANOSECONDS );
+
+        mongoCommandInstrumentation.commandStarted( startedEvent( 3, "find", new BsonDocument( "find", new BsonString( "acsp_members" ) ) ) );
+        mongoCommandInstrumentation.commandFailed( event );
+
+        Assertions.assertEquals( 1, meterRegistry.get( "acsp.members.mongo.commands" ).tag( "outcome", "failure" ).timer().count() );
+    }
+
+    @Test
+    void commandSucceededWithoutMatchingStartedCommandIsIgnored(){
+        mongoCommandInstrumentation.commandSucceeded( succeededEvent( 4, "find", new BsonDocument(), 1L ) );
+
+        Assertions.assertTrue( meterRegistry.getMeters().isEmpty() );
+    }
+
+    @Test
+    void explainCommandsAreNotInstrumented(){
+        mongoCommandInstrumentation.commandStarted( startedEvent( 5, "explain", new BsonDocument( "explain", new BsonDocument() ) ) );
+        mongoCommandInstrumentation.commandSucceeded( succeededEvent( 5, "explain", new BsonDocument(), 500L ) );
+
+        Assertions.assertTrue( meterRegistry.getMeters().isEmpty() );
+    }
+
+    @Test
+    void slowQueriesAreNotExplainedByDefault(){
+        mongoCommandInstrumentation.commandStarted( startedEvent( 9, "find", new BsonDocument( "find", new BsonString( "acsp_members" ) ) ) );
+        mongoCommandInstrumentation.commandSucceeded( succeededEvent( 9, "find", new BsonDocument(), 500L ) );
+
+        Assertions.assertEquals( 1, meterRegistry.get( "acsp.members.mongo.commands" ).timer().count() );
+        Mockito.verifyNoInteractions( mongoTemplateProvider );
+    }
+
+    @Test
+    void unsupportedExplainVerbosityIsRejected(){
+        Assertions.assertThrows( IllegalArgumentException.class, () -> new MongoCommandInstrumentation( 200L, "allPlansExecution", meterRegistry, mongoTemplateProvider ) );
+    }
+
+    @Test
+    void slowQueriesAreExplainedWithoutSessionOrTransactionFields(){
+        mongoCommandInstrumentation = new MongoCommandInstrumentation( 200L, "queryPlanner", meterRegistry, mongoTemplateProvider );
+        final var mongoTemplate = Mockito.mock( MongoTemplate.class );
+        final var mongoDatabase = Mockito.mock( MongoDatabase.class );
+        Mockito.doReturn( mongoTemplate ).when( mongoTemplateProvider ).getObject();
+        Mockito.doAnswer( invocation -> invocation.<DbCallback<Document>>getArgument( 0 ).doInDB( mongoDatabase ) ).when( mongoTemplate ).execute( any( DbCallback.class ) );
+        Mockito.doReturn( new Document() ).when( mongoDatabase ).runCommand( any( Bson.class ) );
+        final var command = new BsonDocument( "find", new BsonString( "acsp_members" ) )
+                .append( "filter", new BsonDocument( "acsp_number", new BsonString( "TSA001" ) ) )
+                .append( "lsid", new BsonDocument() )
+                .append( "txnNumber", new BsonInt64( 1L ) )
+                .append( "startTransaction", BsonBoolean.TRUE )
+                .append( "autocommit", BsonBoolean.FALSE )
+                .append( "readConcern", new BsonDocument( "level", new BsonString( "snapshot" ) ) )
+                .append( "$clusterTime", new BsonDocument() )
+                .append( "$db", new BsonString( "acsp_members" ) );
+
+        mongoCommandInstrumentation.commandStarted( startedEvent( 10, "find", command ) );
+        mongoCommandInstrumentation.commandSucceeded( succeededEvent( 10, "find", new BsonDocument(), 500L ) );
+
+        final var explainCommand = ArgumentCaptor.forClass( Bson.class );
+        Mockito.verify( mongoDatabase, Mockito.timeout( 2000 ) ).runCommand( explainCommand.capture() );
+        final var expectedCommand = new BsonDocument( "explain", new BsonDocument( "find", new BsonString( "acsp_members" ) ).append( "filter", new BsonDocument( "acsp_number", new BsonString( "TSA001" ) ) ) )
+                .append( "verbosity", new BsonString( "queryPlanner" ) );
+        Assertions.assertEquals( expectedCommand, explainCommand.getValue() );
+    }
+
+    @Test
+    void slowQueriesAreExplained(){
+        mongoCommandInstrumentation = new MongoCommandInstrumentation( 200L, "executionStats", meterRegistry, mongoTemplateProvider );
+        final var mongoTemplate = Mockito.mock( MongoTemplate.class );
+        Mockito.doReturn( mongoTemplate ).when( mongoTemplateProvider ).getObject();
+        Mockito.doReturn( new Document( "executionStats", new Document( "totalDocsExamined", 40 ) ) ).when( mongoTemplate ).execute( any( DbCallback.class ) );
+
+        mongoCommandInstrumentation.commandStarted( startedEvent( 6, "find", new BsonDocument( "find", new BsonString( "acsp_members" ) ) ) );
+        mongoCommandInstrumentation.commandSucceeded( succeededEvent( 6, "find", new BsonDocument(), 500L ) );
+
+        Mockito.verify( mongoTemplate, Mockito.timeout( 2000 ) ).execute( any( DbCallback.class ) );
+    }
+
+    @Test
+    void commandStartedTakesRepositoryMethodFromDriverRequestContext(){
+        final var requestContext = new MongoRequestContext();
+        requestContext.put( RepositoryMethodUtil.REPOSITORY_METHOD_KEY, "ReactiveAcspMembersRepository.fetchActiveMembershipsForAcspNumber" );
+        final var event = startedEvent( 7, "find", new BsonDocument( "find", new BsonString( "acsp_members" ) ) );
+        Mockito.doReturn( requestContext ).when( event ).getRequestContext();
+
+        mongoCommandInstrumentation.commandStarted( event );
+        mongoCommandInstrumentation.commandSucceeded( succeededEvent( 7, "find", new BsonDocument(), 1L ) );
+        mongoCommandInstrumentation.commandStarted( event );
+        mongoCommandInstrumentation.commandSucceeded( succeededEvent( 7, "find", new BsonDocument(), 1L ) );
+
+        Assertions.assertEquals( 2, meterRegistry.get( "acsp.members.mongo.commands" ).tag( "repository_method", "ReactiveAcspMembersRepository.fetchActiveMembershipsForAcspNumber" ).timer().count() );
+    }
+
+    @Test
+    void slowAggregationsRecordDocumentsExaminedFromCursorStage(){
+        mongoCommandInstrumentation = new MongoCommandInstrumentation( 200L, "executionStats", meterRegistry, mongoTemplateProvider );
+        final var mongoTemplate = Mockito.mock( MongoTemplate.class );
+        final var cursorStage = new Document( "queryPlanner", new Document( "winningPlan", new Document( "stage", "FETCH" ).append( "inputStage", new Document( "stage", "IXSCAN" ).append( "indexName", "acsp_number_added_at_sort" ) ) ) )
+                .append( "executionStats", new Document( "nReturned", 3 ).append( "totalKeysExamined", 3 ).append( "totalDocsExamined", 3 ) );
+        Mockito.doReturn( mongoTemplate ).when( mongoTemplateProvider ).getObject();
+        Mockito.doReturn( new Document( "stages", List.of( new Document( "$cursor", cursorStage ) ) ) ).when( mongoTemplate ).execute( any( DbCallback.class ) );
+
+        mongoCommandInstrumentation.commandStarted( startedEvent( 8, "aggregate", new BsonDocument( "aggregate", new BsonString( "acsp_members" ) ) ) );
+        mongoCommandInstrumentation.commandSucceeded( succeededEvent( 8, "aggregate", new BsonDocument(), 500L ) );
+
+        Mockito.verify( mongoTemplate, Mockito.timeout( 2000 ) ).execute( any( DbCallback.class ) );
+        Assertions.assertTimeoutPreemptively( Duration.ofSeconds( 2 ), () -> {
+            while ( meterRegistry.find( "acsp.members.mongo.documents.examined" ).summaries().stream().noneMatch( summary -> summary.totalAmount() == 3.0 ) ){
+                Thread.onSpinWait();
+            }
+        } );
+    }
+
+}
@@ -1,13 +1,17 @@
 package uk.gov.companieshouse.acsp.manage.users.interceptor;
 
+import static uk.gov.companieshouse.acsp.manage.users.model.Constants.REQUEST_CONTEXT_DATA;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getActiveAcspRole;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getEricAuthorisedKeyRoles;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getEricIdentity;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getEricIdentityType;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getIfMatch;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getSort;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getUser;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
 import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.OWNER;
 
+import jakarta.servlet.DispatcherType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
@@ -19,11 +23,19 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
+import uk.gov.companieshouse.acsp.manage.users.controller.AcspMembershipController;
+import uk.gov.companieshouse.acsp.manage.users.controller.AcspMembershipsController;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.ForbiddenRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContext;
+import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextData.RequestContextDataBuilder;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
+import uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
+import uk.gov.companieshouse.api.acsp_manage_users.model.RequestBodyPatch;
+import uk.gov.companieshouse.api.acsp_manage_users.model.RequestBodyPost;
 
 @ExtendWith( MockitoExtension.class )
 @Tag( "unit-test" )
@@ -37,6 +49,10 @@ class RequestLifecycleInterceptorTest {
 
     private final TestDataManager testDataManager = TestDataManager.getInstance();
 
+    private HandlerMethod listMembershipsHandler() throws NoSuchMethodException {
+        return new HandlerMethod( Mockito.mock( AcspMembershipsController.class ), AcspMembershipsController.class.getMethod( "getMembersForAcsp", String.class, String.class, Boolean.class, Integer.class, Integer.class, String.class ) );
+    }
+
     @Test
     void preHandleWithKeyRequestSetsRequestContextWithoutUserAndReturnsTrue(){
         final var request = new MockHttpServletRequest();
@@ -84,7 +100,31 @@ class RequestLifecycleInterceptorTest {
     }
 
     @Test
-    void preHandleWithOAuth2RequestWithNonexistentUserDoesNotSetRequestContextAndReturnsFalse(){
+    void preHandleWithOAuth2RequestDoesNotFetchUserUntilItIsAccessed(){
+        final var user = testDataManager.fetchUserDtos( "COMU002" ).getFirst();
+
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "X-Request-Id", "theId123" );
+        request.addHeader( "Eric-Identity", user.getUserId() );
+        request.addHeader( "Eric-Identity-Type", "oauth2" );
+        request.addHeader( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "COM002" ) );
+
+        final var response = new MockHttpServletResponse();
+
+        Mockito.doReturn( user ).when( usersService ).fetchUserDetails( user.getUserId() );
+
+        final var result = requestLifecycleInterceptor.preHandle( request, response, null );
+
+        Assertions.assertTrue( result );
+        Mockito.verify( usersService, Mockito.never() ).fetchUserDetails( user.getUserId() );
+
+        Assertions.assertEquals( user, getUser() );
+        Assertions.assertEquals( user, getUser() );
+        Mockito.verify( usersService ).fetchUserDetails( user.getUserId() );
+    }
+
+    @Test
+    void preHandleWithOAuth2RequestWithNonexistentUserThrowsForbiddenWhenUserIsAccessed(){
         final var user = testDataManager.fetchUserDtos( "COMU002" ).getFirst();
 
         final var request = new MockHttpServletRequest();
@@ -99,13 +139,97 @@ class RequestLifecycleInterceptorTest {
 
         final var result = requestLifecycleInterceptor.preHandle( request, response, null );
 
-        Assertions.assertFalse( result );
-        Assertions.assertEquals( "unknown", getXRequestId() );
-        Assertions.assertEquals( "unknown", getEricIdentity() );
-        Assertions.assertEquals( "unknown", getEricIdentityType() );
-        Assertions.assertNull( getActiveAcspRole() );
-        Assertions.assertNull( getUser() );
-        Assertions.assertEquals( 403, response.getStatus() );
+        Assertions.assertTrue( result );
+        Assertions.assertEquals( "theId123", getXRequestId() );
+        Assertions.assertEquals( OWNER, getActiveAcspRole() );
+        Assertions.assertThrows( ForbiddenRuntimeException.class, RequestContextUtil::getUser );
+        Assertions.assertEquals( 200, response.getStatus() );
+    }
+
+    @Test
+    void preHandleReusesRequestContextDataParsedByFilter() throws NoSuchMethodException {
+        final var user = testDataManager.fetchUserDtos( "COMU002" ).getFirst();
+
+        final var filterRequest = new MockHttpServletRequest();
+        filterRequest.addHeader( "X-Request-Id", "filterId" );
+        filterRequest.addHeader( "Eric-Identity", user.getUserId() );
+        filterRequest.addHeader( "Eric-Identity-Type", "oauth2" );
+        filterRequest.addHeader( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "COM002" ) );
+
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "X-Request-Id", "headerId" );
+        request.addHeader( "If-Match", "\"etag\"" );
+        request.setParameter( "sort", "added_at" );
+        request.setAttribute( REQUEST_CONTEXT_DATA, new RequestContextDataBuilder()
+                .setXRequestId( filterRequest )
+                .setEricIdentity( filterRequest )
+                .setEricIdentityType( filterRequest )
+                .setActiveAcspRole( filterRequest )
+                .build() );
+
+        final var response = new MockHttpServletResponse();
+
+        Mockito.doReturn( user ).when( usersService ).fetchUserDetails( user.getUserId() );
+
+        final var result = requestLifecycleInterceptor.preHandle( request, response, listMembershipsHandler() );
+
+        Assertions.assertTrue( result );
+        Assertions.assertEquals( "filterId", getXRequestId() );
+        Assertions.assertEquals( user.getUserId(), getEricIdentity() );
+        Assertions.assertEquals( OWNER, getActiveAcspRole() );
+        Assertions.assertEquals( user, getUser() );
+        Assertions.assertEquals( "etag", getIfMatch() );
+        Assertions.assertEquals( "added_at", getSort() );
+    }
+
+    @Test
+    void preHandleWithOAuth2RequestToWriteEndpointFetchesUserBeforeHandling() throws NoSuchMethodException {
+        final var user = testDataManager.fetchUserDtos( "COMU002" ).getFirst();
+
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "X-Request-Id", "theId123" );
+        request.addHeader( "Eric-Identity", user.getUserId() );
+        request.addHeader( "Eric-Identity-Type", "oauth2" );
+        request.addHeader( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "COM002" ) );
+
+        final var handler = new HandlerMethod( Mockito.mock( AcspMembershipController.class ), AcspMembershipController.class.getMethod( "updateAcspMembershipForAcspAndId", String.class, String.class, RequestBodyPatch.class ) );
+
+        Mockito.doReturn( user ).when( usersService ).fetchUserDetails( user.getUserId() );
+
+        Assertions.assertTrue( requestLifecycleInterceptor.preHandle( request, new MockHttpServletResponse(), handler ) );
+        Mockito.verify( usersService ).fetchUserDetails( user.getUserId() );
+        Assertions.assertEquals( user, getUser() );
+    }
+
+    @Test
+    void preHandleWithOAuth2RequestToWriteEndpointWithNonexistentUserThrowsForbidden() throws NoSuchMethodException {
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "X-Request-Id", "theId123" );
+        request.addHeader( "Eric-Identity", "COMU002" );
+        request.addHeader( "Eric-Identity-Type", "oauth2" );
+        request.addHeader( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "COM002" ) );
+
+        final var handler = new HandlerMethod( Mockito.mock( AcspMembershipsController.class ), AcspMembershipsController.class.getMethod( "addMemberForAcsp", String.class, String.class, RequestBodyPost.class ) );
+
+        Mockito.doThrow( new NotFoundRuntimeException( "Could not find user", new Exception( "Could not find user" ) ) ).when( usersService ).fetchUserDetails( "COMU002" );
+
+        Assertions.assertThrows( ForbiddenRuntimeException.class, () -> requestLifecycleInterceptor.preHandle( request, new MockHttpServletResponse(), handler ) );
+    }
+
+    @Test
+    void preHandleIgnoresSortOutsideListEndpoint() throws NoSuchMethodException {
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "X-Request-Id", "theId123" );
+        request.addHeader( "Eric-Identity", "COMU002" );
+        request.addHeader( "Eric-Identity-Type", "key" );
+        request.addHeader( "ERIC-Authorised-Key-Roles", "*" );
+        request.setParameter( "sort", "added_at" );
+
+        final var handler = new HandlerMethod( Mockito.mock( AcspMembershipController.class ), AcspMembershipController.class.getMethod( "getAcspMembershipForAcspAndId", String.class, String.class ) );
+
+        requestLifecycleInterceptor.preHandle( request, new MockHttpServletResponse(), handler );
+
+        Assertions.assertNull( getSort() );
     }
 
     @Test
@@ -133,6 +257,34 @@ class RequestLifecycleInterceptorTest {
         Assertions.assertEquals( "unknown", getEricAuthorisedKeyRoles() );
     }
 
+    @Test
+    void preHandleOnAsyncDispatchRestoresRequestContextWithoutFetchingUserAgain() throws NoSuchMethodException {
+        final var user = testDataManager.fetchUserDtos( "COMU002" ).getFirst();
+
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "X-Request-Id", "theId123" );
+        request.addHeader( "Eric-Identity", user.getUserId() );
+        request.addHeader( "Eric-Identity-Type", "oauth2" );
+        request.addHeader( "Eric-Authorised-Token-Permissions", testDataManager.fetchTokenPermissions( "COM002" ) );
+
+        final var response = new MockHttpServletResponse();
+        final var handler = new HandlerMethod( Mockito.mock( AcspMembershipController.class ), AcspMembershipController.class.getMethod( "updateAcspMembershipForAcspAndId", String.class, String.class, RequestBodyPatch.class ) );
+
+        Mockito.doReturn( user ).when( usersService ).fetchUserDetails( user.getUserId() );
+
+        requestLifecycleInterceptor.preHandle( request, response, handler );
+        requestLifecycleInterceptor.afterConcurrentHandlingStarted( request, response, handler );
+
+        Assertions.assertEquals( "unknown", getXRequestId() );
+
+        request.setDispatcherType( DispatcherType.ASYNC );
+
+        Assertions.assertTrue( requestLifecycleInterceptor.preHandle( request, response, handler ) );
+        Mockito.verify( usersService ).fetchUserDetails( user.getUserId() );
+        Assertions.assertEquals( "theId123", getXRequestId() );
+        Assertions.assertEquals( user, getUser() );
+    }
+
     @AfterEach
     void teardown(){
         RequestContext.clear();
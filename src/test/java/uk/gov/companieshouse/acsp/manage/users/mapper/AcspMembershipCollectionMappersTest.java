@@ -11,19 +11,28 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.InternalServerErrorRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
 import uk.gov.companieshouse.acsp.manage.users.service.AcspProfileService;
 import uk.gov.companieshouse.acsp.manage.users.service.UsersService;
+import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.MembershipStatusEnum;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static uk.gov.companieshouse.acsp.manage.users.common.DateUtils.localDateTimeToNormalisedString;
 import static uk.gov.companieshouse.acsp.manage.users.common.DateUtils.reduceTimestampResolution;
 
@@ -205,4 +214,193 @@ class AcspMembershipCollectionMappersTest {
         Assertions.assertEquals( "/acsps/TSA001/memberships?page_index=3&items_per_page=2", links.getPrevious() );
     }
 
+    @Test
+    void daoToDtoWithSliceUsesSuppliedTotalAndSliceForNextLink() {
+        final var daos = testDataManager.fetchAcspMembersDaos( "TS001", "TS002" );
+        final var userData = testDataManager.fetchUserDtos( "TSU001", "TSU002" );
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+        final var slice = new SliceImpl<>( daos, PageRequest.of( 1, 2 ), true );
+
+        Mockito.doReturn( Map.of( "TSU001", userData.getFirst(), "TSU002", userData.getLast() ) ).when( usersService ).fetchUserDetails( any( Stream.class ) );
+
+        final var dtos = acspMembershipCollectionMappers.daoToDto( slice, 12L, null, acspProfile );
+        final var links = dtos.getLinks();
+
+        Assertions.assertEquals( 2, dtos.getItems().size() );
+        Assertions.assertEquals( 12, dtos.getTotalResults() );
+        Assertions.assertEquals( 6, dtos.getTotalPages() );
+        Assertions.assertEquals( "/acsps/TSA001/memberships?page_index=2&items_per_page=2", links.getNext() );
+        Assertions.assertEquals( "/acsps/TSA001/memberships?page_index=0&items_per_page=2", links.getPrevious() );
+    }
+
+    @Test
+    void daoToDtoWithSliceNeverReportsFewerResultsThanAlreadySeen() {
+        final var daos = testDataManager.fetchAcspMembersDaos( "TS001", "TS002" );
+        final var userData = testDataManager.fetchUserDtos( "TSU001", "TSU002" );
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+        final var slice = new SliceImpl<>( daos, PageRequest.of( 1, 2 ), true );
+
+        Mockito.doReturn( Map.of( "TSU001", userData.getFirst(), "TSU002", userData.getLast() ) ).when( usersService ).fetchUserDetails( any( Stream.class ) );
+
+        final var dtos = acspMembershipCollectionMappers.daoToDto( slice, 1L, null, acspProfile );
+
+        Assertions.assertEquals( 5, dtos.getTotalResults() );
+        Assertions.assertEquals( 3, dtos.getTotalPages() );
+    }
+
+    @Test
+    void daoToDtoWithFluxLooksUpUsersFromTheStreamAndBuildsPage() {
+        final var daos = testDataManager.fetchAcspMembersDaos( "TS001", "TS002" );
+        final var userData = testDataManager.fetchUserDtos( "TSU001", "TSU002" );
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+
+        Mockito.doReturn( Flux.fromIterable( userData ) ).when( usersService ).fetchUserDetails( any( Flux.class ) );
+
+        final var dtos = acspMembershipCollectionMappers.daoToDto( Flux.fromIterable( daos ), Mono.just( 6L ), PageRequest.of( 1, 2 ), acspProfile );
+        final var links = dtos.getLinks();
+
+        Assertions.assertEquals( 2, dtos.getItems().size() );
+        Assertions.assertEquals( "TSU001", dtos.getItems().getFirst().getUserId() );
+        Assertions.assertEquals( userData.getFirst().getEmail(), dtos.getItems().getFirst().getUserEmail() );
+        Assertions.assertEquals( 6, dtos.getTotalResults() );
+        Assertions.assertEquals( 3, dtos.getTotalPages() );
+        Assertions.assertEquals( "/acsps/TSA001/memberships?page_index=2&items_per_page=2", links.getNext() );
+        Assertions.assertEquals( "/acsps/TSA001/memberships?page_index=0&items_per_page=2", links.getPrevious() );
+    }
+
+    @Test
+    void daoSliceToDtoUsesTheExtraRowToLinkTheNextPage() {
+        final var daos = testDataManager.fetchAcspMembersDaos( "TS001", "TS002", "NF002" );
+        final var userData = testDataManager.fetchUserDtos( "TSU001", "TSU002" );
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+
+        Mockito.doReturn( Flux.fromIterable( userData ) ).when( usersService ).fetchUserDetails( any( Flux.class ) );
+
+        final var dtos = acspMembershipCollectionMappers.daoSliceToDto( Flux.fromIterable( daos ), Mono.just( 2L ), PageRequest.of( 1, 2 ), acspProfile );
+
+        Assertions.assertEquals( 2, dtos.getItems().size() );
+        Assertions.assertEquals( List.of( "TS001", "TS002" ), dtos.getItems().stream().map( AcspMembership::getId ).toList() );
+        Assertions.assertEquals( 5, dtos.getTotalResults() );
+        Assertions.assertEquals( "/acsps/TSA001/memberships?page_index=2&items_per_page=2", dtos.getLinks().getNext() );
+    }
+
+    @Test
+    void daoSliceToDtoWithoutExtraRowHasNoNextPageEvenIfCachedTotalIsLarger() {
+        final var daos = testDataManager.fetchAcspMembersDaos( "TS001", "TS002" );
+        final var userData = testDataManager.fetchUserDtos( "TSU001", "TSU002" );
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+
+        Mockito.doReturn( Flux.fromIterable( userData ) ).when( usersService ).fetchUserDetails( any( Flux.class ) );
+
+        final var dtos = acspMembershipCollectionMappers.daoSliceToDto( Flux.fromIterable( daos ), Mono.just( 10L ), PageRequest.of( 1, 2 ), acspProfile );
+
+        Assertions.assertEquals( 2, dtos.getItems().size() );
+        Assertions.assertEquals( "", dtos.getLinks().getNext() );
+    }
+
+    @Test
+    void daoToDtoWithFluxThatOutlivesEnrichmentTimeoutThrowsInternalServerErrorRuntimeException() {
+        final var daos = testDataManager.fetchAcspMembersDaos( "TS001" );
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+
+        ReflectionTestUtils.setField( acspMembershipCollectionMappers, "enrichmentTimeoutMs", 50L );
+        Mockito.doReturn( Flux.never() ).when( usersService ).fetchUserDetails( any( Flux.class ) );
+
+        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> acspMembershipCollectionMappers.daoToDto( Flux.fromIterable( daos ), Mono.just( 1L ), PageRequest.of( 0, 2 ), acspProfile ) );
+    }
+
+    @Test
+    void daoToDtoWithListThatOutlivesEnrichmentTimeoutThrowsInternalServerErrorRuntimeException() {
+        final var dao = testDataManager.fetchAcspMembersDaos( "TS002" ).getFirst();
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+
+        ReflectionTestUtils.setField( acspMembershipCollectionMappers, "enrichmentTimeoutMs", 50L );
+        Mockito.doAnswer( invocation -> {
+            TimeUnit.SECONDS.sleep( 1L );
+            return Map.of();
+        } ).when( usersService ).fetchUserDetails( any( Stream.class ) );
+
+        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> acspMembershipCollectionMappers.daoToDto( List.of( dao ), null, acspProfile ) );
+    }
+
+    @Test
+    void daoToDtoWithFluxAndNullAcspProfileThrowsIllegalArgumentException() {
+        Assertions.assertThrows( IllegalArgumentException.class, () -> acspMembershipCollectionMappers.daoToDto( Flux.empty(), Mono.just( 0L ), PageRequest.of( 0, 2 ), null ) );
+    }
+
+    @Test
+    void daoToDtoWithFreshSnapshotIsServedWithoutDownstreamLookups() {
+        final var dao = testDataManager.fetchAcspMembersDaos( "TS002" ).getFirst()
+                .userEmail( "woody@toystory.com" )
+                .userDisplayName( "Woody" )
+                .acspName( "Toy Story" )
+                .acspStatus( "active" )
+                .snapshotRefreshedAt( LocalDateTime.now() );
+
+        ReflectionTestUtils.setField( acspMembershipCollectionMappers, "snapshotStalenessSeconds", 3600L );
+
+        final var dto = acspMembershipCollectionMappers.daoToDto( List.of( dao ), null, null ).getFirst();
+
+        Assertions.assertEquals( "woody@toystory.com", dto.getUserEmail() );
+        Assertions.assertEquals( "Woody", dto.getUserDisplayName() );
+        Assertions.assertEquals( "Toy Story", dto.getAcspName() );
+        Assertions.assertEquals( "active", dto.getAcspStatus().getValue() );
+        Mockito.verify( usersService, Mockito.never() ).fetchUserDetails( anyString() );
+        Mockito.verify( acspProfileService, Mockito.never() ).fetchAcspProfile( anyString() );
+    }
+
+    @Test
+    void daoToDtoWithStaleSnapshotFallsBackToDownstreamLookups() {
+        final var dao = testDataManager.fetchAcspMembersDaos( "TS002" ).getFirst()
+                .userEmail( "old@toystory.com" )
+                .acspName( "Old Toy Story" )
+                .acspStatus( "active" )
+                .snapshotRefreshedAt( LocalDateTime.now().minusHours( 2 ) );
+        final var userData = testDataManager.fetchUserDtos( "TSU002" ).getFirst();
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+
+        ReflectionTestUtils.setField( acspMembershipCollectionMappers, "snapshotStalenessSeconds", 3600L );
+        Mockito.doReturn( Map.of( "TSU002", userData ) ).when( usersService ).fetchUserDetails( any( Stream.class ) );
+        Mockito.doReturn( Map.of( "TSA001", acspProfile ) ).when( acspProfileService ).fetchAcspProfiles( any( Stream.class ) );
+
+        final var dto = acspMembershipCollectionMappers.daoToDto( List.of( dao ), null, null ).getFirst();
+
+        Assertions.assertEquals( userData.getEmail(), dto.getUserEmail() );
+        Assertions.assertEquals( "Toy Story", dto.getAcspName() );
+    }
+
+    @Test
+    void daoToDtoResolvesUsersAndAcspProfilesConcurrently() {
+        final var dao = testDataManager.fetchAcspMembersDaos( "TS002" ).getFirst();
+        final var userData = testDataManager.fetchUserDtos( "TSU002" ).getFirst();
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+        final var bothLookupsStarted = new CountDownLatch( 2 );
+
+        Mockito.doAnswer( invocation -> {
+            bothLookupsStarted.countDown();
+            Assertions.assertTrue( bothLookupsStarted.await( 5, TimeUnit.SECONDS ) );
+            return Map.of( "TSU002", userData );
+        } ).when( usersService ).fetchUserDetails( any( Stream.class ) );
+        Mockito.doAnswer( invocation -> {
+            bothLookupsStarted.countDown();
+            Assertions.assertTrue( bothLookupsStarted.await( 5, TimeUnit.SECONDS ) );
+            return Map.of( "TSA001", acspProfile );
+        } ).when( acspProfileService ).fetchAcspProfiles( any( Stream.class ) );
+
+        final var dto = acspMembershipCollectionMappers.daoToDto( List.of( dao ), null, null ).getFirst();
+
+        Assertions.assertEquals( "Woody", dto.getUserDisplayName() );
+        Assertions.assertEquals( "Toy Story", dto.getAcspName() );
+    }
+
+    @Test
+    void daoToDtoPropagatesFirstFailureFromConcurrentLookups() {
+        final var dao = testDataManager.fetchAcspMembersDaos( "TS002" ).getFirst();
+
+        Mockito.doThrow( new InternalServerErrorRuntimeException( "Failed to retrieve user details", new Exception( "Failed to retrieve user details" ) ) ).when( usersService ).fetchUserDetails( any( Stream.class ) );
+        Mockito.lenient().doReturn( Map.of() ).when( acspProfileService ).fetchAcspProfiles( any( Stream.class ) );
+
+        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> acspMembershipCollectionMappers.daoToDto( List.of( dao ), null, null ) );
+    }
+
 }
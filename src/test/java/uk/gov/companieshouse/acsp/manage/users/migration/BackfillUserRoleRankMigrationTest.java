@@ -0,0 +1,25 @@
+package uk.gov.companieshouse.acsp.manage.users.migration;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+
+@Tag( "unit-test" )
+class BackfillUserRoleRankMigrationTest {
+
+    private final BackfillUserRoleRankMigration migration = new BackfillUserRoleRankMigration();
+
+    @Test
+    void migrateSetsUserRoleRankFromUserRole(){
+        Assertions.assertEquals( 0, migration.migrate( new AcspMembersDao().id( "TS001" ).userRole( "owner" ) ).getUpdateObject().get( "$set", Document.class ).get( "user_role_rank" ) );
+    }
+
+    @Test
+    void migrateSkipsMembershipsWithMissingOrUnknownUserRole(){
+        Assertions.assertNull( migration.migrate( new AcspMembersDao().id( "TS001" ) ) );
+        Assertions.assertNull( migration.migrate( new AcspMembersDao().id( "TS002" ).userRole( "superuser" ) ) );
+    }
+
+}
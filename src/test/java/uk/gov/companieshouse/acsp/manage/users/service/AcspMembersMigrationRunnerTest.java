@@ -0,0 +1,152 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+
+import java.util.List;
+import java.util.Optional;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.companieshouse.acsp.manage.users.migration.AcspMembersMigration;
+import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.model.MigrationProgressDao;
+import uk.gov.companieshouse.acsp.manage.users.repositories.AcspMembersRepository;
+import uk.gov.companieshouse.acsp.manage.users.repositories.MigrationProgressRepository;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class AcspMembersMigrationRunnerTest {
+
+    @Mock
+    private AcspMembersRepository acspMembersRepository;
+
+    @Mock
+    private MigrationProgressRepository migrationProgressRepository;
+
+    private AcspMembersMigrationRunner acspMembersMigrationRunner;
+
+    private static AcspMembersMigration migration( final int version ){
+        return new AcspMembersMigration() {
+            @Override
+            public int getVersion(){
+                return version;
+            }
+
+            @Override
+            public String getDescription(){
+                return String.format( "Migration %d", version );
+            }
+
+            @Override
+            public Document getFilter(){
+                return new Document( "schema_version", new Document( "$lt", version ) );
+            }
+
+            @Override
+            public Update migrate( final AcspMembersDao membership ){
+                return new Update();
+            }
+        };
+    }
+
+    @BeforeEach
+    void setup(){
+        acspMembersMigrationRunner = new AcspMembersMigrationRunner( List.of( migration( 2 ), migration( 1 ) ), acspMembersRepository, migrationProgressRepository );
+        ReflectionTestUtils.setField( acspMembersMigrationRunner, "batchSize", 2 );
+    }
+
+    @Test
+    void runNextBatchStartsLowestIncompleteMigrationAndRecordsProgress(){
+        final var memberships = List.of( new Document( "_id", "TS001" ), new Document( "_id", "TS002" ) );
+        Mockito.doReturn( Optional.empty() ).when( migrationProgressRepository ).findById( 1 );
+        Mockito.doReturn( Optional.of( new MigrationProgressDao().version( 1 ).status( "running" ) ) ).when( migrationProgressRepository ).acquireMigrationLease( eq( 1 ), eq( "Migration 1" ), any(), any() );
+        Mockito.doReturn( memberships ).when( acspMembersRepository ).fetchMembershipsForMigration( any(), isNull(), eq( 2 ) );
+        Mockito.doReturn( 2 ).when( acspMembersRepository ).applyMigration( eq( memberships ), any(), eq( 1 ), any() );
+        Mockito.doReturn( true ).when( migrationProgressRepository ).updateMigrationProgress( any(), any() );
+
+        acspMembersMigrationRunner.runNextBatch();
+
+        Mockito.verify( migrationProgressRepository ).updateMigrationProgress( argThat( progress -> progress.getVersion() == 1 && "running".equals( progress.getStatus() ) && "TS002".equals( progress.getLastProcessedId() ) && progress.getProcessedCount() == 2 ), any() );
+        Mockito.verify( migrationProgressRepository, Mockito.never() ).findById( 2 );
+    }
+
+    @Test
+    void runNextBatchResumesAfterLastProcessedIdAndCompletesOnShortBatch(){
+        final var memberships = List.of( new Document( "_id", "TS002" ) );
+        final var progress = new MigrationProgressDao().version( 2 ).status( "running" ).lastProcessedId( "TS001" ).processedCount( 5 );
+        Mockito.doReturn( Optional.of( new MigrationProgressDao().version( 1 ).status( "completed" ) ) ).when( migrationProgressRepository ).findById( 1 );
+        Mockito.doReturn( Optional.of( progress ) ).when( migrationProgressRepository ).findById( 2 );
+        Mockito.doReturn( Optional.of( progress ) ).when( migrationProgressRepository ).acquireMigrationLease( eq( 2 ), any(), any(), any() );
+        Mockito.doReturn( memberships ).when( acspMembersRepository ).fetchMembershipsForMigration( any(), eq( "TS001" ), eq( 2 ) );
+        Mockito.doReturn( 1 ).when( acspMembersRepository ).applyMigration( eq( memberships ), eq( new Document( "schema_version", new Document( "$lt", 2 ) ) ), eq( 2 ), any() );
+        Mockito.doReturn( true ).when( migrationProgressRepository ).updateMigrationProgress( any(), any() );
+
+        acspMembersMigrationRunner.runNextBatch();
+
+        Mockito.verify( migrationProgressRepository ).updateMigrationProgress( argThat( updated -> updated.getVersion() == 2 && "completed".equals( updated.getStatus() ) && updated.getProcessedCount() == 6 && updated.getCompletedAt() != null ), any() );
+    }
+
+    @Test
+    void runNextBatchNotifiesMigrationOnlyOnceItCompletes(){
+        final var migration = Mockito.spy( migration( 1 ) );
+        final var runner = new AcspMembersMigrationRunner( List.of( migration ), acspMembersRepository, migrationProgressRepository );
+        ReflectionTestUtils.setField( runner, "batchSize", 2 );
+        Mockito.doReturn( Optional.empty() ).when( migrationProgressRepository ).findById( 1 );
+        Mockito.doReturn( Optional.of( new MigrationProgressDao().version( 1 ).status( "running" ) ) ).when( migrationProgressRepository ).acquireMigrationLease( eq( 1 ), any(), any(), any() );
+        Mockito.doReturn( List.of( new Document( "_id", "TS001" ), new Document( "_id", "TS002" ) ), List.of( new Document( "_id", "TS003" ) ) ).when( acspMembersRepository ).fetchMembershipsForMigration( any(), any(), eq( 2 ) );
+        Mockito.doReturn( true ).when( migrationProgressRepository ).updateMigrationProgress( any(), any() );
+
+        runner.runNextBatch();
+        Mockito.verify( migration, Mockito.never() ).onCompleted();
+
+        runner.runNextBatch();
+        Mockito.verify( migration ).onCompleted();
+    }
+
+    @Test
+    void runNextBatchRecordsErrorAndKeepsPositionWhenBatchFails(){
+        final var progress = new MigrationProgressDao().version( 1 ).status( "running" ).lastProcessedId( "TS001" );
+        Mockito.doReturn( Optional.of( progress ) ).when( migrationProgressRepository ).findById( 1 );
+        Mockito.doReturn( Optional.of( progress ) ).when( migrationProgressRepository ).acquireMigrationLease( eq( 1 ), any(), any(), any() );
+        Mockito.doThrow( new IllegalStateException( "Mongo is unavailable" ) ).when( acspMembersRepository ).fetchMembershipsForMigration( any(), any(), anyInt() );
+        Mockito.doReturn( true ).when( migrationProgressRepository ).updateMigrationProgress( any(), any() );
+
+        acspMembersMigrationRunner.runNextBatch();
+
+        Mockito.verify( migrationProgressRepository ).updateMigrationProgress( argThat( updated -> "running".equals( updated.getStatus() ) && "TS001".equals( updated.getLastProcessedId() ) && "Mongo is unavailable".equals( updated.getLastError() ) ), any() );
+    }
+
+    @Test
+    void runNextBatchSkipsMigrationLeasedByAnotherInstance(){
+        Mockito.doReturn( Optional.of( new MigrationProgressDao().version( 1 ).status( "running" ).leaseOwner( "another-instance" ) ) ).when( migrationProgressRepository ).findById( 1 );
+        Mockito.doReturn( Optional.empty() ).when( migrationProgressRepository ).acquireMigrationLease( eq( 1 ), any(), any(), any() );
+
+        acspMembersMigrationRunner.runNextBatch();
+
+        Mockito.verifyNoInteractions( acspMembersRepository );
+        Mockito.verify( migrationProgressRepository, Mockito.never() ).updateMigrationProgress( any(), any() );
+        Mockito.verify( migrationProgressRepository, Mockito.never() ).findById( 2 );
+    }
+
+    @Test
+    void runNextBatchDoesNothingWhenAllMigrationsAreComplete(){
+        Mockito.doReturn( Optional.of( new MigrationProgressDao().status( "completed" ) ) ).when( migrationProgressRepository ).findById( anyInt() );
+
+        acspMembersMigrationRunner.runNextBatch();
+
+        Mockito.verifyNoInteractions( acspMembersRepository );
+        Mockito.verify( migrationProgressRepository, Mockito.never() ).acquireMigrationLease( anyInt(), any(), any(), any() );
+    }
+
+}
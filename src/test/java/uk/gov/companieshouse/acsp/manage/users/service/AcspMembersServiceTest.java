@@ -1,5 +1,7 @@
 package uk.gov.companieshouse.acsp.manage.users.service;
 
+import com.mongodb.MongoException;
+import org.bson.Document;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -10,18 +12,31 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import uk.gov.companieshouse.acsp.manage.users.common.ComparisonUtils;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.BadRequestRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.ConflictRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.ForbiddenRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.InternalServerErrorRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.PreconditionFailedRuntimeException;
 import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContext;
 import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextData.RequestContextDataBuilder;
 import uk.gov.companieshouse.acsp.manage.users.mapper.AcspMembershipCollectionMappers;
 import uk.gov.companieshouse.acsp.manage.users.model.AcspMembersDao;
+import uk.gov.companieshouse.acsp.manage.users.model.enums.MembershipSort;
 import uk.gov.companieshouse.acsp.manage.users.repositories.AcspMembersRepository;
+import uk.gov.companieshouse.acsp.manage.users.repositories.ReactiveAcspMembersRepository;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembershipsList;
 import uk.gov.companieshouse.api.acsp_manage_users.model.RequestBodyPatch.UserStatusEnum;
@@ -42,6 +57,9 @@ class AcspMembersServiceTest {
     @Mock
     private AcspMembersRepository acspMembersRepository;
 
+    @Mock
+    private ReactiveAcspMembersRepository reactiveAcspMembersRepository;
+
     @Mock
     private AcspMembershipCollectionMappers acspMembershipCollectionMappers;
 
@@ -50,6 +68,9 @@ class AcspMembersServiceTest {
 
     private static final TestDataManager testDataManager = TestDataManager.getInstance();
 
+    private static final PageRequest DEFAULT_PAGE = PageRequest.of( 0, 10, MembershipSort.ROLE.getSort() );
+    private static final PageRequest ROLE_FILTERED_PAGE = PageRequest.of( 0, 10, MembershipSort.ADDED_AT.getSort() );
+
     private static final ComparisonUtils comparisonUtils = new ComparisonUtils();
 
     @BeforeEach
@@ -124,14 +145,14 @@ class AcspMembersServiceTest {
             final var acspMembershipDtos = testDataManager.fetchAcspMembershipDtos( "TS002" );
             final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
 
-            Mockito.doReturn( new PageImpl<>( acspMembersDaos ) ).when( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumberAndUserRole("TSA001", "admin", PageRequest.of(0, 10 ) );
+            Mockito.doReturn( new PageImpl<>( acspMembersDaos ) ).when( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumberAndUserRole("TSA001", "admin", ROLE_FILTERED_PAGE );
             Mockito.doReturn( new AcspMembershipsList().items( acspMembershipDtos ) ).when( acspMembershipCollectionMappers ).daoToDto( new PageImpl<>( acspMembersDaos ), null, acspProfile );
 
             final var result = acspMembersService.fetchMembershipsForAcspNumberAndRole( acspProfile, "admin", true, 0, 10 );
 
             Assertions.assertNotNull( result );
             Assertions.assertEquals(1, result.getItems().size() );
-            Mockito.verify( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumberAndUserRole( "TSA001", "admin", PageRequest.of(0, 10 ) );
+            Mockito.verify( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumberAndUserRole( "TSA001", "admin", ROLE_FILTERED_PAGE );
             Mockito.verify( acspMembershipCollectionMappers ).daoToDto( new PageImpl<>( acspMembersDaos ), null, acspProfile );
         }
 
@@ -141,14 +162,14 @@ class AcspMembersServiceTest {
             final var acspMembershipDtos = testDataManager.fetchAcspMembershipDtos( "COM001", "COM002" );
             final var acspAcspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
 
-            Mockito.doReturn( new PageImpl<>( acspMembersDaos ) ).when( acspMembersRepository ).fetchActiveMembershipsForAcspNumberAndUserRole( "COMA001", "owner", PageRequest.of(0, 10 ) );
+            Mockito.doReturn( new PageImpl<>( acspMembersDaos ) ).when( acspMembersRepository ).fetchActiveMembershipsForAcspNumberAndUserRole( "COMA001", "owner", ROLE_FILTERED_PAGE );
             Mockito.doReturn( new AcspMembershipsList().items( acspMembershipDtos ) ).when( acspMembershipCollectionMappers ).daoToDto( new PageImpl<>( acspMembersDaos ), null, acspAcspProfile );
 
             final var result = acspMembersService.fetchMembershipsForAcspNumberAndRole( acspAcspProfile, "owner", false, 0, 10 );
 
             Assertions.assertNotNull( result );
             Assertions.assertEquals( 2, result.getItems().size() );
-            Mockito.verify( acspMembersRepository ).fetchActiveMembershipsForAcspNumberAndUserRole( "COMA001", "owner", PageRequest.of(0, 10 ) );
+            Mockito.verify( acspMembersRepository ).fetchActiveMembershipsForAcspNumberAndUserRole( "COMA001", "owner", ROLE_FILTERED_PAGE );
             Mockito.verify( acspMembershipCollectionMappers ).daoToDto( new PageImpl<>( acspMembersDaos ), null, acspAcspProfile );
         }
 
@@ -158,14 +179,14 @@ class AcspMembersServiceTest {
             final var acspMembershipDtos = testDataManager.fetchAcspMembershipDtos( "COM001", "COM002", "COM003" );
             final var acspAcspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
 
-            Mockito.doReturn( new PageImpl<>( acspMembersDaos ) ).when( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", PageRequest.of(0, 10 ) );
+            Mockito.doReturn( new PageImpl<>( acspMembersDaos ) ).when( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", DEFAULT_PAGE );
             Mockito.doReturn( new AcspMembershipsList().items( acspMembershipDtos ) ).when( acspMembershipCollectionMappers ).daoToDto( new PageImpl<>( acspMembersDaos ), null, acspAcspProfile );
 
             final var result = acspMembersService.fetchMembershipsForAcspNumberAndRole( acspAcspProfile, null, true, 0, 10 );
 
             Assertions.assertNotNull( result );
             Assertions.assertEquals( 3, result.getItems().size() );
-            Mockito.verify( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", PageRequest.of(0, 10 ) );
+            Mockito.verify( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", DEFAULT_PAGE );
             Mockito.verify( acspMembershipCollectionMappers ).daoToDto( new PageImpl<>( acspMembersDaos ), null, acspAcspProfile );
         }
 
@@ -175,18 +196,224 @@ class AcspMembersServiceTest {
             final var acspMembershipDtos = testDataManager.fetchAcspMembershipDtos( "COM002" );
             final var acspAcspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
 
-            Mockito.doReturn( new PageImpl<>( acspMembersDaos ) ).when( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", PageRequest.of(0, 10 ) );
+            Mockito.doReturn( new PageImpl<>( acspMembersDaos ) ).when( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", DEFAULT_PAGE );
             Mockito.doReturn( new AcspMembershipsList().items( acspMembershipDtos ) ).when( acspMembershipCollectionMappers ).daoToDto( new PageImpl<>( acspMembersDaos ), null, acspAcspProfile );
 
             final var result = acspMembersService.fetchMembershipsForAcspNumberAndRole( acspAcspProfile, null, true, 0, 10 );
 
             Assertions.assertNotNull( result );
             Assertions.assertEquals( 1, result.getItems().size()) ;
-            Mockito.verify( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", PageRequest.of(0, 10 ) );
+            Mockito.verify( acspMembersRepository ).fetchActiveAndRemovedMembershipsForAcspNumber( "COMA001", DEFAULT_PAGE );
             Mockito.verify( acspMembershipCollectionMappers ).daoToDto( new PageImpl<>( acspMembersDaos ), null, acspAcspProfile );
         }
     }
 
+    @Nested
+    class FindAllByAcspNumberAndRoleWithoutCount {
+
+        @Test
+        void countFreeFetchUsesSliceAndCachedCount() {
+            final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "COM001", "COM002" );
+            final var acspMembershipDtos = testDataManager.fetchAcspMembershipDtos( "COM001", "COM002" );
+            final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+            final var slice = new SliceImpl<>( acspMembersDaos, DEFAULT_PAGE, false );
+
+            Mockito.doReturn( slice ).when( acspMembersRepository ).fetchActiveMembershipSliceForAcspNumberAndUserRole( "COMA001", "owner", ROLE_FILTERED_PAGE );
+            Mockito.doReturn( 2 ).when( acspMembersRepository ).fetchNumberOfActiveMembershipsForAcspNumberAndUserRole( "COMA001", "owner" );
+            Mockito.doReturn( new AcspMembershipsList().items( acspMembershipDtos ) ).when( acspMembershipCollectionMappers ).daoToDto( slice, 2L, null, acspProfile );
+
+            final var result = acspMembersService.fetchMembershipsForAcspNumberAndRole( acspProfile, "owner", false, 0, 10, true );
+
+            Assertions.assertEquals( 2, result.getItems().size() );
+            Mockito.verify( acspMembersRepository ).fetchActiveMembershipSliceForAcspNumberAndUserRole( "COMA001", "owner", ROLE_FILTERED_PAGE );
+            Mockito.verify( acspMembersRepository, never() ).fetchActiveMembershipsForAcspNumberAndUserRole( any(), any(), any() );
+        }
+
+        @Test
+        void countFreeFetchOnlyCountsOnceWhileCountIsCached() {
+            final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "COM002" );
+            final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+            final var slice = new SliceImpl<>( acspMembersDaos, DEFAULT_PAGE, false );
+
+            ReflectionTestUtils.setField( acspMembersService, "countCacheTtlSeconds", 60L );
+            Mockito.doReturn( slice ).when( acspMembersRepository ).fetchActiveAndRemovedMembershipSliceForAcspNumber( "COMA001", DEFAULT_PAGE );
+            Mockito.doReturn( 1 ).when( acspMembersRepository ).fetchNumberOfActiveAndRemovedMembershipsForAcspNumber( "COMA001" );
+
+            acspMembersService.fetchMembershipsForAcspNumberAndRole( acspProfile, null, true, 0, 10, true );
+            acspMembersService.fetchMembershipsForAcspNumberAndRole( acspProfile, null, true, 0, 10, true );
+
+            Mockito.verify( acspMembersRepository, times( 1 ) ).fetchNumberOfActiveAndRemovedMembershipsForAcspNumber( "COMA001" );
+            Mockito.verify( acspMembershipCollectionMappers, times( 2 ) ).daoToDto( slice, 1L, null, acspProfile );
+        }
+
+        @Test
+        void updateMembershipOnlyEvictsCachedCountsForAffectedAcsp() {
+            final var comedyProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+            final var toyStoryProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+            final var membership = testDataManager.fetchAcspMembersDaos( "COM001" ).getFirst();
+
+            Mockito.doReturn( new SliceImpl<>( List.of() ) ).when( acspMembersRepository ).fetchActiveMembershipSliceForAcspNumber( any(), eq( DEFAULT_PAGE ) );
+            Mockito.doReturn( Optional.of( membership ) ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+
+            acspMembersService.fetchMembershipsForAcspNumberAndRole( comedyProfile, null, false, 0, 10, true );
+            acspMembersService.fetchMembershipsForAcspNumberAndRole( toyStoryProfile, null, false, 0, 10, true );
+            acspMembersService.updateMembership( membership, null, UserRoleEnum.STANDARD, "COMU002" );
+            acspMembersService.fetchMembershipsForAcspNumberAndRole( comedyProfile, null, false, 0, 10, true );
+            acspMembersService.fetchMembershipsForAcspNumberAndRole( toyStoryProfile, null, false, 0, 10, true );
+
+            Mockito.verify( acspMembersRepository, times( 2 ) ).fetchNumberOfActiveMembershipsForAcspNumber( "COMA001" );
+            Mockito.verify( acspMembersRepository, times( 1 ) ).fetchNumberOfActiveMembershipsForAcspNumber( "TSA001" );
+        }
+
+    }
+
+    @Nested
+    class FindAllByAcspNumberAndRoleSorted {
+
+        @Test
+        void fetchWithSortParameterUsesRequestedIndexedOrder() {
+            final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+            final var request = new MockHttpServletRequest();
+            request.setParameter( "sort", "-added_at" );
+            RequestContext.setRequestContext( new RequestContextDataBuilder().setSort( request ).build() );
+
+            final var pageable = PageRequest.of( 0, 10, MembershipSort.ADDED_AT.getSort().descending() );
+            Mockito.doReturn( new PageImpl<>( List.of() ) ).when( acspMembersRepository ).fetchActiveMembershipsForAcspNumber( "COMA001", pageable );
+
+            acspMembersService.fetchMembershipsForAcspNumberAndRole( acspProfile, null, false, 0, 10 );
+
+            Mockito.verify( acspMembersRepository ).fetchActiveMembershipsForAcspNumber( "COMA001", pageable );
+        }
+
+        @Test
+        void fetchWithUnsupportedSortParameterThrowsBadRequestRuntimeException() {
+            final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+            final var request = new MockHttpServletRequest();
+            request.setParameter( "sort", "user_email" );
+            RequestContext.setRequestContext( new RequestContextDataBuilder().setSort( request ).build() );
+
+            assertThrows( BadRequestRuntimeException.class, () -> acspMembersService.fetchMembershipsForAcspNumberAndRole( acspProfile, null, false, 0, 10 ) );
+            Mockito.verifyNoInteractions( acspMembersRepository );
+        }
+
+    }
+
+    @Nested
+    class FindAllByAcspNumberAndRoleIncludingArchive {
+
+        @Test
+        void includeRemovedFetchReadsHotAndArchivedMemberships() {
+            final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "COM001", "COM002", "COM003" );
+            final var acspMembershipDtos = testDataManager.fetchAcspMembershipDtos( "COM001", "COM002", "COM003" );
+            final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+            final var filter = new Document( "acsp_number", "COMA001" ).append( "user_role", "owner" );
+
+            ReflectionTestUtils.setField( acspMembersService, "archiveEnabled", true );
+            Mockito.doReturn( acspMembersDaos ).when( acspMembersRepository ).fetchMembershipsIncludingArchived( filter, ROLE_FILTERED_PAGE );
+            Mockito.doReturn( 3 ).when( acspMembersRepository ).fetchNumberOfMembershipsIncludingArchived( filter );
+            Mockito.doReturn( new AcspMembershipsList().items( acspMembershipDtos ) ).when( acspMembershipCollectionMappers ).daoToDto( new PageImpl<>( acspMembersDaos, ROLE_FILTERED_PAGE, 3 ), null, acspProfile );
+
+            final var result = acspMembersService.fetchMembershipsForAcspNumberAndRole( acspProfile, "owner", true, 0, 10 );
+
+            Assertions.assertEquals( 3, result.getItems().size() );
+            Mockito.verify( acspMembersRepository, never() ).fetchActiveAndRemovedMembershipsForAcspNumberAndUserRole( any(), any(), any() );
+        }
+
+        @Test
+        void activeOnlyFetchIgnoresArchive() {
+            final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "COM002" );
+            final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+
+            ReflectionTestUtils.setField( acspMembersService, "archiveEnabled", true );
+            Mockito.doReturn( new PageImpl<>( acspMembersDaos ) ).when( acspMembersRepository ).fetchActiveMembershipsForAcspNumber( "COMA001", DEFAULT_PAGE );
+
+            acspMembersService.fetchMembershipsForAcspNumberAndRole( acspProfile, null, false, 0, 10 );
+
+            Mockito.verify( acspMembersRepository, never() ).fetchMembershipsIncludingArchived( any(), any() );
+        }
+
+        @Test
+        void fetchMembershipDaosWithIncludeRemovedReadsArchive() {
+            final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "TS001" );
+
+            ReflectionTestUtils.setField( acspMembersService, "archiveEnabled", true );
+            Mockito.doReturn( acspMembersDaos ).when( acspMembersRepository ).fetchMembershipsIncludingArchived( new Document( "user_id", "TSU001" ), Pageable.unpaged() );
+
+            Assertions.assertEquals( acspMembersDaos, acspMembersService.fetchMembershipDaos( "TSU001", true ) );
+        }
+
+        @Test
+        void fetchMembershipFallsBackToArchive() {
+            final var acspMembersDao = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+
+            ReflectionTestUtils.setField( acspMembersService, "archiveEnabled", true );
+            Mockito.doReturn( Optional.empty() ).when( acspMembersRepository ).findById( "TS001" );
+            Mockito.doReturn( Optional.of( acspMembersDao ) ).when( acspMembersRepository ).fetchArchivedMembership( "TS001" );
+
+            acspMembersService.fetchMembership( "TS001" );
+
+            Mockito.verify( acspMembershipCollectionMappers ).daoToDto( acspMembersDao, null, null );
+        }
+
+    }
+
+    @Nested
+    class FindAllByAcspNumberAndRoleReactively {
+
+        @Test
+        void reactiveFetchStreamsMembershipsAndCountFromReactiveRepository() {
+            final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "COM001", "COM002" );
+            final var acspMembershipDtos = testDataManager.fetchAcspMembershipDtos( "COM001", "COM002" );
+            final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+            final var membershipDaos = Flux.fromIterable( acspMembersDaos );
+            final var totalResults = Mono.just( 2L );
+
+            ReflectionTestUtils.setField( acspMembersService, "reactiveReads", true );
+            Mockito.doReturn( membershipDaos ).when( reactiveAcspMembersRepository ).fetchActiveMembershipsForAcspNumberAndUserRole( "COMA001", "owner", ROLE_FILTERED_PAGE );
+            Mockito.doReturn( totalResults ).when( reactiveAcspMembersRepository ).fetchNumberOfActiveMembershipsForAcspNumberAndUserRole( "COMA001", "owner" );
+            Mockito.doReturn( new AcspMembershipsList().items( acspMembershipDtos ) ).when( acspMembershipCollectionMappers ).daoToDto( membershipDaos, totalResults, ROLE_FILTERED_PAGE, acspProfile );
+
+            final var result = acspMembersService.fetchMembershipsForAcspNumberAndRole( acspProfile, "owner", false, 0, 10 );
+
+            Assertions.assertEquals( 2, result.getItems().size() );
+            Mockito.verifyNoInteractions( acspMembersRepository );
+        }
+
+        @Test
+        void reactiveCountFreeFetchUsesCachedCount() {
+            final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "COM002" );
+            final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+            final var membershipDaos = Flux.fromIterable( acspMembersDaos );
+
+            ReflectionTestUtils.setField( acspMembersService, "reactiveReads", true );
+            Mockito.doReturn( membershipDaos ).when( reactiveAcspMembersRepository ).fetchMembershipSliceForAcspNumber( "COMA001", null, true, DEFAULT_PAGE );
+            Mockito.doReturn( 1 ).when( acspMembersRepository ).fetchNumberOfActiveAndRemovedMembershipsForAcspNumber( "COMA001" );
+            Mockito.doAnswer( invocation -> new AcspMembershipsList().totalResults( invocation.<Mono<Long>>getArgument( 1 ).block().intValue() ) ).when( acspMembershipCollectionMappers ).daoSliceToDto( eq( membershipDaos ), any( Mono.class ), eq( DEFAULT_PAGE ), eq( acspProfile ) );
+
+            final var result = acspMembersService.fetchMembershipsForAcspNumberAndRole( acspProfile, null, true, 0, 10, true );
+
+            Assertions.assertEquals( 1, result.getTotalResults() );
+            Mockito.verify( reactiveAcspMembersRepository, never() ).fetchNumberOfActiveAndRemovedMembershipsForAcspNumber( any() );
+            Mockito.verify( reactiveAcspMembersRepository, never() ).fetchActiveAndRemovedMembershipsForAcspNumber( any(), any() );
+        }
+
+        @Test
+        void reactiveCountFreeFetchRequestsSliceFromReactiveRepository() {
+            final var acspMembersDaos = testDataManager.fetchAcspMembersDaos( "COM002" );
+            final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+            final var membershipDaos = Flux.fromIterable( acspMembersDaos );
+            final var memberships = new AcspMembershipsList().totalResults( 1 );
+
+            ReflectionTestUtils.setField( acspMembersService, "countFreePagination", true );
+            Mockito.doReturn( membershipDaos ).when( reactiveAcspMembersRepository ).fetchMembershipSliceForAcspNumber( "COMA001", "owner", false, ROLE_FILTERED_PAGE );
+            Mockito.doReturn( Mono.just( memberships ) ).when( acspMembershipCollectionMappers ).daoSliceToDtoReactively( eq( membershipDaos ), any( Mono.class ), eq( ROLE_FILTERED_PAGE ), eq( acspProfile ) );
+
+            Assertions.assertSame( memberships, acspMembersService.fetchMembershipsForAcspNumberAndRoleReactively( acspProfile, "owner", false, 0, 10 ).block() );
+            Mockito.verify( reactiveAcspMembersRepository, never() ).fetchActiveMembershipsForAcspNumberAndUserRole( any(), any(), any() );
+        }
+
+    }
+
     @Nested
     class FetchMembership {
 
@@ -291,6 +518,12 @@ class AcspMembersServiceTest {
         Mockito.verify( acspMembersRepository ).fetchNumberOfActiveOwners( "COMA001" );
     }
 
+    @Test
+    void fetchMembershipAuthorisationDataRetrievesAuthorisationData() {
+        acspMembersService.fetchMembershipAuthorisationData( "COM004" );
+        Mockito.verify( acspMembersRepository ).fetchMembershipAuthorisationData( "COM004" );
+    }
+
     @Test
     void fetchActiveAcspMembershipWithNullOrMalformedOrNonexistentUserIdOrAcspNumberReturnsEmptyOptional() {
         Assertions.assertFalse( acspMembersService.fetchActiveAcspMembership( null, "TSA001" ).isPresent() );
@@ -312,35 +545,110 @@ class AcspMembersServiceTest {
     }
 
     @Test
-    void updateMembershipWithNullMembershipIdThrowsInternalServerErrorRuntimeException() {
+    void updateMembershipWithNullMembershipThrowsInternalServerErrorRuntimeException() {
         Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> acspMembersService.updateMembership( null, UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
+        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> acspMembersService.updateMembership( new AcspMembersDao(), UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
+    }
+
+    @Test
+    void updateMembershipWhereMembershipHasChangedOrDoesNotExistThrowsConflictRuntimeException() {
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        Mockito.doReturn( Optional.empty() ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+        Assertions.assertThrows( ConflictRuntimeException.class, () -> acspMembersService.updateMembership( membership, UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
+    }
+
+    @Test
+    void updateMembershipWhereConcurrentTransactionWroteMembershipThrowsConflictRuntimeException() {
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        final var writeConflict = new MongoException( 112, "WriteConflict" );
+        writeConflict.addLabel( MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL );
+        Mockito.doThrow( new UncategorizedMongoDbException( "WriteConflict", writeConflict ) ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+        Assertions.assertThrows( ConflictRuntimeException.class, () -> acspMembersService.updateMembership( membership, UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
+    }
+
+    @Test
+    void updateMembershipThatDemotesLastActiveOwnerThrowsForbiddenRuntimeException() {
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        Mockito.doReturn( 0 ).when( acspMembersRepository ).lockOtherActiveOwners( membership );
+        Assertions.assertThrows( ForbiddenRuntimeException.class, () -> acspMembersService.updateMembership( membership, null, UserRoleEnum.STANDARD, "TSU002", true ) );
+        Mockito.verify( acspMembersRepository, Mockito.never() ).updateMembershipIfUnchanged( any(), any() );
+    }
+
+    @Test
+    void updateMembershipThatRemovesOwnerWithAnotherActiveOwnerUpdatesMembership() {
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        Mockito.doReturn( 1 ).when( acspMembersRepository ).lockOtherActiveOwners( membership );
+        Mockito.doReturn( Optional.of( membership ) ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+        Assertions.assertSame( membership, acspMembersService.updateMembership( membership, UserStatusEnum.REMOVED, null, "TSU002", true ) );
+    }
+
+    @Test
+    void updateMembershipThatKeepsOwnerRoleDoesNotLockOtherOwners() {
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        Mockito.doReturn( Optional.of( membership ) ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+        acspMembersService.updateMembership( membership, null, UserRoleEnum.OWNER, "TSU002", true );
+        acspMembersService.updateMembership( membership, UserStatusEnum.REMOVED, null, "TSU002", false );
+        Mockito.verify( acspMembersRepository, Mockito.never() ).lockOtherActiveOwners( any() );
     }
 
     @Test
-    void updateMembershipWithMalformedOrNonexistentMembershipIdThrowsInternalServerErrorRuntimeException() {
-        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> acspMembersService.updateMembership( "£££", UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
-        Assertions.assertThrows( InternalServerErrorRuntimeException.class, () -> acspMembersService.updateMembership( "TS001", UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) );
+    void updateMembershipWhereConcurrentTransactionLockedOwnersThrowsConflictRuntimeException() {
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        final var writeConflict = new MongoException( 112, "WriteConflict" );
+        writeConflict.addLabel( MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL );
+        Mockito.doThrow( new UncategorizedMongoDbException( "WriteConflict", writeConflict ) ).when( acspMembersRepository ).lockOtherActiveOwners( membership );
+        Assertions.assertThrows( ConflictRuntimeException.class, () -> acspMembersService.updateMembership( membership, null, UserRoleEnum.ADMIN, "TSU002", true ) );
+    }
+
+    @Test
+    void updateMembershipRethrowsNonTransientDataAccessExceptions() {
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        final var failure = new UncategorizedMongoDbException( "Failure", new MongoException( 8000, "Failure" ) );
+        Mockito.doThrow( failure ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+        Assertions.assertSame( failure, Assertions.assertThrows( UncategorizedMongoDbException.class, () -> acspMembersService.updateMembership( membership, UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" ) ) );
+    }
+
+    @Test
+    void updateMembershipWithIfMatchWhereMembershipHasChangedThrowsPreconditionFailedRuntimeException() {
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "If-Match", "\"theEtag\"" );
+        RequestContext.setRequestContext( new RequestContextDataBuilder().setIfMatch( request ).build() );
+
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        Mockito.doReturn( Optional.empty() ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+        Assertions.assertThrows( PreconditionFailedRuntimeException.class, () -> acspMembersService.updateMembership( membership, UserStatusEnum.REMOVED, null, "TSU002" ) );
+    }
+
+    @Test
+    void updateMembershipLeavesVersionIncrementToMongoTemplate() {
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        Mockito.doReturn( Optional.of( membership ) ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+        acspMembersService.updateMembership( membership, UserStatusEnum.REMOVED, null, "TSU002" );
+        Mockito.verify( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), argThat( update -> !update.getUpdateObject().containsKey( "$inc" ) ) );
     }
 
     @Test
     void updateMembershipWithNullUserStatusAndNotNullUserRoleOnlyUpdatesEtagAndRole() {
-        Mockito.doReturn( 1 ).when( acspMembersRepository ).updateAcspMembership( eq( "TS001" ), any( Update.class ) );
-        acspMembersService.updateMembership("TS001", null, UserRoleEnum.STANDARD, "TSU002" );
-        Mockito.verify(acspMembersRepository).updateAcspMembership( eq("TS001"), argThat( updateMatches( Map.of("user_role", UserRoleEnum.STANDARD.getValue() ) ) ) );
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        Mockito.doReturn( Optional.of( membership ) ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+        Assertions.assertEquals( membership, acspMembersService.updateMembership( membership, null, UserRoleEnum.STANDARD, "TSU002" ) );
+        Mockito.verify( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), argThat( updateMatches( Map.of("user_role", UserRoleEnum.STANDARD.getValue() ) ) ) );
     }
 
     @Test
     void updateMembershipWithNotNullUserStatusAndNullUserRoleOnlyUpdatesEtagAndStatusAndRemovedAtAndRemovedBy() {
-        Mockito.doReturn( 1 ).when( acspMembersRepository ).updateAcspMembership( eq( "TS001" ), any( Update.class ) );
-        acspMembersService.updateMembership( "TS001", UserStatusEnum.REMOVED, null, "TSU002" );
-        Mockito.verify( acspMembersRepository ).updateAcspMembership(eq( "TS001" ), argThat( updateMatches( Map.of("status", UserStatusEnum.REMOVED.getValue(), "removed_by", "TSU002") ) ) );
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        Mockito.doReturn( Optional.of( membership ) ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+        acspMembersService.updateMembership( membership, UserStatusEnum.REMOVED, null, "TSU002" );
+        Mockito.verify( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), argThat( updateMatches( Map.of("status", UserStatusEnum.REMOVED.getValue(), "removed_by", "TSU002") ) ) );
     }
 
     @Test
     void updateMembershipWithNotNullUserStatusAndNotNullUserRoleOnlyUpdatesEverything() {
-        Mockito.doReturn( 1 ).when( acspMembersRepository ).updateAcspMembership( eq( "TS001" ), any( Update.class ) );
-        acspMembersService.updateMembership( "TS001", UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" );
-        Mockito.verify( acspMembersRepository ).updateAcspMembership( eq( "TS001" ), argThat( updateMatches( Map.of("user_role", UserRoleEnum.STANDARD.getValue(), "status", UserStatusEnum.REMOVED.getValue(), "removed_by", "TSU002" ) ) ) );
+        final var membership = testDataManager.fetchAcspMembersDaos( "TS001" ).getFirst();
+        Mockito.doReturn( Optional.of( membership ) ).when( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), any( Update.class ) );
+        acspMembersService.updateMembership( membership, UserStatusEnum.REMOVED, UserRoleEnum.STANDARD, "TSU002" );
+        Mockito.verify( acspMembersRepository ).updateMembershipIfUnchanged( eq( membership ), argThat( updateMatches( Map.of("user_role", UserRoleEnum.STANDARD.getValue(), "status", UserStatusEnum.REMOVED.getValue(), "removed_by", "TSU002" ) ) ) );
     }
 
     @Test
@@ -358,4 +666,24 @@ class AcspMembersServiceTest {
         assertEquals( "COMU004", result.getUserId() );
     }
 
+    @Test
+    void addAcspMembershipForUserWithActiveMembershipThrowsBadRequestRuntimeException() {
+        final var userDto = testDataManager.fetchUserDtos( "COMU004" ).getFirst();
+        final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+
+        Mockito.doThrow( new DuplicateKeyException( "E11000 duplicate key error collection: acsp_members index: user_id_active_unique dup key" ) ).when( acspMembersRepository ).insert( any( AcspMembersDao.class ) );
+
+        Assertions.assertThrows( BadRequestRuntimeException.class, () -> acspMembersService.createMembership( userDto, acspProfile, UserRoleEnum.ADMIN, "COMU002" ) );
+    }
+
+    @Test
+    void addAcspMembershipRethrowsDuplicateKeyExceptionFromOtherIndexes() {
+        final var userDto = testDataManager.fetchUserDtos( "COMU004" ).getFirst();
+        final var acspProfile = testDataManager.fetchAcspProfiles( "COMA001" ).getFirst();
+
+        Mockito.doThrow( new DuplicateKeyException( "E11000 duplicate key error collection: acsp_members index: _id_ dup key" ) ).when( acspMembersRepository ).insert( any( AcspMembersDao.class ) );
+
+        Assertions.assertThrows( DuplicateKeyException.class, () -> acspMembersService.createMembership( userDto, acspProfile, UserRoleEnum.ADMIN, "COMU002" ) );
+    }
+
 }
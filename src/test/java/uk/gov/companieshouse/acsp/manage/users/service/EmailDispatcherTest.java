@@ -0,0 +1,125 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.MessageType.CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE;
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.MessageType.YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.companieshouse.acsp.manage.users.model.email.ConfirmYouAreAMember.ConfirmYouAreAnAdminMemberEmailData;
+import uk.gov.companieshouse.acsp.manage.users.model.email.YourRoleAtAcspHasChanged.YourRoleAtAcspHasChangedToOwnerEmailData;
+import uk.gov.companieshouse.email_producer.EmailProducer;
+import uk.gov.companieshouse.email_producer.EmailSendingException;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class EmailDispatcherTest {
+
+    @Mock
+    private EmailProducer emailProducer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ConfirmYouAreAnAdminMemberEmailData adminEmailData = new ConfirmYouAreAnAdminMemberEmailData( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", "http://signin" );
+
+    private final YourRoleAtAcspHasChangedToOwnerEmailData ownerEmailData = new YourRoleAtAcspHasChangedToOwnerEmailData( "woody@toystory.com", "demo@ch.gov.uk", "Witcher", "http://signin" );
+
+    @Test
+    void dispatchWithoutBatchingSendsOnTheEmailSchedulerAndRecordsLatency(){
+        final var emailDispatcher = new EmailDispatcher( emailProducer, Schedulers.immediate(), meterRegistry, 1, 0L, 10 );
+
+        emailDispatcher.dispatch( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE ).block();
+
+        Mockito.verify( emailProducer ).sendEmail( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() );
+        Assertions.assertEquals( 1, meterRegistry.get( "acsp.members.email.send" ).tags( "message_type", CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue(), "outcome", "success" ).timer().count() );
+    }
+
+    @Test
+    void dispatchWithBatchingGroupsEmailsIntoASingleBatch(){
+        final var emailDispatcher = new EmailDispatcher( emailProducer, Schedulers.immediate(), meterRegistry, 2, 5000L, 10 );
+
+        Mono.when( emailDispatcher.dispatch( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE ), emailDispatcher.dispatch( ownerEmailData, YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE ) ).block( Duration.ofSeconds( 2 ) );
+
+        Mockito.verify( emailProducer ).sendEmail( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() );
+        Mockito.verify( emailProducer ).sendEmail( ownerEmailData, YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE.getValue() );
+        final var adminBatchSizes = meterRegistry.get( "acsp.members.email.batch.size" ).tag( "message_type", CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() ).summary();
+        Assertions.assertEquals( 1, adminBatchSizes.count() );
+        Assertions.assertEquals( 1, adminBatchSizes.totalAmount() );
+        Assertions.assertEquals( 1, meterRegistry.get( "acsp.members.email.batch.size" ).tag( "message_type", YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE.getValue() ).summary().count() );
+        Assertions.assertEquals( 0, meterRegistry.get( "acsp.members.email.queue.depth" ).tag( "message_type", CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() ).gauge().value() );
+        emailDispatcher.destroy();
+    }
+
+    @Test
+    void dispatchWithBatchingFlushesPartialBatchAfterLinger(){
+        final var emailDispatcher = new EmailDispatcher( emailProducer, Schedulers.immediate(), meterRegistry, 10, 50L, 10 );
+
+        emailDispatcher.dispatch( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE ).block( Duration.ofSeconds( 2 ) );
+
+        Mockito.verify( emailProducer ).sendEmail( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() );
+        Assertions.assertEquals( 1, meterRegistry.get( "acsp.members.email.batch.size" ).tag( "message_type", CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() ).summary().totalAmount() );
+        emailDispatcher.destroy();
+    }
+
+    @Test
+    void dispatchWithBatchingPropagatesFailureOnlyToTheFailedEmail(){
+        Mockito.doThrow( new EmailSendingException( "Failed to send email", new Exception() ) ).when( emailProducer ).sendEmail( any(), eq( CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() ) );
+        final var emailDispatcher = new EmailDispatcher( emailProducer, Schedulers.immediate(), meterRegistry, 2, 5000L, 10 );
+
+        final var failed = emailDispatcher.dispatch( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE ).toFuture();
+        final var sent = emailDispatcher.dispatch( ownerEmailData, YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE ).toFuture();
+
+        Assertions.assertThrows( Exception.class, failed::join );
+        Assertions.assertDoesNotThrow( () -> sent.join() );
+        Assertions.assertEquals( 1, meterRegistry.get( "acsp.members.email.send.failures" ).tag( "message_type", CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() ).counter().count() );
+        emailDispatcher.destroy();
+    }
+
+    @Test
+    void dispatchWithBatchingRejectsEmailsWhenTheQueueIsFull(){
+        final var sending = new CountDownLatch( 1 );
+        Mockito.doAnswer( invocation -> {
+            sending.await();
+            return null;
+        } ).when( emailProducer ).sendEmail( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() );
+        final var emailDispatcher = new EmailDispatcher( emailProducer, Schedulers.immediate(), meterRegistry, 2, 10L, 1 );
+
+        final var blocked = emailDispatcher.dispatch( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE ).toFuture();
+        Mockito.verify( emailProducer, Mockito.timeout( 2000 ) ).sendEmail( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() );
+
+        final var queued = emailDispatcher.dispatch( ownerEmailData, YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE ).toFuture();
+        Assertions.assertThrows( RejectedExecutionException.class, () -> emailDispatcher.dispatch( ownerEmailData, YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE ).block() );
+        Assertions.assertEquals( 1, meterRegistry.get( "acsp.members.email.queue.depth" ).tag( "message_type", YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE.getValue() ).gauge().value() );
+        Assertions.assertEquals( 1, meterRegistry.get( "acsp.members.email.queue.overflow" ).tag( "message_type", YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE.getValue() ).counter().count() );
+
+        sending.countDown();
+        Assertions.assertDoesNotThrow( () -> blocked.join() );
+        Assertions.assertDoesNotThrow( () -> queued.join() );
+        emailDispatcher.destroy();
+    }
+
+    @Test
+    void sendReusesTheMetersRegisteredForEachMessageType(){
+        final var emailDispatcher = new EmailDispatcher( emailProducer, Schedulers.immediate(), meterRegistry, 1, 0L, 10 );
+        final var registeredMeters = meterRegistry.getMeters().size();
+
+        emailDispatcher.send( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() );
+        emailDispatcher.send( adminEmailData, CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue() );
+
+        Assertions.assertEquals( registeredMeters, meterRegistry.getMeters().size() );
+        Assertions.assertEquals( 2, meterRegistry.get( "acsp.members.email.send" ).tags( "message_type", CONFIRM_YOU_ARE_AN_ADMIN_MEMBER_MESSAGE_TYPE.getValue(), "outcome", "success" ).timer().count() );
+    }
+
+}
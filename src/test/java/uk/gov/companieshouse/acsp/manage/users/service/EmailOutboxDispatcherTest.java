@@ -0,0 +1,107 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static uk.gov.companieshouse.acsp.manage.users.model.enums.MessageType.YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_ADMIN_MESSAGE_TYPE;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.companieshouse.acsp.manage.users.model.EmailOutboxDao;
+import uk.gov.companieshouse.acsp.manage.users.model.email.YourRoleAtAcspHasChanged.YourRoleAtAcspHasChangedToAdminEmailData;
+import uk.gov.companieshouse.acsp.manage.users.repositories.EmailOutboxRepository;
+import uk.gov.companieshouse.email_producer.EmailSendingException;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private EmailDispatcher emailDispatcher;
+
+    @InjectMocks
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    private final EmailOutboxDao entry = new EmailOutboxDao()
+            .id( "outbox001" )
+            .messageType( YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_ADMIN_MESSAGE_TYPE.getValue() )
+            .emailData( new YourRoleAtAcspHasChangedToAdminEmailData( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", "http://signin" ) )
+            .status( "pending" )
+            .attempts( 0 )
+            .xRequestId( "theId123" );
+
+    @BeforeEach
+    void setup(){
+        ReflectionTestUtils.setField( emailOutboxDispatcher, "batchSize", 100 );
+        ReflectionTestUtils.setField( emailOutboxDispatcher, "maxAttempts", 2 );
+        ReflectionTestUtils.setField( emailOutboxDispatcher, "retryBackoffMs", 1000L );
+        ReflectionTestUtils.setField( emailOutboxDispatcher, "leaseMs", 60000L );
+        Mockito.doReturn( List.of( entry ) ).when( emailOutboxRepository ).fetchDispatchableEntries( any(), any() );
+    }
+
+    @Test
+    void dispatchPendingEmailsSendsClaimedEntriesAndMarksThemSent(){
+        Mockito.doReturn( 1L ).when( emailOutboxRepository ).claimEntry( eq( "outbox001" ), any(), any() );
+
+        emailOutboxDispatcher.dispatchPendingEmails();
+
+        Mockito.verify( emailDispatcher ).send( entry.getEmailData(), YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_ADMIN_MESSAGE_TYPE.getValue() );
+        Mockito.verify( emailOutboxRepository ).markSent( eq( "outbox001" ), any() );
+    }
+
+    @Test
+    void dispatchPendingEmailsSkipsEntriesClaimedElsewhere(){
+        Mockito.doReturn( 0L ).when( emailOutboxRepository ).claimEntry( eq( "outbox001" ), any(), any() );
+
+        emailOutboxDispatcher.dispatchPendingEmails();
+
+        Mockito.verify( emailDispatcher, Mockito.never() ).send( any(), anyString() );
+        Mockito.verify( emailOutboxRepository, Mockito.never() ).markSent( any(), any() );
+    }
+
+    @Test
+    void dispatchPendingEmailsSchedulesRetryWhenSendingFails(){
+        Mockito.doReturn( 1L ).when( emailOutboxRepository ).claimEntry( eq( "outbox001" ), any(), any() );
+        Mockito.doThrow( new EmailSendingException( "Failed to send email", new Exception() ) ).when( emailDispatcher ).send( any(), anyString() );
+
+        emailOutboxDispatcher.dispatchPendingEmails();
+
+        Mockito.verify( emailOutboxRepository ).markUnsent( eq( "outbox001" ), eq( "pending" ), any(), eq( "Failed to send email" ) );
+    }
+
+    @Test
+    void dispatchPendingEmailsGivesUpAfterMaxAttempts(){
+        entry.attempts( 1 );
+        Mockito.doReturn( 1L ).when( emailOutboxRepository ).claimEntry( eq( "outbox001" ), any(), any() );
+        Mockito.doThrow( new EmailSendingException( "Failed to send email", new Exception() ) ).when( emailDispatcher ).send( any(), anyString() );
+
+        emailOutboxDispatcher.dispatchPendingEmails();
+
+        Mockito.verify( emailOutboxRepository ).markUnsent( eq( "outbox001" ), eq( "failed" ), any(), eq( "Failed to send email" ) );
+    }
+
+    @Test
+    void dispatchPendingEmailsFailsEntrySupersededByNewerPendingEmail(){
+        entry.coalescingKey( "TS001:buzz.lightyear@toystory.com" );
+        Mockito.doReturn( 1L ).when( emailOutboxRepository ).claimEntry( eq( "outbox001" ), any(), any() );
+        Mockito.doThrow( new EmailSendingException( "Failed to send email", new Exception() ) ).when( emailDispatcher ).send( any(), anyString() );
+        Mockito.doThrow( new DuplicateKeyException( "E11000 duplicate key error index: coalescing_key_pending_unique" ) ).when( emailOutboxRepository ).markUnsent( eq( "outbox001" ), eq( "pending" ), any(), any() );
+
+        emailOutboxDispatcher.dispatchPendingEmails();
+
+        Mockito.verify( emailOutboxRepository ).markUnsent( eq( "outbox001" ), eq( "failed" ), any(), eq( "Superseded by a newer pending email for TS001:buzz.lightyear@toystory.com after: Failed to send email" ) );
+    }
+
+}
@@ -1,14 +1,17 @@
 package uk.gov.companieshouse.acsp.manage.users.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.scheduler.Schedulers;
 import uk.gov.companieshouse.acsp.manage.users.model.email.ConfirmYouAreAMember.ConfirmYouAreAStandardMemberEmailData;
 import uk.gov.companieshouse.acsp.manage.users.model.email.ConfirmYouAreAMember.ConfirmYouAreAnAdminMemberEmailData;
 import uk.gov.companieshouse.acsp.manage.users.model.email.ConfirmYouAreAMember.ConfirmYouAreAnOwnerMemberEmailData;
@@ -18,6 +21,7 @@ import uk.gov.companieshouse.acsp.manage.users.model.email.YourRoleAtAcspHasChan
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
 import uk.gov.companieshouse.email_producer.EmailProducer;
 import uk.gov.companieshouse.email_producer.EmailSendingException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -30,12 +34,19 @@ class EmailServiceTest {
     @Mock
     private EmailProducer emailProducer;
 
-    @InjectMocks
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
     private EmailService emailService;
 
     @Value( "${signin.url}" )
     private String signinUrl;
 
+    @BeforeEach
+    void setup(){
+        emailService = new EmailService( new EmailDispatcher( emailProducer, Schedulers.immediate(), new SimpleMeterRegistry(), 1, 0L, 1 ), emailOutboxService );
+    }
+
     @Test
     void sendConfirmYouAreAMemberEmailWithNullRecipientEmailOrAddedByOrAcspNameOrRoleThrowsIllegalArgumentException(){
         Assertions.assertThrows( IllegalArgumentException.class, () -> emailService.sendConfirmYouAreAMemberEmail(  null, "demo@ch.gov.uk", "Witcher", UserRoleEnum.OWNER ).block() );
@@ -116,4 +127,64 @@ class EmailServiceTest {
         Mockito.verify( emailProducer ).sendEmail( expectedEmailData, YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_STANDARD_MESSAGE_TYPE.getValue() );
     }
 
+    @Test
+    void sendYourRoleAtAcspHasChangedEmailWithOutboxEnabledRecordsEmailInsteadOfSendingIt(){
+        final var expectedEmailData = new YourRoleAtAcspHasChangedToAdminEmailData( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", signinUrl );
+        Mockito.doReturn( true ).when( emailOutboxService ).isEnabled();
+
+        emailService.sendYourRoleAtAcspHasChangedEmail( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", UserRoleEnum.ADMIN ).block();
+
+        Mockito.verify( emailOutboxService ).record( expectedEmailData, YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_ADMIN_MESSAGE_TYPE );
+        Mockito.verify( emailProducer, Mockito.never() ).sendEmail( any(), any() );
+    }
+
+    @Test
+    void sendYourRoleAtAcspHasChangedEmailProducesOnEmailSchedulerRatherThanCallerThread(){
+        final var emailScheduler = Schedulers.newSingle( "email-sender" );
+        final var producingThread = new AtomicReference<String>();
+        Mockito.doAnswer( invocation -> {
+            producingThread.set( Thread.currentThread().getName() );
+            return null;
+        } ).when( emailProducer ).sendEmail( any(), eq( YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE.getValue() ) );
+
+        try {
+            new EmailService( new EmailDispatcher( emailProducer, emailScheduler, new SimpleMeterRegistry(), 1, 0L, 1 ), emailOutboxService ).sendYourRoleAtAcspHasChangedEmail( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", UserRoleEnum.OWNER ).block();
+        } finally {
+            emailScheduler.dispose();
+        }
+
+        Assertions.assertTrue( producingThread.get().startsWith( "email-sender" ) );
+    }
+
+    @Test
+    void sendYourRoleAtAcspHasChangedEmailWithOutboxDisabledSendsEachEmailImmediately(){
+        ReflectionTestUtils.setField( emailService, "roleChangeCoalescingWindowMs", 100L );
+
+        emailService.sendYourRoleAtAcspHasChangedEmail( "TS001", "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", UserRoleEnum.OWNER ).block();
+        emailService.sendYourRoleAtAcspHasChangedEmail( "TS001", "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", UserRoleEnum.STANDARD ).block();
+
+        Mockito.verify( emailProducer ).sendEmail( new YourRoleAtAcspHasChangedToOwnerEmailData( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", signinUrl ), YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE.getValue() );
+        Mockito.verify( emailProducer ).sendEmail( new YourRoleAtAcspHasChangedToStandardEmailData( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", signinUrl ), YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_STANDARD_MESSAGE_TYPE.getValue() );
+        Mockito.verify( emailOutboxService, Mockito.never() ).record( any(), any(), any(), Mockito.anyLong() );
+    }
+
+    @Test
+    void sendYourRoleAtAcspHasChangedEmailWithOutboxEnabledPropagatesRecordFailureWithoutSubscription(){
+        Mockito.doReturn( true ).when( emailOutboxService ).isEnabled();
+        Mockito.doThrow( new IllegalStateException( "Outbox unavailable" ) ).when( emailOutboxService ).record( any(), any() );
+
+        Assertions.assertThrows( IllegalStateException.class, () -> emailService.sendYourRoleAtAcspHasChangedEmail( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", UserRoleEnum.ADMIN ) );
+    }
+
+    @Test
+    void sendYourRoleAtAcspHasChangedEmailWithOutboxEnabledCoalescesInOutbox(){
+        ReflectionTestUtils.setField( emailService, "roleChangeCoalescingWindowMs", 100L );
+        final var expectedEmailData = new YourRoleAtAcspHasChangedToOwnerEmailData( "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", signinUrl );
+        Mockito.doReturn( true ).when( emailOutboxService ).isEnabled();
+
+        emailService.sendYourRoleAtAcspHasChangedEmail( "TS001", "buzz.lightyear@toystory.com", "demo@ch.gov.uk", "Witcher", UserRoleEnum.OWNER ).block();
+
+        Mockito.verify( emailOutboxService ).record( expectedEmailData, YOUR_ROLE_AT_ACSP_HAS_CHANGED_TO_OWNER_MESSAGE_TYPE, "TS001:buzz.lightyear@toystory.com", 100L );
+    }
+
 }
@@ -0,0 +1,51 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.companieshouse.acsp.manage.users.repositories.AcspMembersRepository;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class MembershipArchiverTest {
+
+    @Mock
+    private AcspMembersRepository acspMembersRepository;
+
+    @InjectMocks
+    private MembershipArchiver membershipArchiver;
+
+    @BeforeEach
+    void setup(){
+        ReflectionTestUtils.setField( membershipArchiver, "removedForDays", 90L );
+        ReflectionTestUtils.setField( membershipArchiver, "batchSize", 2 );
+    }
+
+    @Test
+    void archiveRemovedMembershipsKeepsArchivingWhileBatchesAreFull(){
+        Mockito.when( acspMembersRepository.archiveMembershipsRemovedBefore( any(), eq( 2 ) ) ).thenReturn( 2, 2, 1 );
+
+        membershipArchiver.archiveRemovedMemberships();
+
+        Mockito.verify( acspMembersRepository, Mockito.times( 3 ) ).archiveMembershipsRemovedBefore( any(), eq( 2 ) );
+    }
+
+    @Test
+    void archiveRemovedMembershipsWithNothingToArchiveRunsOneBatch(){
+        Mockito.when( acspMembersRepository.archiveMembershipsRemovedBefore( any(), eq( 2 ) ) ).thenReturn( 0 );
+
+        membershipArchiver.archiveRemovedMemberships();
+
+        Mockito.verify( acspMembersRepository ).archiveMembershipsRemovedBefore( any(), eq( 2 ) );
+    }
+
+}
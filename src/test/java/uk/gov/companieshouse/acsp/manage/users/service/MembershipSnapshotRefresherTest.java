@@ -0,0 +1,100 @@
+package uk.gov.companieshouse.acsp.manage.users.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
+import uk.gov.companieshouse.acsp.manage.users.exceptions.NotFoundRuntimeException;
+import uk.gov.companieshouse.acsp.manage.users.repositories.AcspMembersRepository;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class MembershipSnapshotRefresherTest {
+
+    @Mock
+    private AcspMembersRepository acspMembersRepository;
+
+    @Mock
+    private UsersService usersService;
+
+    @Mock
+    private AcspProfileService acspProfileService;
+
+    @InjectMocks
+    private MembershipSnapshotRefresher membershipSnapshotRefresher;
+
+    private static final TestDataManager testDataManager = TestDataManager.getInstance();
+
+    @BeforeEach
+    void setup(){
+        ReflectionTestUtils.setField( membershipSnapshotRefresher, "snapshotStalenessSeconds", 3600L );
+        ReflectionTestUtils.setField( membershipSnapshotRefresher, "batchSize", 10 );
+    }
+
+    @Test
+    void refreshStaleSnapshotsWithNoStaleMembershipsDoesNothing(){
+        Mockito.doReturn( List.of() ).when( acspMembersRepository ).fetchMembershipsWithStaleSnapshot( any(), anyInt() );
+
+        membershipSnapshotRefresher.refreshStaleSnapshots();
+
+        Mockito.verify( acspMembersRepository, Mockito.never() ).updateMembershipSnapshots( any() );
+        Mockito.verifyNoInteractions( usersService, acspProfileService );
+    }
+
+    @Test
+    void refreshStaleSnapshotsFetchesUsersAndAcspsInOneBatchAndWritesSnapshots(){
+        final var memberships = testDataManager.fetchAcspMembersDaos( "TS001", "TS002" );
+        final var users = testDataManager.fetchUserDtos( "TSU001", "TSU002" );
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+
+        Mockito.doReturn( memberships ).when( acspMembersRepository ).fetchMembershipsWithStaleSnapshot( any(), Mockito.eq( 10 ) );
+        Mockito.doReturn( Flux.fromIterable( users ) ).when( usersService ).fetchUserDetails( any( Flux.class ) );
+        Mockito.doReturn( Mono.just( acspProfile ) ).when( acspProfileService ).fetchAcspProfileReactively( "TSA001" );
+        Mockito.doReturn( 2 ).when( acspMembersRepository ).updateMembershipSnapshots( memberships );
+
+        membershipSnapshotRefresher.refreshStaleSnapshots();
+
+        Mockito.verify( usersService ).fetchUserDetails( any( Flux.class ) );
+        Mockito.verify( usersService, Mockito.never() ).fetchUserDetails( Mockito.anyString() );
+        Mockito.verify( acspProfileService ).fetchAcspProfileReactively( "TSA001" );
+        Mockito.verify( acspMembersRepository ).updateMembershipSnapshots( memberships );
+        Assertions.assertEquals( users.getFirst().getEmail(), memberships.getFirst().getUserEmail() );
+        Assertions.assertEquals( "Toy Story", memberships.getLast().getAcspName() );
+        Assertions.assertEquals( "active", memberships.getLast().getAcspStatus() );
+        Assertions.assertNotNull( memberships.getLast().getSnapshotRefreshedAt() );
+        Assertions.assertEquals( memberships.getLast().getSnapshotRefreshedAt(), memberships.getLast().getSnapshotRefreshAttemptedAt() );
+    }
+
+    @Test
+    void refreshStaleSnapshotsKeepsPreviousSnapshotWhenALookupFails(){
+        final var memberships = testDataManager.fetchAcspMembersDaos( "TS001" );
+        memberships.getFirst().userEmail( "stale@toystory.com" );
+        final var acspProfile = testDataManager.fetchAcspProfiles( "TSA001" ).getFirst();
+
+        Mockito.doReturn( memberships ).when( acspMembersRepository ).fetchMembershipsWithStaleSnapshot( any(), anyInt() );
+        Mockito.doReturn( Flux.just( "TSU001" ).flatMap( userId -> Mono.error( new NotFoundRuntimeException( "Failed to find user", new Exception( "Failed to find user" ) ) ) ) ).when( usersService ).fetchUserDetails( any( Flux.class ) );
+        Mockito.doReturn( Mono.just( acspProfile ) ).when( acspProfileService ).fetchAcspProfileReactively( "TSA001" );
+
+        membershipSnapshotRefresher.refreshStaleSnapshots();
+
+        Mockito.verify( acspMembersRepository ).updateMembershipSnapshots( memberships );
+        Assertions.assertEquals( "stale@toystory.com", memberships.getFirst().getUserEmail() );
+        Assertions.assertNull( memberships.getFirst().getAcspName() );
+        Assertions.assertNull( memberships.getFirst().getSnapshotRefreshedAt() );
+        Assertions.assertNotNull( memberships.getFirst().getSnapshotRefreshAttemptedAt() );
+    }
+
+}
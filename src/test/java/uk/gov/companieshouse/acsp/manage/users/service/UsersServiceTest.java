@@ -23,6 +23,7 @@ import org.springframework.web.reactive.function.client.WebClient.RequestHeaders
 import org.springframework.web.reactive.function.client.WebClient.RequestHeadersUriSpec;
 import org.springframework.web.reactive.function.client.WebClient.ResponseSpec;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
 import uk.gov.companieshouse.acsp.manage.users.exceptions.InternalServerErrorRuntimeException;
@@ -233,6 +234,16 @@ class UsersServiceTest {
         Assertions.assertTrue( users.values().stream().map( User::getUserId ).toList().contains( "WITU001" ) );
     }
 
+    @Test
+    void fetchUserDetailsWithFluxLooksUpEachDistinctUserOnce() throws JsonProcessingException {
+        final var membership = testDataManager.fetchAcspMembersDaos( "WIT001" ).getFirst();
+        mockWebClientForFetchUserDetails( "WITU001", UriType.STRING );
+        final var users = usersService.fetchUserDetails( Flux.just( membership, membership ) ).collectList().block();
+
+        Assertions.assertEquals( 1, users.size() );
+        Assertions.assertEquals( "WITU001", users.getFirst().getUserId() );
+    }
+
     @Test
     void searchUserDetailsWithNullListThrowsNullPointerException(){
         Assertions.assertThrows( NullPointerException.class, () -> usersService.searchUserDetails( null ) );
@@ -0,0 +1,62 @@
+package uk.gov.companieshouse.acsp.manage.users.utils;
+
+import ch.qos.logback.classic.Level;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class LoggingUtilTest {
+
+    @Test
+    void isSampledSelectsOneInEverySampleRateMessagesPerMessageType(){
+        final var sampled = IntStream.range( 0, 10 )
+                .filter( index -> LoggingUtil.isSampled( "sampling-test", 5 ) )
+                .boxed()
+                .toList();
+
+        Assertions.assertEquals( 2, sampled.size() );
+        Assertions.assertTrue( LoggingUtil.isSampled( "another-sampling-test", 5 ) );
+    }
+
+    @Test
+    void isSampledAlwaysSelectsWhenSampleRateIsOneOrLess(){
+        Assertions.assertTrue( IntStream.range( 0, 5 ).allMatch( index -> LoggingUtil.isSampled( "unsampled-test", 1 ) ) );
+        Assertions.assertTrue( IntStream.range( 0, 5 ).allMatch( index -> LoggingUtil.isSampled( "unsampled-test", 0 ) ) );
+    }
+
+    @Test
+    void isWithinRateLimitPermitsAtMostMaxPerSecondMessagesPerWindow(){
+        final var firstWindow = IntStream.range( 0, 5 )
+                .filter( index -> LoggingUtil.isWithinRateLimit( "rate-limit-test", 3, 1_000L ) )
+                .count();
+        final var secondWindow = IntStream.range( 0, 5 )
+                .filter( index -> LoggingUtil.isWithinRateLimit( "rate-limit-test", 3, 2_500L ) )
+                .count();
+
+        Assertions.assertEquals( 3, firstWindow );
+        Assertions.assertEquals( 3, secondWindow );
+    }
+
+    @Test
+    void isDebugEnabledFollowsApplicationNamespaceLoggerLevel(){
+        StaticPropertyUtil.APPLICATION_NAMESPACE = "acsp-manage-users-api";
+        final var namespaceLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger( "acsp-manage-users-api" );
+        final var previousLevel = namespaceLogger.getLevel();
+        try {
+            namespaceLogger.setLevel( Level.DEBUG );
+            Assertions.assertTrue( LoggingUtil.isDebugEnabled() );
+            namespaceLogger.setLevel( Level.WARN );
+            Assertions.assertFalse( LoggingUtil.isDebugEnabled() );
+            Assertions.assertFalse( LoggingUtil.isInfoEnabled() );
+        } finally {
+            namespaceLogger.setLevel( previousLevel );
+        }
+    }
+
+}
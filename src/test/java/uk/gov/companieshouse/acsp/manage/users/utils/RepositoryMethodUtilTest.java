@@ -0,0 +1,48 @@
+package uk.gov.companieshouse.acsp.manage.users.utils;
+
+import static uk.gov.companieshouse.acsp.manage.users.utils.RepositoryMethodUtil.REPOSITORY_METHOD_KEY;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RepositoryMethodUtil.getRepositoryMethod;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RepositoryMethodUtil.repositoryMethodTracker;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import uk.gov.companieshouse.acsp.manage.users.repositories.ReactiveAcspMembersRepository;
+
+@Tag( "unit-test" )
+class RepositoryMethodUtilTest {
+
+    private MethodInvocation invocation( final Object result ) throws Throwable {
+        final var invocation = Mockito.mock( MethodInvocation.class );
+        Mockito.doReturn( ReactiveAcspMembersRepository.class.getMethod( "findAll" ) ).when( invocation ).getMethod();
+        Mockito.doReturn( result ).when( invocation ).proceed();
+        return invocation;
+    }
+
+    @Test
+    void repositoryMethodTrackerSetsRepositoryMethodForBlockingCallsAndRestoresIt() throws Throwable {
+        final var invocation = Mockito.mock( MethodInvocation.class );
+        Mockito.doReturn( ReactiveAcspMembersRepository.class.getMethod( "findAll" ) ).when( invocation ).getMethod();
+        Mockito.doAnswer( answer -> getRepositoryMethod() ).when( invocation ).proceed();
+
+        Assertions.assertEquals( "ReactiveAcspMembersRepository.findAll", repositoryMethodTracker( ReactiveAcspMembersRepository.class ).invoke( invocation ) );
+        Assertions.assertEquals( "unknown", getRepositoryMethod() );
+    }
+
+    @Test
+    void repositoryMethodTrackerCarriesRepositoryMethodIntoReactorContext() throws Throwable {
+        final var mono = Mono.deferContextual( context -> Mono.just( context.<String>get( REPOSITORY_METHOD_KEY ) ) );
+        final var flux = Flux.deferContextual( context -> Flux.just( context.<String>get( REPOSITORY_METHOD_KEY ) ) );
+
+        final var monoResult = (Mono<?>) repositoryMethodTracker( ReactiveAcspMembersRepository.class ).invoke( invocation( mono ) );
+        final var fluxResult = (Flux<?>) repositoryMethodTracker( ReactiveAcspMembersRepository.class ).invoke( invocation( flux ) );
+
+        Assertions.assertEquals( "ReactiveAcspMembersRepository.findAll", monoResult.block() );
+        Assertions.assertEquals( "ReactiveAcspMembersRepository.findAll", fluxResult.blockFirst() );
+    }
+
+}
@@ -10,6 +10,8 @@ import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.g
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getEricAuthorisedKeyRoles;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getEricIdentity;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getEricIdentityType;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getIfMatch;
+import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getSort;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getUser;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.getXRequestId;
 import static uk.gov.companieshouse.acsp.manage.users.utils.RequestContextUtil.isActiveMemberOfAcsp;
@@ -19,7 +21,11 @@ import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.U
 import static uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum.ADMIN;
 import static uk.gov.companieshouse.api.util.security.EricConstants.ERIC_IDENTITY;
 
+import io.micrometer.context.ContextRegistry;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
@@ -32,8 +38,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
 import uk.gov.companieshouse.acsp.manage.users.common.TestDataManager;
 import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContext;
+import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextAccessor;
 import uk.gov.companieshouse.acsp.manage.users.model.context.RequestContextData.RequestContextDataBuilder;
 import uk.gov.companieshouse.api.acsp_manage_users.model.AcspMembership.UserRoleEnum;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @ExtendWith( MockitoExtension.class )
 @Tag( "unit-test" )
@@ -146,6 +156,36 @@ class RequestContextUtilTest {
         Assertions.assertEquals( expectedOutcome, getActiveAcspRole() );
     }
 
+    private static Stream<Arguments> setTokenPermissionsScenarios(){
+        return Stream.of(
+                Arguments.of( "acsp_members=read acsp_members_admins=create,update,delete acsp_number=TSA001", "TSA001", ADMIN ),
+                Arguments.of( "acsp_members_admins=create,update,delete  acsp_members_owners=create,update,delete acsp_number=TSA001", "TSA001", OWNER ),
+                Arguments.of( "acsp_number=TSA001-_x acsp_members=read", "TSA001-_x", STANDARD ),
+                Arguments.of( "acsp_number=TSA!001 acsp_number=TSA002", "TSA002", null ),
+                Arguments.of( "acsp_number=123456789012345678901234567890123 acsp_members=readonly", "unknown", null ),
+                Arguments.of( "xacsp_number=TSA001 acsp_members_owners=create,update,delete,extra", "unknown", null )
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "setTokenPermissionsScenarios" )
+    void setTokenPermissionsParsesAcspNumberAndRoleInOnePass( final String ericAuthorisedTokenPermissions, final String expectedAcspNumber, final UserRoleEnum expectedRole ){
+        final var request = new MockHttpServletRequest();
+        request.addHeader( "Eric-Authorised-Token-Permissions", ericAuthorisedTokenPermissions );
+        RequestContext.setRequestContext( new RequestContextDataBuilder().setTokenPermissions( request ).build() );
+
+        Assertions.assertEquals( expectedAcspNumber, getActiveAcspNumber() );
+        Assertions.assertEquals( expectedRole, getActiveAcspRole() );
+    }
+
+    @Test
+    void setTokenPermissionsWithoutHeaderUsesDefaults(){
+        RequestContext.setRequestContext( new RequestContextDataBuilder().setTokenPermissions( new MockHttpServletRequest() ).build() );
+
+        Assertions.assertEquals( "unknown", getActiveAcspNumber() );
+        Assertions.assertNull( getActiveAcspRole() );
+    }
+
     @Test
     void getAdminPrivilegesIsEmptySetWhenAdminPrivilegesIsMissing(){
         RequestContext.setRequestContext( new RequestContextDataBuilder().build() );
@@ -160,6 +200,49 @@ class RequestContextUtilTest {
         Assertions.assertEquals( Set.of( "/admin/acsp/search" ), getAdminPrivileges() );
     }
 
+    @Test
+    void getAdminPrivilegesRetrievesEveryAdminPrivilege(){
+        final var request = new MockHttpServletRequest();
+        request.addHeader("Eric-Authorised-Roles","/admin/acsp/search  /admin/user/search ");
+        RequestContext.setRequestContext( new RequestContextDataBuilder().setAdminPrivileges( request ).build() );
+        Assertions.assertEquals( Set.of( "/admin/acsp/search", "/admin/user/search" ), getAdminPrivileges() );
+    }
+
+    static Stream<Arguments> getIfMatchTestData(){
+        return Stream.of(
+                Arguments.of( null, null ),
+                Arguments.of( "", null ),
+                Arguments.of( "*", null ),
+                Arguments.of( "\"\"", null ),
+                Arguments.of( "theEtag", "theEtag" ),
+                Arguments.of( "\"theEtag\"", "theEtag" ),
+                Arguments.of( "W/\"theEtag\"", "theEtag" ),
+                Arguments.of( " \"theEtag\" ", "theEtag" )
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "getIfMatchTestData" )
+    void getIfMatchRetrievesUnquotedEtag( final String ifMatch, final String expectedEtag ){
+        final var request = new MockHttpServletRequest();
+        if ( ifMatch != null ){
+            request.addHeader( "If-Match", ifMatch );
+        }
+        RequestContext.setRequestContext( new RequestContextDataBuilder().setIfMatch( request ).build() );
+        Assertions.assertEquals( expectedEtag, getIfMatch() );
+    }
+
+    @Test
+    void getSortRetrievesTrimmedSortParameter(){
+        final var request = new MockHttpServletRequest();
+        request.setParameter( "sort", " -added_at " );
+        RequestContext.setRequestContext( new RequestContextDataBuilder().setSort( request ).build() );
+        Assertions.assertEquals( "-added_at", getSort() );
+
+        RequestContext.setRequestContext( new RequestContextDataBuilder().setSort( new MockHttpServletRequest() ).build() );
+        Assertions.assertNull( getSort() );
+    }
+
     @Test
     void getUserNullWhenUserIsMissing(){
         RequestContext.setRequestContext( new RequestContextDataBuilder().build() );
@@ -173,6 +256,51 @@ class RequestContextUtilTest {
         Assertions.assertEquals( user, getUser() );
     }
 
+    @Test
+    void getUserResolvesUserSupplierOnceAcrossVirtualThreads() throws Exception {
+        final var user = testDataManager.fetchUserDtos( "COMU002" ).getFirst();
+        final var numberOfResolutions = new AtomicInteger();
+        final var requestContextData = new RequestContextDataBuilder()
+                .setUserSupplier( () -> {
+                    numberOfResolutions.incrementAndGet();
+                    return user;
+                } )
+                .build();
+
+        try ( final var executorService = Executors.newVirtualThreadPerTaskExecutor() ){
+            final var futures = IntStream.range( 0, 50 )
+                    .mapToObj( index -> executorService.submit( requestContextData::getUser ) )
+                    .toList();
+            for ( final var future: futures ){
+                Assertions.assertEquals( user, future.get() );
+            }
+        }
+
+        Assertions.assertEquals( 1, numberOfResolutions.get() );
+    }
+
+    @Test
+    void getXRequestIdPropagatesIntoReactorOperatorsRunningOnOtherThreads(){
+        ContextRegistry.getInstance().registerThreadLocalAccessor( new RequestContextAccessor() );
+        Hooks.enableAutomaticContextPropagation();
+        try {
+            final var request = new MockHttpServletRequest();
+            request.addHeader( "X-Request-Id", "theId123" );
+            RequestContext.setRequestContext( new RequestContextDataBuilder().setXRequestId( request ).build() );
+
+            final var xRequestId = Mono.just( "email" )
+                    .publishOn( Schedulers.boundedElastic() )
+                    .map( email -> getXRequestId() )
+                    .contextCapture()
+                    .block();
+
+            Assertions.assertEquals( "theId123", xRequestId );
+        } finally {
+            Hooks.disableAutomaticContextPropagation();
+            RequestContext.clear();
+        }
+    }
+
     @Test
     void isOAuth2RequestReturnsFalseWhenRequestTypeIsUnknown(){
         RequestContext.setRequestContext( new RequestContextDataBuilder().build() );
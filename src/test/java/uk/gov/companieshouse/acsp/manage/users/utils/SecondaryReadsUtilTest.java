@@ -0,0 +1,30 @@
+package uk.gov.companieshouse.acsp.manage.users.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith( MockitoExtension.class )
+@Tag( "unit-test" )
+class SecondaryReadsUtilTest {
+
+    @Test
+    void isSecondaryReadPermittedIsFalseOutsideOfWithSecondaryReads(){
+        Assertions.assertFalse( SecondaryReadsUtil.isSecondaryReadPermitted() );
+    }
+
+    @Test
+    void withSecondaryReadsPermitsSecondaryReadsOnlyWhileSupplierRuns(){
+        Assertions.assertTrue( SecondaryReadsUtil.withSecondaryReads( SecondaryReadsUtil::isSecondaryReadPermitted ) );
+        Assertions.assertFalse( SecondaryReadsUtil.isSecondaryReadPermitted() );
+    }
+
+    @Test
+    void withSecondaryReadsRestoresStateWhenSupplierThrows(){
+        Assertions.assertThrows( IllegalStateException.class, () -> SecondaryReadsUtil.withSecondaryReads( () -> { throw new IllegalStateException(); } ) );
+        Assertions.assertFalse( SecondaryReadsUtil.isSecondaryReadPermitted() );
+    }
+
+}